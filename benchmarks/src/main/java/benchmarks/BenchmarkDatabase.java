@@ -0,0 +1,168 @@
+package benchmarks;
+
+import model.datasource.ConnectionPool;
+import model.datasource.PoolConfig;
+import testsupport.H2Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory H2 database, in MySQL compatibility mode, filled with synthetic data for the DAO benchmarks.
+ * <p>
+ * The schema is {@code database/schema.sql}, bundled in the jar by the build and translated for H2
+ * by {@link H2Schema}, as in the load test. Connections are served by the application's own
+ * {@link ConnectionPool}, so the measured paths are the ones used in production, minus the
+ * network round trip to MySQL.
+ * </p>
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final String SCHEMA_RESOURCE = "/schema.sql";
+
+    private static final String[] PERFORMER_CATEGORIES = {"Attore/Attrice", "Musicista", "Cantante", "Ballerino", "Doppiatore/trice", "Qualsiasi"};
+    private static final String[] GENDERS = {"M", "F", "Altro"};
+    private static final String[] STATUSES = {"In attesa", "Shortlist", "Selezionata", "Rifiutata"};
+
+    private final ConnectionPool pool;
+
+    /**
+     * Creates the schema and inserts {@code performers} performers, {@code castings} castings and
+     * {@code applicationsPerCasting} applications for each casting.
+     *
+     * @param name a name unique within the JVM, so that concurrent trials do not share the data.
+     */
+    public BenchmarkDatabase(String name, int performers, int castings, int applicationsPerCasting) throws SQLException, IOException {
+        if (performers <= 0 || castings <= 0 || applicationsPerCasting < 0) {
+            throw new IllegalArgumentException("Row counts must be positive");
+        }
+        PoolConfig config = new PoolConfig("jdbc:h2:mem:" + name + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", "sa", "");
+        config.setDriverClassName("org.h2.Driver");
+        config.setMinSize(1);
+        config.setMaxSize(4);
+        this.pool = new ConnectionPool(config);
+
+        try (Connection connection = pool.getConnection()) {
+            createSchema(connection);
+            connection.setAutoCommit(false);
+            seed(connection, performers, castings, applicationsPerCasting);
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    public ConnectionPool getDataSource() {
+        return pool;
+    }
+
+    /**
+     * Drops the data and closes the pool.
+     */
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = pool.getConnection(); Statement st = connection.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        } finally {
+            pool.close();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static void createSchema(Connection connection) throws SQLException, IOException {
+        String script;
+        try (InputStream in = BenchmarkDatabase.class.getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Schema not found: " + SCHEMA_RESOURCE);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        try (Statement st = connection.createStatement()) {
+            for (String sql : H2Schema.translate(script)) {
+                st.execute(sql);
+            }
+        }
+    }
+
+    private static void seed(Connection connection, int performers, int castings, int applicationsPerCasting) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        try (PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO User (FirstName, LastName, PasswordHash, PhoneNumber, Role, Email) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement performer = connection.prepareStatement(
+                     "INSERT INTO Performer (Gender, Category, Description, CV_MimeType, ProfilePhoto, UserID) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= performers; i++) {
+                addUser(user, "Performer", i);
+                performer.setString(1, GENDERS[i % GENDERS.length]);
+                performer.setString(2, PERFORMER_CATEGORIES[i % PERFORMER_CATEGORIES.length]);
+                performer.setString(3, "Descrizione del performer " + i + ", con esperienze di teatro e televisione.");
+                performer.setString(4, "application/pdf");
+                performer.setString(5, (i % 2 == 0) ? "photo-" + i + ".jpg" : null);
+                performer.setInt(6, i);
+                performer.addBatch();
+            }
+            user.executeBatch();
+            performer.executeBatch();
+
+            // One Production Manager (UserID performers + 1) and one Casting Director (UserID performers + 2)
+            addUser(user, "ProductionManager", performers + 1);
+            addUser(user, "CastingDirector", performers + 2);
+            user.executeBatch();
+        }
+
+        try (Statement st = connection.createStatement()) {
+            st.executeUpdate("INSERT INTO Production_Manager (UserID) VALUES (" + (performers + 1) + ")");
+            st.executeUpdate("INSERT INTO Casting_Director (UserID) VALUES (" + (performers + 2) + ")");
+        }
+
+        try (PreparedStatement production = connection.prepareStatement(
+                "INSERT INTO Production (Title, Type, CreationDate, PmID) VALUES ('Produzione di prova', 'Film', ?, 1)")) {
+            production.setTimestamp(1, now);
+            production.executeUpdate();
+        }
+
+        try (PreparedStatement casting = connection.prepareStatement(
+                "INSERT INTO Casting (Location, Category, Description, PublishDate, DeadLine, Title, CdID, ProductionID) VALUES (?, ?, ?, ?, ?, ?, 1, 1)");
+             PreparedStatement application = connection.prepareStatement(
+                     "INSERT INTO Application (SendingDate, Status, Feedback, PerformerID, CastingID) VALUES (?, ?, ?, ?, ?)")) {
+            for (int c = 1; c <= castings; c++) {
+                casting.setString(1, "Roma");
+                casting.setString(2, PERFORMER_CATEGORIES[c % PERFORMER_CATEGORIES.length]);
+                casting.setString(3, "Casting numero " + c + " per un ruolo da protagonista.");
+                casting.setTimestamp(4, Timestamp.valueOf(now.toLocalDateTime().plusHours(c)));
+                casting.setTimestamp(5, Timestamp.valueOf(now.toLocalDateTime().plusDays(30)));
+                casting.setString(6, "Casting " + c);
+                casting.addBatch();
+
+                for (int a = 0; a < applicationsPerCasting; a++) {
+                    application.setTimestamp(1, Timestamp.valueOf(now.toLocalDateTime().plusMinutes((long) c * applicationsPerCasting + a)));
+                    application.setString(2, STATUSES[a % STATUSES.length]);
+                    application.setString(3, (a % 3 == 0) ? "Buona presenza scenica." : null);
+                    application.setInt(4, 1 + (c * 31 + a) % performers);
+                    application.setInt(5, c);
+                    application.addBatch();
+                }
+            }
+            casting.executeBatch();
+            application.executeBatch();
+        }
+    }
+
+    private static void addUser(PreparedStatement user, String role, int id) throws SQLException {
+        user.setString(1, "Nome" + id);
+        user.setString(2, "Cognome" + id);
+        user.setString(3, "$argon2id$v=19$m=19,t=2,p=1$c2FsdA$aGFzaA");
+        user.setString(4, "3330000000");
+        user.setString(5, role);
+        user.setString(6, "utente" + id + "@example.com");
+        user.addBatch();
+    }
+}
@@ -0,0 +1,75 @@
+package filter;
+
+import model.dto.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access decisions of {@link AccessControlFilter}, as taken by its {@link RouteTable}.
+ * <p>
+ * {@code cached} replays a small set of paths, as a real site does, so every lookup is served by
+ * the table's path cache. {@code uncached} uses more distinct paths than the cache keeps, so most
+ * lookups walk the trie; it is the cost of the first request of a path and of random URLs.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTableBenchmark {
+
+    private static final String[] SITE_PATHS = {
+            "/assets/app.3f2a9c1e.css", "/media/photo/ab/abcdef-thumb.jpg", "/login", "/home",
+            "/pm/team", "/pm/production/12", "/cd/casting/7/applications", "/performer/profile",
+            "/favicon.ico", "/media/cv/42"
+    };
+
+    private static final UserDTO.Role[] ROLES = {null, UserDTO.Role.Performer, UserDTO.Role.CastingDirector, UserDTO.Role.ProductionManager};
+
+    // More than RouteTable.MAX_CACHED_PATHS
+    @Param({"16384"})
+    private int distinctPaths;
+
+    private RouteTable table;
+    private String[] randomPaths;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = RouteTable.defaults();
+        randomPaths = new String[distinctPaths];
+        for (int i = 0; i < distinctPaths; i++) {
+            randomPaths[i] = SITE_PATHS[i % SITE_PATHS.length] + "/" + i;
+        }
+    }
+
+    @Benchmark
+    public RouteTable.Decision cached() {
+        int i = next++;
+        RouteTable.Decision decision = table.route(SITE_PATHS[(i & Integer.MAX_VALUE) % SITE_PATHS.length]).decide(ROLES[i & 3]);
+        table.record(decision);
+        return decision;
+    }
+
+    @Benchmark
+    public RouteTable.Decision uncached() {
+        int i = next++;
+        RouteTable.Decision decision = table.route(randomPaths[(i & Integer.MAX_VALUE) % randomPaths.length]).decide(ROLES[i & 3]);
+        table.record(decision);
+        return decision;
+    }
+}
@@ -0,0 +1,99 @@
+package model.dao;
+
+import benchmarks.BenchmarkDatabase;
+import model.dto.ApplicationDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row {@link ApplicationDAO#save} against {@link ApplicationDAO#saveAll(java.util.Collection, int)}
+ * on an in-memory database.
+ * <p>
+ * Each operation inserts {@code rows} new applications. {@code chunkSize} 0 is the per-row
+ * {@code save} loop, one connection and one INSERT per row; the other values are the number of
+ * rows per multi-row INSERT of {@code saveAll}, which runs in one transaction. The rows inserted
+ * by an operation are deleted before the next one, outside the measurement.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchWriterBenchmark {
+
+    private static final int PERFORMERS = 100;
+    private static final int CASTINGS = 10;
+
+    @Param({"1000"})
+    private int rows;
+
+    @Param({"0", "1", "50", "500"})
+    private int chunkSize;
+
+    private BenchmarkDatabase database;
+    private ApplicationDAO applicationDAO;
+    private List<ApplicationDTO> applications;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new BenchmarkDatabase("batchwriter" + chunkSize, PERFORMERS, CASTINGS, 0);
+        applicationDAO = new ApplicationDAO(database.getDataSource());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    // New DTOs for every operation, since saving assigns their IDs
+    @Setup(Level.Invocation)
+    public void prepareRows() {
+        LocalDateTime now = LocalDateTime.now();
+        applications = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            applications.add(new ApplicationDTO(0, now.plusSeconds(i), ApplicationDTO.Status.In_attesa,
+                    (i % 3 == 0) ? "Buona presenza scenica." : null, 1 + i % PERFORMERS, 1 + i % CASTINGS));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteRows() throws SQLException {
+        try (Connection connection = database.getDataSource().getConnection();
+             Statement st = connection.createStatement()) {
+            st.executeUpdate("DELETE FROM Application");
+        }
+    }
+
+    @Benchmark
+    public List<ApplicationDTO> insert() throws SQLException {
+        if (chunkSize == 0) {
+            for (ApplicationDTO application : applications) {
+                applicationDAO.save(application);
+            }
+        } else {
+            applicationDAO.saveAll(applications, chunkSize);
+        }
+        return applications;
+    }
+}
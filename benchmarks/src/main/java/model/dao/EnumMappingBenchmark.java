@@ -0,0 +1,65 @@
+package model.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions between the MySQL ENUM labels and the Java enums, performed for every mapped row.
+ * <p>
+ * Each operation converts every label of the ENUM once, so the labels are read from fresh
+ * {@code String} instances, as they are when they come from a {@code ResultSet}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumMappingBenchmark {
+
+    private final String[] statuses = copies("In attesa", "Shortlist", "Selezionata", "Rifiutata");
+    private final String[] categories = copies("Attore/Attrice", "Musicista", "Cantante", "Ballerino", "Doppiatore/trice", "Qualsiasi");
+
+    @Benchmark
+    public void applicationStatus(Blackhole bh) {
+        for (String status : statuses) {
+            bh.consume(ApplicationDAO.mapDbToStatus(status));
+        }
+    }
+
+    @Benchmark
+    public void castingCategory(Blackhole bh) {
+        for (String category : categories) {
+            bh.consume(CastingDAO.mapDbToCategory(category));
+        }
+    }
+
+    @Benchmark
+    public void performerCategory(Blackhole bh) {
+        for (String category : categories) {
+            bh.consume(PerformerDAO.mapDbToCategory(category));
+        }
+    }
+
+    // --- Helper Methods ---
+
+    // new String() defeats the identity shortcut of String.equals on interned literals
+    private static String[] copies(String... labels) {
+        String[] result = new String[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            result[i] = new String(labels[i]);
+        }
+        return result;
+    }
+}
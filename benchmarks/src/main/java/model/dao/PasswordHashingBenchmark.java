@@ -0,0 +1,71 @@
+package model.dao;
+
+import com.password4j.Argon2Function;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Argon2Policy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argon2id hashing and verification in {@link UserDAO}, with the legacy parameters and with the
+ * OWASP minimum (19 MiB, 2 iterations).
+ * <p>
+ * Argon2 is memory-hard by design: the allocation per operation reported by the GC profiler is
+ * dominated by the memory cost of the policy, and is the figure to watch when changing it.
+ * No database is involved; the DAO only needs a data source to be constructed.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Param({"legacy", "owasp"})
+    private String policy;
+
+    private UserDAO userDAO;
+    private Argon2Function previous;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        previous = Argon2Policy.current();
+        Argon2Policy.configure("owasp".equals(policy) ? Argon2Policy.of(19 * 1024, 2, 1) : Argon2Policy.LEGACY);
+
+        userDAO = new UserDAO(new JdbcDataSource());
+        storedHash = userDAO.hashPassword(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Argon2Policy.configure(previous);
+    }
+
+    @Benchmark
+    public String hash() {
+        return userDAO.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return userDAO.verifyPassword(PASSWORD, storedHash);
+    }
+}
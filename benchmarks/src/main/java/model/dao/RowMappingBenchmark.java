@@ -0,0 +1,104 @@
+package model.dao;
+
+import benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping of the DAOs, without the queries around it.
+ * <p>
+ * Each table is read once per trial into a scrollable result set, selecting the same columns as
+ * the DAOs; H2 keeps it in memory. Every operation rewinds it and maps its {@code rows} rows with
+ * the {@code MAPPING} of {@link ApplicationDAO}, {@link CastingDAO} and {@link PerformerDAO}, so the
+ * figures are the cost of the mapping plus the cursor movement, with no query execution. The column
+ * check of {@link RowMapping} runs on the first row of the warmup only. Divide the throughput by {@code rows}, and the allocation per
+ * operation ({@code gc.alloc.rate.norm}) likewise, to get the cost of a single row.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private Connection connection;
+    private ResultSet applications;
+    private ResultSet castings;
+    private ResultSet performers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // rows performers and rows castings with one application each
+        database = new BenchmarkDatabase("rowmapping" + rows, rows, rows, 1);
+        connection = database.getDataSource().getConnection();
+        applications = query("SELECT " + ApplicationDAO.COLUMNS + " FROM Application");
+        castings = query("SELECT " + CastingDAO.COLUMNS + " FROM Casting");
+        performers = query("SELECT " + PerformerDAO.COLUMNS + " FROM Performer");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        // The pooled connection does not close its statements when returned
+        for (ResultSet rs : new ResultSet[]{applications, castings, performers}) {
+            rs.getStatement().close();
+        }
+        connection.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void applications(Blackhole bh) throws SQLException {
+        applications.beforeFirst();
+        while (applications.next()) {
+            bh.consume(ApplicationDAO.MAPPING.map(applications));
+        }
+    }
+
+    @Benchmark
+    public void castings(Blackhole bh) throws SQLException {
+        castings.beforeFirst();
+        while (castings.next()) {
+            bh.consume(CastingDAO.MAPPING.map(castings));
+        }
+    }
+
+    @Benchmark
+    public void performers(Blackhole bh) throws SQLException {
+        performers.beforeFirst();
+        while (performers.next()) {
+            bh.consume(PerformerDAO.MAPPING.map(performers));
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private ResultSet query(String sql) throws SQLException {
+        // One statement per result set, since executing a statement again closes its previous result
+        Statement st = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        return st.executeQuery(sql);
+    }
+}
@@ -19,6 +19,8 @@ CREATE TABLE Performer (
     Category ENUM('Attore/Attrice', 'Musicista', 'Cantante', 'Ballerino', 'Doppiatore/trice', 'Qualsiasi') NOT NULL,
     Description TEXT,
     CV_Data MEDIUMBLOB,
+    CV_Size INT GENERATED ALWAYS AS (IFNULL(OCTET_LENGTH(CV_Data), 0)) STORED,
+    CV_Hash CHAR(64) GENERATED ALWAYS AS (SHA2(CV_Data, 256)) STORED,
     CV_MimeType VARCHAR(255) DEFAULT 'application/pdf',
     ProfilePhoto VARCHAR(255),
     UserID INT,
@@ -64,6 +66,8 @@ CREATE TABLE Casting (
     Title VARCHAR(255) NOT NULL,
     CdID INT NOT NULL,
     ProductionID INT NOT NULL,
+    INDEX idx_casting_production_publish (ProductionID, PublishDate),
+    INDEX idx_casting_cd_publish (CdID, PublishDate),
     FOREIGN KEY (CdID) REFERENCES Casting_Director(CdID) ON DELETE CASCADE,
     FOREIGN KEY (ProductionID) REFERENCES Production(ProductionID) ON DELETE CASCADE
 );
@@ -75,6 +79,8 @@ CREATE TABLE Application (
     Feedback TEXT,
     PerformerID INT NOT NULL,
     CastingID INT NOT NULL,
+    INDEX idx_application_performer_sent (PerformerID, SendingDate),
+    INDEX idx_application_casting_sent (CastingID, SendingDate),
     FOREIGN KEY (PerformerID) REFERENCES Performer(PerformerID) ON DELETE CASCADE,
     FOREIGN KEY (CastingID) REFERENCES Casting(CastingID) ON DELETE CASCADE
 );
\ No newline at end of file
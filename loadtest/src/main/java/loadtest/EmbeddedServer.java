@@ -0,0 +1,102 @@
+package loadtest;
+
+import jakarta.servlet.ServletContext;
+import model.MainContext;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.loader.WebappLoader;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.catalina.webresources.DirResourceSet;
+import org.apache.catalina.webresources.StandardRoot;
+import org.apache.tomcat.util.descriptor.web.ApplicationParameter;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * The webapp running in an embedded Tomcat, as deployed: {@code web.xml}, the annotated servlets,
+ * filters and {@link MainContext}, and the JSP views of {@code WebContent}.
+ * <p>
+ * The compiled classes are mounted as {@code /WEB-INF/classes}, so that Tomcat finds the
+ * annotations, and loaded parent-first, so that the harness and the webapp share the same
+ * classes and static state (e.g. the Argon2 policy used to hash the test passwords).
+ * Context parameters passed to {@link #start} take precedence over those of {@code web.xml}.
+ * </p>
+ */
+public final class EmbeddedServer {
+
+    private final Tomcat tomcat;
+    private final Context context;
+
+    private EmbeddedServer(Tomcat tomcat, Context context) {
+        this.tomcat = tomcat;
+        this.context = context;
+    }
+
+    /**
+     * @param webContent the {@code WebContent} directory of the application.
+     * @param baseDir    the working directory of Tomcat.
+     * @param port       the HTTP port, or 0 for a free one.
+     * @param parameters context parameters overriding {@code web.xml}.
+     */
+    public static EmbeddedServer start(Path webContent, Path baseDir, int port, Map<String, String> parameters) throws LifecycleException {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toAbsolutePath().toString());
+        tomcat.setPort(port);
+        tomcat.getConnector();
+
+        Context context = tomcat.addWebapp("", webContent.toAbsolutePath().toString());
+
+        WebResourceRoot resources = new StandardRoot(context);
+        resources.addPreResources(new DirResourceSet(resources, "/WEB-INF/classes", classesDirectory(), "/"));
+        context.setResources(resources);
+
+        WebappLoader loader = new WebappLoader();
+        loader.setDelegate(true);
+        context.setLoader(loader);
+
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            ApplicationParameter applicationParameter = new ApplicationParameter();
+            applicationParameter.setName(parameter.getKey());
+            applicationParameter.setValue(parameter.getValue());
+            applicationParameter.setOverride(false);
+            context.addApplicationParameter(applicationParameter);
+        }
+
+        tomcat.start();
+        if (!context.getState().isAvailable()) {
+            tomcat.stop();
+            throw new LifecycleException("La webapp non è partita, vedere il log di Tomcat.");
+        }
+        return new EmbeddedServer(tomcat, context);
+    }
+
+    public int getPort() {
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    public ServletContext getServletContext() {
+        return context.getServletContext();
+    }
+
+    public void stop() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * @return the directory (or JAR) holding the compiled application classes.
+     */
+    private static String classesDirectory() {
+        try {
+            return new File(MainContext.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the application classes", e);
+        }
+    }
+}
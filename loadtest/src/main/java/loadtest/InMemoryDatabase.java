@@ -0,0 +1,151 @@
+package loadtest;
+
+import org.h2.jdbcx.JdbcDataSource;
+import testsupport.H2Schema;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory H2 database in MySQL compatibility mode, created from {@code database/schema.sql}.
+ * <p>
+ * The schema file is the one deployed on MySQL; its few MySQL-only constructs are translated by
+ * {@link H2Schema} while it is loaded.
+ * </p>
+ */
+public final class InMemoryDatabase {
+
+    private final String url;
+    private final JdbcDataSource dataSource;
+    // Keeps the database alive for the whole run
+    private final Connection keepAlive;
+
+    private InMemoryDatabase(String name) throws SQLException {
+        this.url = "jdbc:h2:mem:" + name + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL(url);
+        this.dataSource.setUser("sa");
+        this.dataSource.setPassword("");
+        this.keepAlive = dataSource.getConnection();
+    }
+
+    /**
+     * Creates the database and its tables.
+     *
+     * @param schema the MySQL schema file.
+     */
+    public static InMemoryDatabase create(String name, Path schema) throws SQLException, IOException {
+        InMemoryDatabase database = new InMemoryDatabase(name);
+        String script = new String(Files.readAllBytes(schema), StandardCharsets.UTF_8);
+        try (Statement st = database.keepAlive.createStatement()) {
+            for (String sql : H2Schema.translate(script)) {
+                st.execute(sql);
+            }
+        }
+        return database;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public void close() throws SQLException {
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("SHUTDOWN");
+        } finally {
+            keepAlive.close();
+        }
+    }
+
+    /**
+     * Inserts the users and the data the scenarios work on. Every user has the same password,
+     * hashed once by the caller with the Argon2 parameters of the running application, so that
+     * logins never trigger a rehash.
+     * <p>
+     * IDs are explicit and follow the insertion order: performer {@code i} has PerformerID
+     * {@code i}, Production Manager {@code i} has PmID {@code i} and owns the productions
+     * {@code (i - 1) * productionsPerPm + 1 ... i * productionsPerPm}, Casting Director {@code i}
+     * has CdID {@code i}. Emails are {@code performer<i>@audire.test}, {@code pm<i>@audire.test}
+     * and {@code cd<i>@audire.test}.
+     * </p>
+     */
+    public void seed(TestData data, String passwordHash) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            int userID = 0;
+            try (PreparedStatement user = connection.prepareStatement(
+                    "INSERT INTO User (UserID, FirstName, LastName, PasswordHash, PhoneNumber, Role, Email) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement performer = connection.prepareStatement(
+                         "INSERT INTO Performer (PerformerID, Gender, Category, Description, UserID) VALUES (?, 'F', 'Attore/Attrice', ?, ?)");
+                 PreparedStatement pm = connection.prepareStatement("INSERT INTO Production_Manager (PmID, UserID) VALUES (?, ?)");
+                 PreparedStatement cd = connection.prepareStatement("INSERT INTO Casting_Director (CdID, UserID) VALUES (?, ?)")) {
+
+                for (int i = 1; i <= data.getPerformers(); i++) {
+                    addUser(user, ++userID, "Performer", TestData.performerEmail(i), passwordHash);
+                    performer.setInt(1, i);
+                    performer.setString(2, "Performer di prova " + i);
+                    performer.setInt(3, userID);
+                    performer.addBatch();
+                }
+                for (int i = 1; i <= data.getProductionManagers(); i++) {
+                    addUser(user, ++userID, "ProductionManager", TestData.pmEmail(i), passwordHash);
+                    pm.setInt(1, i);
+                    pm.setInt(2, userID);
+                    pm.addBatch();
+                }
+                for (int i = 1; i <= data.getCastingDirectors(); i++) {
+                    addUser(user, ++userID, "CastingDirector", TestData.cdEmail(i), passwordHash);
+                    cd.setInt(1, i);
+                    cd.setInt(2, userID);
+                    cd.addBatch();
+                }
+                user.executeBatch();
+                performer.executeBatch();
+                pm.executeBatch();
+                cd.executeBatch();
+            }
+
+            try (PreparedStatement production = connection.prepareStatement(
+                    "INSERT INTO Production (ProductionID, Title, Type, CreationDate, PmID) VALUES (?, ?, 'Film', ?, ?)")) {
+                for (int p = 1; p <= data.getProductions(); p++) {
+                    production.setInt(1, p);
+                    production.setString(2, "Produzione " + p);
+                    production.setTimestamp(3, now);
+                    production.setInt(4, data.ownerOf(p));
+                    production.addBatch();
+                }
+                production.executeBatch();
+            }
+
+            connection.commit();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static void addUser(PreparedStatement user, int userID, String role, String email, String passwordHash) throws SQLException {
+        user.setInt(1, userID);
+        user.setString(2, "Nome" + userID);
+        user.setString(3, "Cognome" + userID);
+        user.setString(4, passwordHash);
+        user.setString(5, "3330000000");
+        user.setString(6, role);
+        user.setString(7, email);
+        user.addBatch();
+    }
+}
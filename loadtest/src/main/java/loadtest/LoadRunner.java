@@ -0,0 +1,212 @@
+package loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link Scenario} with a closed- or an open-loop load model.
+ * <p>
+ * In a <b>closed loop</b> a fixed number of users repeat the scenario back to back (plus an optional
+ * think time): the load adapts to the server, which is what happens with a fixed group of staff.
+ * In an <b>open loop</b> iterations start at a fixed rate whatever the response times, as with
+ * users arriving from outside; the latency of an iteration is measured from its scheduled start,
+ * so the time spent waiting for a free user when the server falls behind is included and the
+ * percentiles do not hide the overload (coordinated omission).
+ * </p>
+ * <p>
+ * Each run records every request under its step and every iteration under {@link #ITERATION}.
+ * The requests sent while preparing the users and during the warm-up are discarded.
+ * </p>
+ */
+public final class LoadRunner {
+
+    public static final String ITERATION = "(iterazione)";
+
+    // Time left to the iterations still queued at the end of an open-loop run
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    public LoadRunner(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @param users    the number of concurrent users.
+     * @param think    the pause of each user between two iterations.
+     */
+    public Results closedLoop(Scenario scenario, int users, Duration warmup, Duration duration, Duration think) throws InterruptedException {
+        Results results = new Results();
+        VirtualUser[] virtualUsers = prepare(scenario, users, results);
+
+        ExecutorService workers = Executors.newFixedThreadPool(users);
+        long start = System.nanoTime();
+        long end = start + warmup.toNanos() + duration.toNanos();
+        for (int i = 0; i < users; i++) {
+            int index = i;
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        iterate(scenario, virtualUsers[index], index, System.nanoTime(), results);
+                        if (!think.isZero()) {
+                            Thread.sleep(think.toMillis());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        sleepUntil(start + warmup.toNanos());
+        results.reset();
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toNanos() + DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+        }
+        results.stop();
+        return results;
+    }
+
+    /**
+     * @param ratePerSecond the number of iterations started per second.
+     * @param users         the maximum number of iterations in progress at the same time.
+     */
+    public Results openLoop(Scenario scenario, double ratePerSecond, int users, Duration warmup, Duration duration) throws InterruptedException {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        Results results = new Results();
+        VirtualUser[] virtualUsers = prepare(scenario, users, results);
+
+        BlockingQueue<Integer> idle = new ArrayBlockingQueue<>(users);
+        for (int i = 0; i < users; i++) {
+            idle.add(i);
+        }
+
+        // One thread per user, so an arrival never waits for a thread once a user is free
+        ExecutorService workers = Executors.newFixedThreadPool(users);
+        long period = (long) (1_000_000_000L / ratePerSecond);
+        long next = System.nanoTime();
+        long measureStart = next + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        boolean measuring = false;
+
+        while (next < end) {
+            sleepUntil(next);
+            if (!measuring && next >= measureStart) {
+                results.reset();
+                measuring = true;
+            }
+            long scheduled = next;
+            workers.execute(new Arrival(scheduled) {
+                @Override
+                public void run() {
+                    try {
+                        int index = idle.take();
+                        try {
+                            iterate(scenario, virtualUsers[index], index, scheduled, results);
+                        } finally {
+                            idle.add(index);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            next += period;
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            // Iterations never started are failures, with the time they waited
+            for (Runnable pending : workers.shutdownNow()) {
+                results.record(ITERATION, System.nanoTime() - ((Arrival) pending).scheduled, false);
+            }
+        }
+        results.stop();
+        return results;
+    }
+
+    // --- Helper Methods ---
+
+    private static abstract class Arrival implements Runnable {
+        final long scheduled;
+
+        Arrival(long scheduled) {
+            this.scheduled = scheduled;
+        }
+    }
+
+    /**
+     * Creates and prepares the users in parallel, at most one per processor at a time so that the
+     * logins do not overflow the hashing queue, then discards the recorded requests.
+     */
+    private VirtualUser[] prepare(Scenario scenario, int users, Results results) throws InterruptedException {
+        if (users <= 0) {
+            throw new IllegalArgumentException("At least one user is required");
+        }
+        VirtualUser[] virtualUsers = new VirtualUser[users];
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            int index = i;
+            virtualUsers[i] = new VirtualUser(client, baseUrl, results);
+            tasks.add(() -> {
+                scenario.prepare(virtualUsers[index], index);
+                return null;
+            });
+        }
+
+        ExecutorService preparers = Executors.newFixedThreadPool(Math.min(users, Runtime.getRuntime().availableProcessors()));
+        try {
+            for (Future<Void> future : preparers.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Preparazione degli utenti non riuscita: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            preparers.shutdownNow();
+        }
+        results.reset();
+        return virtualUsers;
+    }
+
+    private static void iterate(Scenario scenario, VirtualUser user, int index, long scheduled, Results results) throws InterruptedException {
+        boolean successful;
+        user.takeFailure();
+        try {
+            scenario.iterate(user, index);
+            successful = !user.takeFailure();
+        } catch (IOException e) {
+            successful = false;
+        } catch (RuntimeException e) {
+            successful = false;
+            e.printStackTrace();
+        }
+        results.record(ITERATION, System.nanoTime() - scheduled, successful);
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
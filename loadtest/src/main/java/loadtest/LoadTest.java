@@ -0,0 +1,212 @@
+package loadtest;
+
+import model.dao.UserDAO;
+import model.datasource.InstrumentedDataSource;
+import model.datasource.SqlStats;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test of the application without Tomcat or MySQL installations.
+ * <p>
+ * Creates an in-memory database from {@code database/schema.sql}, starts the webapp in an embedded
+ * Tomcat, fills the database with test users and productions and runs the scenarios, printing
+ * throughput, latency percentiles and error rate for each request type. All options are
+ * {@code --name=value}:
+ * </p>
+ * <pre>
+ * --scenario=all|login-storm|pm-browsing|team-assignment  (all)
+ * --mode=closed|open        load model; by default open for login-storm, closed otherwise
+ * --users=20                concurrent users (closed) or maximum iterations in progress (open)
+ * --rate=20                 iterations started per second (open)
+ * --duration=60 --warmup=10 seconds
+ * --think=0                 milliseconds between two iterations of a user (closed)
+ * --performers=500 --pms=20 --cds=50 --productions-per-pm=5
+ * --argon2-memory-kib=19456 --argon2-iterations=2 --pool-size=20 --port=0
+ * </pre>
+ * <p>
+ * The paths of the webapp and of the schema default to the {@code loadtest.webapp} and
+ * {@code loadtest.schema} system properties, set by the Maven build.
+ * </p>
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("scenario", "all");
+        DEFAULTS.put("mode", "");
+        DEFAULTS.put("users", "20");
+        DEFAULTS.put("rate", "20");
+        DEFAULTS.put("duration", "60");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("think", "0");
+        DEFAULTS.put("performers", "500");
+        DEFAULTS.put("pms", "20");
+        DEFAULTS.put("cds", "50");
+        DEFAULTS.put("productions-per-pm", "5");
+        DEFAULTS.put("argon2-memory-kib", "19456");
+        DEFAULTS.put("argon2-iterations", "2");
+        DEFAULTS.put("pool-size", "20");
+        DEFAULTS.put("port", "0");
+        DEFAULTS.put("webapp", System.getProperty("loadtest.webapp", "../src/main/WebContent"));
+        DEFAULTS.put("schema", System.getProperty("loadtest.schema", "../database/schema.sql"));
+    }
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        TestData data = new TestData(intOption(options, "performers"), intOption(options, "pms"),
+                intOption(options, "cds"), intOption(options, "productions-per-pm"));
+
+        Path baseDir = Files.createTempDirectory("audire-loadtest");
+        InMemoryDatabase database = InMemoryDatabase.create("audire", Paths.get(options.get("schema")));
+        EmbeddedServer server = EmbeddedServer.start(Paths.get(options.get("webapp")), baseDir,
+                intOption(options, "port"), serverParameters(options, database, baseDir));
+
+        try {
+            // Hashed with the policy configured by the webapp, so that logins never trigger a rehash
+            String passwordHash = new UserDAO(database.getDataSource()).hashPassword(TestData.PASSWORD);
+            database.seed(data, passwordHash);
+            System.out.println("Dati di prova creati: " + data.getPerformers() + " performer, " + data.getProductionManagers()
+                    + " PM, " + data.getCastingDirectors() + " CD, " + data.getProductions() + " produzioni.");
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            LoadRunner runner = new LoadRunner(client, "http://localhost:" + server.getPort());
+
+            for (Scenario scenario : scenarios(options.get("scenario"), data)) {
+                run(runner, scenario, options);
+            }
+            printSqlStatistics(server);
+        } finally {
+            server.stop();
+            database.close();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static void run(LoadRunner runner, Scenario scenario, Map<String, String> options) throws InterruptedException {
+        String mode = options.get("mode");
+        if (mode.isEmpty()) {
+            mode = (scenario instanceof LoginStorm) ? "open" : "closed";
+        }
+        int users = intOption(options, "users");
+        Duration warmup = Duration.ofSeconds(intOption(options, "warmup"));
+        Duration duration = Duration.ofSeconds(intOption(options, "duration"));
+
+        Results results;
+        String title;
+        switch (mode) {
+            case "open":
+                double rate = Double.parseDouble(options.get("rate"));
+                System.out.println("Esecuzione di " + scenario.getName() + ": " + rate + " iterazioni/s per " + duration.getSeconds() + " s...");
+                results = runner.openLoop(scenario, rate, users, warmup, duration);
+                title = String.format(Locale.ROOT, "Scenario %s (ciclo aperto, %.1f iterazioni/s, max %d in corso)", scenario.getName(), rate, users);
+                break;
+            case "closed":
+                Duration think = Duration.ofMillis(intOption(options, "think"));
+                System.out.println("Esecuzione di " + scenario.getName() + ": " + users + " utenti per " + duration.getSeconds() + " s...");
+                results = runner.closedLoop(scenario, users, warmup, duration, think);
+                title = String.format(Locale.ROOT, "Scenario %s (ciclo chiuso, %d utenti, pausa %d ms)", scenario.getName(), users, think.toMillis());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        results.print(System.out, title);
+    }
+
+    private static List<Scenario> scenarios(String name, TestData data) {
+        List<Scenario> all = List.of(new LoginStorm(data), new PmBrowsing(data), new TeamAssignment(data));
+        if (name.equals("all")) {
+            return all;
+        }
+        List<Scenario> selected = new ArrayList<>();
+        for (Scenario scenario : all) {
+            if (scenario.getName().equals(name)) {
+                selected.add(scenario);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("Unknown scenario: " + name);
+        }
+        return selected;
+    }
+
+    private static Map<String, String> serverParameters(Map<String, String> options, InMemoryDatabase database, Path baseDir) {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("db.url", database.getUrl());
+        parameters.put("db.user", "sa");
+        parameters.put("db.password", "");
+        parameters.put("db.driver", "org.h2.Driver");
+        parameters.put("pool.maxSize", options.get("pool-size"));
+        // Argon2 cost chosen for the run; calibration would only add startup time
+        parameters.put("hashing.argon2.calibrate", "false");
+        parameters.put("hashing.argon2.memoryKiB", options.get("argon2-memory-kib"));
+        parameters.put("hashing.argon2.iterations", options.get("argon2-iterations"));
+        // Every virtual user connects from the same address
+        parameters.put("login.maxFailuresPerAddress", String.valueOf(Integer.MAX_VALUE));
+        parameters.put("media.root", baseDir.resolve("media").toString());
+        parameters.put("media.gcIntervalMinutes", "0");
+        return parameters;
+    }
+
+    /**
+     * Prints the most expensive statements measured by the webapp's {@link InstrumentedDataSource}
+     * over the whole run, warm-up included.
+     */
+    private static void printSqlStatistics(EmbeddedServer server) {
+        Object attribute = server.getServletContext().getAttribute(InstrumentedDataSource.CONTEXT_ATTRIBUTE);
+        if (!(attribute instanceof InstrumentedDataSource)) {
+            return;
+        }
+        List<SqlStats> statements = ((InstrumentedDataSource) attribute).getStatementStats();
+        System.out.println();
+        System.out.println("Istruzioni SQL più costose (intera esecuzione):");
+        System.out.println(String.format(Locale.ROOT, "%9s %9s %9s %7s  %s", "esecuz.", "tot ms", "p99 ms", "errori", "istruzione"));
+        for (SqlStats stats : statements.subList(0, Math.min(10, statements.size()))) {
+            System.out.println(String.format(Locale.ROOT, "%9d %9.1f %9.2f %7d  %s", stats.getCount(),
+                    stats.getLatency().getSumSeconds() * 1000, stats.getLatency().getQuantileSeconds(0.99) * 1000,
+                    stats.getErrorCount(), stats.getSql()));
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Options must be written as --name=value: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name) {
+        try {
+            return Integer.parseInt(options.get(name).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " must be an integer: " + options.get(name));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Many users logging in at once, e.g. when a casting call is announced: login page, login and
+ * logout, each iteration with a new session and a random performer account.
+ * <p>
+ * The cost is dominated by Argon2, so this scenario exercises the hashing executor, its queue
+ * and the {@code 503 Retry-After} answer given when the queue is full; those answers count as errors.
+ * </p>
+ */
+public final class LoginStorm implements Scenario {
+
+    private final TestData data;
+
+    public LoginStorm(TestData data) {
+        this.data = data;
+    }
+
+    @Override
+    public String getName() {
+        return "login-storm";
+    }
+
+    @Override
+    public void iterate(VirtualUser user, int index) throws IOException, InterruptedException {
+        user.resetSession();
+        int performer = ThreadLocalRandom.current().nextInt(data.getPerformers()) + 1;
+
+        user.get("GET /login", "/login", VirtualUser.status(200));
+        user.login(TestData.performerEmail(performer), TestData.PASSWORD);
+        user.get("GET /logout", "/logout", VirtualUser.redirectTo("/"));
+    }
+}
@@ -0,0 +1,39 @@
+package loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Production Managers browsing their productions: the list of productions and the team page of
+ * one of them, which also lists the available Casting Directors.
+ */
+public final class PmBrowsing implements Scenario {
+
+    private final TestData data;
+
+    public PmBrowsing(TestData data) {
+        this.data = data;
+    }
+
+    @Override
+    public String getName() {
+        return "pm-browsing";
+    }
+
+    @Override
+    public void prepare(VirtualUser user, int index) throws IOException, InterruptedException {
+        user.login(TestData.pmEmail(pmOf(index)), TestData.PASSWORD);
+    }
+
+    @Override
+    public void iterate(VirtualUser user, int index) throws IOException, InterruptedException {
+        int production = data.productionOf(pmOf(index), ThreadLocalRandom.current().nextInt(data.getProductionsPerPm()));
+
+        user.get("GET /pm/productions", "/pm/productions", VirtualUser.status(200));
+        user.get("GET /pm/team", "/pm/team?id=" + production, VirtualUser.status(200));
+    }
+
+    private int pmOf(int index) {
+        return index % data.getProductionManagers() + 1;
+    }
+}
@@ -0,0 +1,96 @@
+package loadtest;
+
+import utils.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of the requests of one scenario run, grouped by step.
+ * <p>
+ * Latencies are kept in the application's {@link LatencyHistogram}, so the percentiles printed here
+ * have the same resolution as those exported on {@code /admin/metrics}.
+ * </p>
+ */
+public final class Results {
+
+    /**
+     * Counters of one step: a request type, or a whole iteration of the scenario.
+     */
+    public static final class Step {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrorCount() {
+            return errors.sum();
+        }
+    }
+
+    private final Map<String, Step> steps = new ConcurrentSkipListMap<>();
+    private volatile long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    /**
+     * Records one request or iteration.
+     *
+     * @param step       the name of the step.
+     * @param nanos      the latency.
+     * @param successful whether the response was the expected one.
+     */
+    public void record(String step, long nanos, boolean successful) {
+        Step stats = steps.computeIfAbsent(step, s -> new Step());
+        stats.latency.recordNanos(nanos);
+        if (!successful) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Discards what was recorded so far, e.g. at the end of the warm-up, and restarts the clock.
+     */
+    public void reset() {
+        steps.clear();
+        startNanos = System.nanoTime();
+    }
+
+    public void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    public Map<String, Step> getSteps() {
+        return steps;
+    }
+
+    public double getElapsedSeconds() {
+        long end = (endNanos != 0) ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1e9;
+    }
+
+    /**
+     * Prints a table with, for each step, the count, the errors, the throughput and the latency percentiles.
+     */
+    public void print(PrintStream out, String title) {
+        double seconds = getElapsedSeconds();
+        out.println();
+        out.println(title + String.format(Locale.ROOT, " - durata %.1f s", seconds));
+        out.println(String.format(Locale.ROOT, "%-28s %9s %7s %7s %9s %9s %9s %9s %9s",
+                "passo", "richieste", "errori", "err%", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, Step> entry : steps.entrySet()) {
+            LatencyHistogram latency = entry.getValue().getLatency();
+            long count = latency.getCount();
+            long errors = entry.getValue().getErrorCount();
+            out.println(String.format(Locale.ROOT, "%-28s %9d %7d %6.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f",
+                    entry.getKey(), count, errors, count > 0 ? 100.0 * errors / count : 0.0,
+                    seconds > 0 ? count / seconds : 0.0,
+                    latency.getQuantileSeconds(0.50) * 1000, latency.getQuantileSeconds(0.90) * 1000,
+                    latency.getQuantileSeconds(0.99) * 1000, latency.getMaxSeconds() * 1000));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package loadtest;
+
+import java.io.IOException;
+
+/**
+ * A scripted user journey, run repeatedly by each virtual user.
+ */
+public interface Scenario {
+
+    String getName();
+
+    /**
+     * Prepares a virtual user before the measurement starts, e.g. by logging it in. Not measured.
+     *
+     * @param user  the virtual user.
+     * @param index the index of the user, from 0, to spread users over the test data.
+     * @throws IOException if a request fails.
+     */
+    default void prepare(VirtualUser user, int index) throws IOException, InterruptedException {
+    }
+
+    /**
+     * Runs one iteration of the journey. Each request is recorded by the user; an exception aborts
+     * the iteration, which is then counted as failed.
+     *
+     * @param user  the virtual user.
+     * @param index the index of the user, as passed to {@link #prepare(VirtualUser, int)}.
+     * @throws IOException if a request fails.
+     */
+    void iterate(VirtualUser user, int index) throws IOException, InterruptedException;
+}
@@ -0,0 +1,52 @@
+package loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Production Managers assigning Casting Directors to their productions: add a Casting Director,
+ * reload the team page and remove them again, so that the data set does not drift.
+ * <p>
+ * Each virtual user works on its own production, so concurrent users never add the same
+ * Casting Director to the same team. There must be no more users than productions.
+ * </p>
+ */
+public final class TeamAssignment implements Scenario {
+
+    private final TestData data;
+
+    public TeamAssignment(TestData data) {
+        this.data = data;
+    }
+
+    @Override
+    public String getName() {
+        return "team-assignment";
+    }
+
+    @Override
+    public void prepare(VirtualUser user, int index) throws IOException, InterruptedException {
+        int production = productionOf(index);
+        user.login(TestData.pmEmail(data.ownerOf(production)), TestData.PASSWORD);
+    }
+
+    @Override
+    public void iterate(VirtualUser user, int index) throws IOException, InterruptedException {
+        int production = productionOf(index);
+        int cdUser = data.cdUserID(ThreadLocalRandom.current().nextInt(data.getCastingDirectors()) + 1);
+        String team = "/pm/team?id=" + production;
+
+        user.post("POST /pm/team", "/pm/team", VirtualUser.redirectTo(team),
+                "action", "add", "productionId", String.valueOf(production), "userId", String.valueOf(cdUser));
+        user.get("GET /pm/team", team, VirtualUser.status(200));
+        user.post("POST /pm/remove-team-member", "/pm/remove-team-member", VirtualUser.redirectTo(team),
+                "productionId", String.valueOf(production), "userId", String.valueOf(cdUser));
+    }
+
+    private int productionOf(int index) {
+        if (index >= data.getProductions()) {
+            throw new IllegalArgumentException("Team assignment needs one production per user: " + data.getProductions() + " productions available");
+        }
+        return index + 1;
+    }
+}
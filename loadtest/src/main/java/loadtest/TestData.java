@@ -0,0 +1,78 @@
+package loadtest;
+
+/**
+ * Size of the data set created by {@link InMemoryDatabase#seed(TestData, String)} and
+ * conventions shared with the scenarios to find its users and productions.
+ */
+public final class TestData {
+
+    public static final String PASSWORD = "Password123!";
+
+    private final int performers;
+    private final int productionManagers;
+    private final int castingDirectors;
+    private final int productionsPerPm;
+
+    public TestData(int performers, int productionManagers, int castingDirectors, int productionsPerPm) {
+        if (performers <= 0 || productionManagers <= 0 || castingDirectors <= 0 || productionsPerPm <= 0) {
+            throw new IllegalArgumentException("Every entity count must be positive");
+        }
+        this.performers = performers;
+        this.productionManagers = productionManagers;
+        this.castingDirectors = castingDirectors;
+        this.productionsPerPm = productionsPerPm;
+    }
+
+    public int getPerformers() {
+        return performers;
+    }
+
+    public int getProductionManagers() {
+        return productionManagers;
+    }
+
+    public int getCastingDirectors() {
+        return castingDirectors;
+    }
+
+    public int getProductionsPerPm() {
+        return productionsPerPm;
+    }
+
+    public int getProductions() {
+        return productionManagers * productionsPerPm;
+    }
+
+    /**
+     * @return the PmID of the Production Manager who owns the production.
+     */
+    public int ownerOf(int productionID) {
+        return (productionID - 1) / productionsPerPm + 1;
+    }
+
+    /**
+     * @return the ID of the {@code n}-th production (from 0) of a Production Manager.
+     */
+    public int productionOf(int pmID, int n) {
+        return (pmID - 1) * productionsPerPm + 1 + n % productionsPerPm;
+    }
+
+    /**
+     * @return the UserID of a Casting Director, as assigned by the seed (performers, then PMs, then CDs).
+     */
+    public int cdUserID(int cdID) {
+        return performers + productionManagers + cdID;
+    }
+
+    public static String performerEmail(int i) {
+        return "performer" + i + "@audire.test";
+    }
+
+    public static String pmEmail(int i) {
+        return "pm" + i + "@audire.test";
+    }
+
+    public static String cdEmail(int i) {
+        return "cd" + i + "@audire.test";
+    }
+}
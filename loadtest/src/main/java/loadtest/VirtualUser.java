@@ -0,0 +1,149 @@
+package loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * A simulated browser: one HTTP session, identified by its {@code JSESSIONID} cookie.
+ * <p>
+ * Cookies are handled by hand rather than with a {@link java.net.CookieManager}, because the
+ * application marks the session cookie {@code Secure} and the embedded server speaks plain HTTP.
+ * Redirects are not followed, so that each request is measured on its own and the redirect
+ * target can be checked.
+ * </p>
+ */
+public final class VirtualUser {
+
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The part of a response checked by the scenarios.
+     */
+    public record Response(int status, String location) {
+
+        public boolean isRedirectTo(String path) {
+            return (status == 302 || status == 303) && location != null && location.contains(path);
+        }
+    }
+
+    public static Predicate<Response> status(int expected) {
+        return r -> r.status() == expected;
+    }
+
+    public static Predicate<Response> redirectTo(String path) {
+        return r -> r.isRedirectTo(path);
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Results results;
+    private String sessionId;
+    private boolean failed;
+
+    public VirtualUser(HttpClient client, String baseUrl, Results results) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.results = results;
+    }
+
+    /**
+     * Forgets the session, as a new browser would.
+     */
+    public void resetSession() {
+        sessionId = null;
+    }
+
+    /**
+     * @return whether a request got an unexpected response since the last call.
+     */
+    public boolean takeFailure() {
+        boolean result = failed;
+        failed = false;
+        return result;
+    }
+
+    /**
+     * Sends a GET request and records it under {@code step}.
+     *
+     * @param expected the check that tells a successful response from a failed one.
+     */
+    public Response get(String step, String path, Predicate<Response> expected) throws IOException, InterruptedException {
+        return send(step, request(path).GET().build(), expected);
+    }
+
+    /**
+     * Sends a form as a POST request and records it under {@code step}.
+     *
+     * @param form name and value pairs.
+     */
+    public Response post(String step, String path, Predicate<Response> expected, String... form) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i + 1 < form.length; i += 2) {
+            if (body.length() > 0) body.append('&');
+            body.append(URLEncoder.encode(form[i], StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(form[i + 1], StandardCharsets.UTF_8));
+        }
+        HttpRequest request = request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return send(step, request, expected);
+    }
+
+    /**
+     * Logs in through the login form; a successful login redirects away from the login page.
+     *
+     * @throws IOException if the login is refused, e.g. with {@code 503} when the hashing queue is full.
+     */
+    public void login(String email, String password) throws IOException, InterruptedException {
+        Response response = post("POST /login", "/login", r -> r.status() == 302 && !r.isRedirectTo("/login"),
+                "email", email, "password", password);
+        if (response.status() != 302 || response.isRedirectTo("/login")) {
+            throw new IOException("Accesso non riuscito per " + email + " (HTTP " + response.status() + ")");
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (sessionId != null) {
+            builder.header("Cookie", SESSION_COOKIE + "=" + sessionId);
+        }
+        return builder;
+    }
+
+    private Response send(String step, HttpRequest request, Predicate<Response> expected) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> httpResponse;
+        try {
+            httpResponse = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            failed = true;
+            results.record(step, System.nanoTime() - start, false);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (String cookie : httpResponse.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith(SESSION_COOKIE + "=")) {
+                int end = cookie.indexOf(';');
+                sessionId = cookie.substring(SESSION_COOKIE.length() + 1, end < 0 ? cookie.length() : end);
+            }
+        }
+
+        Response response = new Response(httpResponse.statusCode(), httpResponse.headers().firstValue("Location").orElse(null));
+        boolean successful = expected.test(response);
+        failed |= !successful;
+        results.record(step, elapsed, successful);
+        return response;
+    }
+}
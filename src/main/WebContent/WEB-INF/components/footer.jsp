@@ -1,4 +1,5 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
 <!-- Footer -->
 <footer>
     <div class="container">
@@ -6,7 +7,7 @@
             <!-- Logo Column -->
             <div class="footer-column">
                 <div class="footer-logo">
-                    <img src="images/logo.png" alt="Audire Logo" style="max-width: 150px;">
+                    <img src="${pageContext.request.contextPath}${audire:asset('/images/logo.png')}" alt="Audire Logo" style="max-width: 150px;">
                 </div>
             </div>
 
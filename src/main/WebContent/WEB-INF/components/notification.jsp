@@ -1,6 +1,7 @@
 <%@taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@taglib prefix="fn" uri="http://java.sun.com/jsp/jstl/functions" %>
-<script defer src="${pageContext.request.contextPath}/scripts/notification.js"></script>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
+<script defer src="${pageContext.request.contextPath}${audire:asset('/scripts/notification.js')}"></script>
 
 <%--@elvariable id="notificationType" type="java.lang.String"--%>
 <%--@elvariable id="notificationMessage" type="java.lang.String"--%>
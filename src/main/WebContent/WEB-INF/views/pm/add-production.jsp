@@ -1,5 +1,6 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
 
 <c:set var="pageTitle" value="Nuova Produzione" scope="request"/>
 
@@ -10,8 +11,8 @@
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
     <title>${pageTitle}</title>
 
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/style.css">
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/production.css">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/style.css')}">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/production.css')}">
 
     <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
 </head>
@@ -80,8 +81,8 @@
 
 <jsp:include page="/WEB-INF/components/footer.jsp" />
 
-<script src="${pageContext.request.contextPath}/scripts/form-utils.js"></script>
-<script src="${pageContext.request.contextPath}/scripts/production-validation.js"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/form-utils.js')}"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/production-validation.js')}"></script>
 
 </body>
 </html>
\ No newline at end of file
@@ -1,5 +1,6 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
 
 <c:set var="pageTitle" value="Gestione Team - ${production.title}" scope="request"/>
 
@@ -9,8 +10,8 @@
     <meta charset="UTF-8">
     <title>${pageTitle}</title>
 
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/style.css">
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/production.css">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/style.css')}">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/production.css')}">
     <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
 </head>
 <body>
@@ -125,7 +126,7 @@
 </main>
 
 <jsp:include page="/WEB-INF/components/footer.jsp" />
-<script src="${pageContext.request.contextPath}/scripts/mobile-menu.js"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/mobile-menu.js')}"></script>
 
 </body>
 </html>
\ No newline at end of file
@@ -1,6 +1,7 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
 
 <c:set var="pageTitle" value="Le mie produzioni" scope="request"/>
 
@@ -11,8 +12,8 @@
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
     <title>${pageTitle}</title>
 
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/style.css">
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/production.css">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/style.css')}">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/production.css')}">
     <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
 </head>
 <body>
@@ -104,7 +105,7 @@
 </main>
 
 <jsp:include page="/WEB-INF/components/footer.jsp" />
-<script src="${pageContext.request.contextPath}/scripts/mobile-menu.js"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/mobile-menu.js')}"></script>
 
 </body>
 </html>
\ No newline at end of file
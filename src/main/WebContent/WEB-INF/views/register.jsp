@@ -1,5 +1,6 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
 
 <c:set var="pageTitle" value="Registrazione" scope="request"/>
 
@@ -10,7 +11,7 @@
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
     <title>${pageTitle}</title>
 
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/style.css">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/style.css')}">
     <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
 </head>
 <body>
@@ -184,9 +185,9 @@
 
 <jsp:include page="/WEB-INF/components/footer.jsp" />
 
-<script src="${pageContext.request.contextPath}/scripts/register-validation.js"></script>
-<script src="${pageContext.request.contextPath}/scripts/form-utils.js"></script>
-<script src="${pageContext.request.contextPath}/scripts/mobile-menu.js"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/register-validation.js')}"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/form-utils.js')}"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/mobile-menu.js')}"></script>
 
 </body>
 </html>
\ No newline at end of file
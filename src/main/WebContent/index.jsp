@@ -1,11 +1,12 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
 <!DOCTYPE html>
 <html lang="it">
 <head>
     <meta charset="UTF-8">
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
     <title>Audire - Piattaforma Casting</title>
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/styles/style.css">
+    <link rel="stylesheet" href="${pageContext.request.contextPath}${audire:asset('/styles/style.css')}">
     <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.4.0/css/all.min.css">
     <link href="https://fonts.googleapis.com/css2?family=Montserrat:wght@600;700&family=Open+Sans:wght@400;600&display=swap" rel="stylesheet">
 </head>
@@ -38,6 +39,6 @@
 <!-- Include Footer -->
 <jsp:include page="/WEB-INF/components/footer.jsp" />
 
-<script src="${pageContext.request.contextPath}/scripts/mobile-menu.js"></script>
+<script src="${pageContext.request.contextPath}${audire:asset('/scripts/mobile-menu.js')}"></script>
 </body>
 </html>
\ No newline at end of file
@@ -4,9 +4,19 @@ import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
+import model.dao.CastingDirectorDAO;
+import model.dao.PerformerDAO;
+import model.dao.ProductionManagerDAO;
 import model.dao.UserDAO;
+import model.dto.CastingDirectorDTO;
+import model.dto.PerformerDTO;
+import model.dto.ProductionManagerDTO;
 import model.dto.UserDTO;
+import model.dto.UserPrincipal;
+import utils.LoginAttemptTracker;
 import utils.NotificationUtil;
+import utils.PasswordHashingExecutor;
+import utils.ServerBusyException;
 
 import javax.sql.DataSource;
 import java.io.IOException;
@@ -54,6 +64,22 @@ public class Login extends HttpServlet {
 
         email = email.trim();
 
+        // Rejects throttled attempts before any query or password verification runs
+        LoginAttemptTracker tracker = (LoginAttemptTracker) getServletContext().getAttribute(LoginAttemptTracker.CONTEXT_ATTRIBUTE);
+        String clientAddress = req.getRemoteAddr();
+        if (tracker != null) {
+            long waitMillis = tracker.checkAllowed(email, clientAddress);
+            if (waitMillis > 0) {
+                long waitSeconds = (waitMillis + 999) / 1000;
+                resp.setStatus(429);
+                resp.setHeader("Retry-After", String.valueOf(waitSeconds));
+                errors.add("Troppi tentativi di accesso non riusciti. Riprova tra " + waitSeconds + " secondi.");
+                req.setAttribute("errors", errors);
+                dispatcher.forward(req, resp);
+                return;
+            }
+        }
+
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         UserDAO userDAO = new UserDAO(ds);
         UserDTO user = null;
@@ -69,23 +95,56 @@ public class Login extends HttpServlet {
         }
 
         boolean loginSuccess = false;
+        PasswordHashingExecutor hashing = (PasswordHashingExecutor) getServletContext().getAttribute(PasswordHashingExecutor.CONTEXT_ATTRIBUTE);
 
         if (user != null) {
-            if (userDAO.verifyPassword(password, user.getPasswordHash())) {
-                loginSuccess = true;
+            String passwordHash = user.getPasswordHash();
+            try {
+                loginSuccess = (hashing != null)
+                        ? hashing.run(() -> userDAO.verifyPassword(password, passwordHash))
+                        : userDAO.verifyPassword(password, passwordHash);
+            } catch (ServerBusyException e) {
+                resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                resp.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+                errors.add("Il server è momentaneamente sovraccarico. Riprova tra qualche secondo.");
+                req.setAttribute("errors", errors);
+                dispatcher.forward(req, resp);
+                return;
             }
         }
 
         if (!loginSuccess) {
+            if (tracker != null) {
+                tracker.recordFailure(email, clientAddress);
+            }
             errors.add("Credenziali non valide.");
             req.setAttribute("errors", errors);
             dispatcher.forward(req, resp);
             return;
         }
 
+        if (tracker != null) {
+            tracker.recordSuccess(email);
+        }
+
+        if (userDAO.needsRehash(user.getPasswordHash())) {
+            upgradePasswordHash(hashing, userDAO, user.getUserID(), password);
+        }
+
+        int profileID;
+        try {
+            profileID = resolveProfileID(ds, user);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            errors.add("Errore inaspettato del server.");
+            req.setAttribute("errors", errors);
+            dispatcher.forward(req, resp);
+            return;
+        }
+
         HttpSession session = req.getSession();
 
-        session.setAttribute("user", user);
+        session.setAttribute("user", new UserPrincipal(user, profileID));
 
         NotificationUtil.sendNotification(req, "Bentornat*, " + user.getFirstName() + "!", "success");
 
@@ -99,6 +158,47 @@ public class Login extends HttpServlet {
         }
     }
 
+    /**
+     * Re-hashes the password with the current Argon2 parameters after a successful login.
+     * Failures are only logged: the old hash stays valid and the upgrade is retried at the next login.
+     */
+    private void upgradePasswordHash(PasswordHashingExecutor hashing, UserDAO userDAO, int userID, String password) {
+        try {
+            String newHash = (hashing != null)
+                    ? hashing.run(() -> userDAO.hashPassword(password))
+                    : userDAO.hashPassword(password);
+            userDAO.updatePasswordHash(userID, newHash);
+        } catch (ServerBusyException e) {
+            System.out.println("Aggiornamento dell'hash rimandato per l'utente " + userID + ": server sovraccarico.");
+        } catch (SQLException e) {
+            System.out.println("Errore durante l'aggiornamento dell'hash per l'utente " + userID + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Looks up the ID of the role profile of the user, stored in the session principal.
+     *
+     * @return the PmID, CdID or PerformerID, or 0 if the profile does not exist.
+     */
+    private int resolveProfileID(DataSource ds, UserDTO user) throws SQLException {
+        if (user.getRole() == null) return 0;
+
+        switch (user.getRole()) {
+            case ProductionManager:
+                ProductionManagerDTO pm = new ProductionManagerDAO(ds).getByUserID(user.getUserID());
+                return (pm != null) ? pm.getPmID() : 0;
+            case CastingDirector:
+                CastingDirectorDTO cd = new CastingDirectorDAO(ds).getByUserID(user.getUserID());
+                return (cd != null) ? cd.getCdID() : 0;
+            case Performer:
+                PerformerDTO performer = new PerformerDAO(ds).getByUserID(user.getUserID());
+                return (performer != null) ? performer.getPerformerID() : 0;
+            default:
+                return 0;
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         if (req.getSession().getAttribute("user") != null) {
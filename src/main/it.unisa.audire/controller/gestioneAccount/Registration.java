@@ -8,31 +8,50 @@ import jakarta.servlet.http.*;
 import model.dao.CastingDirectorDAO;
 import model.dao.PerformerDAO;
 import model.dao.ProductionManagerDAO;
+import model.dao.UnitOfWork;
 import model.dao.UserDAO;
 import model.dto.CastingDirectorDTO;
 import model.dto.PerformerDTO;
 import model.dto.ProductionManagerDTO;
 import model.dto.UserDTO;
+import model.dto.UserPrincipal;
+import model.media.FileSystemMediaStore;
+import model.media.MediaStore;
+import model.media.ThumbnailService;
 import utils.NotificationUtil;
+import utils.PasswordHashingExecutor;
+import utils.ServerBusyException;
+import utils.UploadInspector;
+import utils.UploadInspector.FileType;
+import utils.UploadInspector.InspectedUpload;
+import utils.UploadInspector.UploadRejectedException;
 import javax.sql.DataSource;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
 @WebServlet("/registration")
 @MultipartConfig(
-        fileSizeThreshold = 1024 * 1024 * 2, // 2MB
-        maxFileSize = 1024 * 1024 * 10,      // 10MB
+        fileSizeThreshold = 1024 * 16,       // 16KB: i file vengono scritti su disco, non tenuti in memoria
+        maxFileSize = Registration.MAX_FILE_SIZE,
         maxRequestSize = 1024 * 1024 * 50    // 50MB
 )
 public class Registration extends HttpServlet {
 
+    static final long MAX_FILE_SIZE = 1024 * 1024 * 10; // 10MB
+
+    private static final Set<FileType> PHOTO_TYPES = EnumSet.of(FileType.JPEG, FileType.PNG);
+    private static final Set<FileType> CV_TYPES = EnumSet.of(FileType.PDF);
+
     // Regex Patterns
     private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
     private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[\\W_]).{8,}$");
@@ -90,9 +109,24 @@ public class Registration extends HttpServlet {
             if (catParam == null || catParam.isEmpty()) errors.add("Seleziona una categoria.");
             if (description == null || description.trim().isEmpty()) errors.add("Inserisci una descrizione.");
 
-            // Verifica presenza file foto
+            // Verifica presenza e tipo dei file, leggendo solo i primi byte
             if (photoPart == null || photoPart.getSize() == 0) {
                 errors.add("La foto profilo è obbligatoria per i Performer.");
+            } else {
+                try {
+                    UploadInspector.inspect(photoPart, PHOTO_TYPES, MAX_FILE_SIZE);
+                } catch (UploadRejectedException e) {
+                    errors.add(uploadErrorMessage("La foto profilo", "JPEG o PNG", e));
+                }
+            }
+
+            Part cvPart = req.getPart("cvFile");
+            if (cvPart != null && cvPart.getSize() > 0) {
+                try {
+                    UploadInspector.inspect(cvPart, CV_TYPES, MAX_FILE_SIZE);
+                } catch (UploadRejectedException e) {
+                    errors.add(uploadErrorMessage("Il curriculum", "PDF", e));
+                }
             }
         }
 
@@ -125,35 +159,74 @@ public class Registration extends HttpServlet {
             newUser.setRegistrationDate(LocalDateTime.now());
 
             // Hash Password
-            String hashedPassword = userDAO.hashPassword(password);
+            PasswordHashingExecutor hashing = (PasswordHashingExecutor) getServletContext().getAttribute(PasswordHashingExecutor.CONTEXT_ATTRIBUTE);
+            String plainPassword = password;
+            String hashedPassword = (hashing != null)
+                    ? hashing.run(() -> userDAO.hashPassword(plainPassword))
+                    : userDAO.hashPassword(plainPassword);
             newUser.setPasswordHash(hashedPassword);
 
-
-            userDAO.save(newUser);
-            int newUserId = newUser.getUserID();
-
-
-            if (roleEnum == UserDTO.Role.Performer) {
-                savePerformerProfile(req, ds, newUserId);
+            // The photo is stored before the transaction, so no connection is held while copying it
+            String photoName = (roleEnum == UserDTO.Role.Performer) ? saveFile(req.getPart("profilePhoto")) : null;
+
+            // User and role profile are written on one connection and committed together
+            int profileID = 0;
+            try (UnitOfWork uow = UnitOfWork.begin(ds)) {
+                DataSource tx = uow.getDataSource();
+
+                new UserDAO(tx).save(newUser);
+                int newUserId = newUser.getUserID();
+
+                if (roleEnum == UserDTO.Role.Performer) {
+                    profileID = savePerformerProfile(req, tx, newUserId, photoName);
+                }
+                else if (roleEnum == UserDTO.Role.CastingDirector) {
+                    CastingDirectorDAO cdDAO = new CastingDirectorDAO(tx);
+                    CastingDirectorDTO cd = new CastingDirectorDTO();
+                    cd.setUserID(newUserId);
+                    cdDAO.save(cd);
+                    profileID = cd.getCdID();
+                }
+                else if (roleEnum == UserDTO.Role.ProductionManager) {
+                    ProductionManagerDAO pmDAO = new ProductionManagerDAO(tx);
+                    ProductionManagerDTO pm = new ProductionManagerDTO();
+                    pm.setUserID(newUserId);
+                    pmDAO.save(pm);
+                    profileID = pm.getPmID();
+                }
+
+                uow.commit();
+            } catch (Exception e) {
+                releaseFile(photoName);
+                throw e;
             }
-            else if (roleEnum == UserDTO.Role.CastingDirector) {
-                CastingDirectorDAO cdDAO = new CastingDirectorDAO(ds);
-                CastingDirectorDTO cd = new CastingDirectorDTO();
-                cd.setUserID(newUserId);
-                cdDAO.save(cd);
-            }
-            else if (roleEnum == UserDTO.Role.ProductionManager) {
-                ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
-                ProductionManagerDTO pm = new ProductionManagerDTO();
-                pm.setUserID(newUserId);
-                pmDAO.save(pm);
+
+            // Le miniature vengono generate in background; le dimensioni mancanti sono create alla prima richiesta
+            ThumbnailService thumbnails = (ThumbnailService) getServletContext().getAttribute(ThumbnailService.CONTEXT_ATTRIBUTE);
+            if (thumbnails != null && FileSystemMediaStore.isKey(photoName)) {
+                thumbnails.schedule(photoName);
             }
 
             HttpSession session = req.getSession();
-            session.setAttribute("user", newUser);
+            session.setAttribute("user", new UserPrincipal(newUser, profileID));
             NotificationUtil.sendNotification(req, "Registrazione completata! Benvenut* " + firstName, "success");
             resp.sendRedirect(req.getContextPath() + "/login");
 
+        } catch (ServerBusyException e) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            errors.add("Il server è momentaneamente sovraccarico. Riprova tra qualche secondo.");
+            req.setAttribute("errors", errors);
+            dispatcher.forward(req, resp);
+        } catch (UploadRejectedException e) {
+            errors.add(uploadErrorMessage("Il file caricato", "JPEG, PNG o PDF", e));
+            req.setAttribute("errors", errors);
+            dispatcher.forward(req, resp);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Another registration took the same email after the check above
+            errors.add("Esiste già un account con questa email.");
+            req.setAttribute("errors", errors);
+            dispatcher.forward(req, resp);
         } catch (SQLException e) {
             e.printStackTrace();
             errors.add("Errore del server durante la registrazione. Riprova più tardi.");
@@ -167,8 +240,8 @@ public class Registration extends HttpServlet {
         }
     }
 
-    // Metodo helper per salvare il profilo Performer
-    private void savePerformerProfile(HttpServletRequest req, DataSource ds, int userId) throws Exception {
+    // Metodo helper per salvare il profilo Performer, restituisce il PerformerID
+    private int savePerformerProfile(HttpServletRequest req, DataSource ds, int userId, String photoName) throws Exception {
         PerformerDAO performerDAO = new PerformerDAO(ds);
         PerformerDTO performer = new PerformerDTO();
 
@@ -178,37 +251,61 @@ public class Registration extends HttpServlet {
         performer.setGender(PerformerDTO.Gender.valueOf(req.getParameter("gender")));
         performer.setCategory(PerformerDTO.Category.valueOf(req.getParameter("category")));
 
-
-        String uploadPath = getServletContext().getRealPath("") + File.separator + "uploads";
-        File uploadDir = new File(uploadPath);
-        if (!uploadDir.exists()) uploadDir.mkdir();
-
-
-        String photoName = saveFile(req.getPart("profilePhoto"), uploadPath);
         performer.setProfilePhoto(photoName);
 
+        // Il CV passa dal file temporaneo del container al database senza essere caricato in memoria
         Part cvPart = req.getPart("cvFile");
         if (cvPart != null && cvPart.getSize() > 0) {
-            performer.setCvData(cvPart.getInputStream().readAllBytes());
-            performer.setCvMimeType(cvPart.getContentType());
+            try (InspectedUpload cv = UploadInspector.open(cvPart, CV_TYPES, MAX_FILE_SIZE)) {
+                performer.setCvStream(cv.getStream());
+                performer.setCvSize(cv.getSize());
+                performer.setCvMimeType(cv.getType().getMimeType());
+                performerDAO.save(performer);
+            }
+        } else {
+            performerDAO.save(performer);
         }
-
-        performerDAO.save(performer);
+        return performer.getPerformerID();
     }
 
 
-    private String saveFile(Part part, String uploadPath) throws IOException {
-        if (part != null && part.getSize() > 0) {
-            String fileName = Paths.get(part.getSubmittedFileName()).getFileName().toString();
-            // Rimuovi spazi e caratteri speciali dal nome file
-            fileName = fileName.replaceAll("\\s+", "_");
-            // Aggiungi UUID per renderlo unico
-            String uniqueName = UUID.randomUUID().toString() + "_" + fileName;
+    // Salva la foto nel media store (chiave = hash del contenuto) o, se non configurato, nella cartella uploads
+    private String saveFile(Part part) throws IOException {
+        if (part == null || part.getSize() <= 0) {
+            return null;
+        }
+        try (InspectedUpload photo = UploadInspector.open(part, PHOTO_TYPES, MAX_FILE_SIZE)) {
+            MediaStore mediaStore = (MediaStore) getServletContext().getAttribute(MediaStore.CONTEXT_ATTRIBUTE);
+            if (mediaStore != null) {
+                return mediaStore.put(photo.getStream(), photo.getType().getExtension());
+            }
+            String uploadPath = getServletContext().getRealPath("") + File.separator + "uploads";
+            return UploadInspector.store(photo, Paths.get(uploadPath), UUID.randomUUID().toString());
+        }
+    }
+
+    // Rilascia il riferimento alla foto se la registrazione non va a buon fine
+    private void releaseFile(String photoName) {
+        MediaStore mediaStore = (MediaStore) getServletContext().getAttribute(MediaStore.CONTEXT_ATTRIBUTE);
+        if (photoName == null || mediaStore == null || !FileSystemMediaStore.isKey(photoName)) {
+            return;
+        }
+        try {
+            mediaStore.release(photoName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-            part.write(uploadPath + File.separator + uniqueName);
-            return uniqueName;
+    private static String uploadErrorMessage(String subject, String allowedTypes, UploadRejectedException e) {
+        switch (e.getReason()) {
+            case TOO_LARGE:
+                return subject + " supera la dimensione massima di " + (MAX_FILE_SIZE / (1024 * 1024)) + "MB.";
+            case TYPE_NOT_ALLOWED:
+                return subject + " deve essere in formato " + allowedTypes + ".";
+            default:
+                return subject + " è vuoto.";
         }
-        return null;
     }
 
     @Override
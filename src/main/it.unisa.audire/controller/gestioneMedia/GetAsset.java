@@ -0,0 +1,86 @@
+package controller.gestioneMedia;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import utils.AssetRegistry;
+import utils.AssetRegistry.Asset;
+import utils.HttpUtil;
+
+import java.io.IOException;
+
+/**
+ * Serves the fingerprinted static assets registered in {@link AssetRegistry} at {@code /assets/*}.
+ * <p>
+ * Responses are immutable for a year, carry an ETag and Last-Modified, and use the precompressed
+ * Brotli or gzip variant when the client accepts it. The access filter still runs for these paths,
+ * but {@code /assets} is a bypass route in its {@code RouteTable}: the request is let through
+ * without a session lookup or a role check.
+ * </p>
+ */
+@WebServlet("/assets/*")
+public class GetAsset extends HttpServlet {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        String path = req.getPathInfo();
+        Asset asset = (path != null) ? AssetRegistry.current().lookup(path) : null;
+        if (asset == null) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        byte[] body = asset.getIdentity();
+        String encoding = null;
+        if (asset.getBrotli() != null && HttpUtil.acceptsEncoding(acceptEncoding, "br")) {
+            body = asset.getBrotli();
+            encoding = "br";
+        } else if (asset.getGzip() != null && HttpUtil.acceptsEncoding(acceptEncoding, "gzip")) {
+            body = asset.getGzip();
+            encoding = "gzip";
+        }
+
+        // Each representation has its own validator
+        String etag = "\"" + asset.getEtag() + (encoding != null ? "-" + encoding : "") + "\"";
+
+        resp.setHeader("Cache-Control", IMMUTABLE);
+        resp.setHeader("ETag", etag);
+        resp.setDateHeader("Last-Modified", asset.getLastModified());
+        if (asset.getBrotli() != null || asset.getGzip() != null) {
+            resp.setHeader("Vary", "Accept-Encoding");
+        }
+
+        if (notModified(req, etag, asset.getLastModified())) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        resp.setContentType(asset.getContentType());
+        if (encoding != null) {
+            resp.setHeader("Content-Encoding", encoding);
+        }
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+
+    // --- Helper Methods ---
+
+    private static boolean notModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return HttpUtil.matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+}
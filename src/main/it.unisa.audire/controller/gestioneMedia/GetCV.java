@@ -0,0 +1,216 @@
+package controller.gestioneMedia;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import model.dao.ApplicationDAO;
+import model.dao.PerformerDAO;
+import model.dto.PerformerDTO;
+import model.dto.UserDTO;
+import model.dto.UserPrincipal;
+import utils.HttpUtil;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Serves the CV of a performer at {@code /media/cv/<performerID>}.
+ * <p>
+ * A CV can be downloaded by the performer who owns it and by the Casting Directors of the
+ * castings the performer applied to. The requested range is read from the database with a
+ * single query and copied to the response.
+ * </p>
+ * <p>
+ * Single byte ranges ({@code Range}, {@code If-Range}) are supported for resumed downloads and
+ * PDF viewers; the ETag is the SHA-256 kept by the database in {@code CV_Hash}, so conditional
+ * requests ({@code If-None-Match}) are answered without reading the BLOB. The query that reads
+ * the range also filters on that hash, so a CV replaced after the headers were prepared is
+ * answered with 409 instead of the new content.
+ * </p>
+ */
+@WebServlet("/media/cv/*")
+public class GetCV extends HttpServlet {
+
+    private static final String DEFAULT_MIME_TYPE = "application/pdf";
+
+    // Returned by parseRange when the Range header cannot be satisfied
+    static final long[] UNSATISFIABLE = new long[0];
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        serve(req, resp, true);
+    }
+
+    @Override
+    protected void doHead(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        serve(req, resp, false);
+    }
+
+    // --- Helper Methods ---
+
+    private void serve(HttpServletRequest req, HttpServletResponse resp, boolean withBody) throws IOException {
+        HttpSession session = req.getSession(false);
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
+        if (user == null) {
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        int performerID = parseID(req.getPathInfo());
+        if (performerID <= 0) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        DataSource ds = (DataSource) getServletContext().getAttribute("ds");
+        PerformerDAO performerDAO = new PerformerDAO(ds);
+
+        PerformerDTO performer;
+        try {
+            performer = performerDAO.getByID(performerID);
+            if (performer == null || !performer.hasCv() || performer.getCvHash() == null) {
+                resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            if (!canRead(user, performer, ds)) {
+                resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+
+        long size = performer.getCvSize();
+        String etag = "\"" + performer.getCvHash() + "\"";
+
+        resp.setHeader("ETag", etag);
+        resp.setHeader("Accept-Ranges", "bytes");
+        // Personal data: browsers may keep it, but must check with the server before reusing it
+        resp.setHeader("Cache-Control", "private, no-cache");
+        resp.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (HttpUtil.matchesEtag(req.getHeader("If-None-Match"), etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long[] range = null;
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange == null || ifRange.trim().equals(etag)) {
+            range = parseRange(req.getHeader("Range"), size);
+        }
+        if (range == UNSATISFIABLE) {
+            resp.setHeader("Content-Range", "bytes */" + size);
+            resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        long offset = 0;
+        long length = size;
+        if (range != null) {
+            offset = range[0];
+            length = range[1] - range[0] + 1;
+            resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            resp.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + size);
+        }
+
+        String mimeType = performer.getCvMimeType() != null ? performer.getCvMimeType() : DEFAULT_MIME_TYPE;
+        resp.setContentType(mimeType);
+        resp.setContentLengthLong(length);
+        resp.setHeader("Content-Disposition", "inline; filename=\"cv-" + performerID + (mimeType.equals(DEFAULT_MIME_TYPE) ? ".pdf" : "") + "\"");
+
+        if (!withBody) {
+            return;
+        }
+
+        long written;
+        try {
+            written = performerDAO.writeCv(performerID, performer.getCvHash(), offset, length, resp.getOutputStream());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (!resp.isCommitted()) {
+                resp.reset();
+                resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+            return;
+        }
+
+        if (written != length) {
+            // The CV was replaced or removed after the headers were prepared
+            System.err.println("CV del performer " + performerID + " modificato durante il download: inviati "
+                    + Math.max(written, 0) + " byte su " + length + ".");
+            if (!resp.isCommitted()) {
+                resp.reset();
+                resp.sendError(HttpServletResponse.SC_CONFLICT);
+            } else {
+                // Makes the container drop the connection, so the client does not keep a truncated body
+                throw new IOException("CV del performer " + performerID + " modificato durante il download");
+            }
+        }
+    }
+
+    private static boolean canRead(UserPrincipal user, PerformerDTO performer, DataSource ds) throws SQLException {
+        if (user.getUserID() == performer.getUserID()) {
+            return true;
+        }
+        if (user.getRole() == UserDTO.Role.CastingDirector && user.getCdID() > 0) {
+            return new ApplicationDAO(ds).existsForCastingDirector(performer.getPerformerID(), user.getCdID());
+        }
+        return false;
+    }
+
+    private static int parseID(String pathInfo) {
+        if (pathInfo == null || pathInfo.length() < 2) return -1;
+        try {
+            return Integer.parseInt(pathInfo.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a single byte range ({@code bytes=a-b}, {@code bytes=a-} or {@code bytes=-n}).
+     *
+     * @param header the Range header, may be null.
+     * @param size   the size of the content.
+     * @return the first and last byte positions (inclusive), {@link #UNSATISFIABLE} if the range lies
+     * outside the content, or null if the whole content must be sent (no header, malformed header
+     * or multiple ranges, which the specification allows to ignore).
+     */
+    static long[] parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) return null;
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) return null;
+
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                if (last.isEmpty()) return null;
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) return null;
+                if (suffix == 0 || size == 0) return UNSATISFIABLE;
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Long.parseLong(last);
+            if (start < 0) return null;
+            if (start >= size) return UNSATISFIABLE;
+            if (end < start) return null;
+            return new long[]{start, Math.min(end, size - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package controller.gestioneMedia;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import model.media.FileSystemMediaStore;
+import model.media.MediaBufferCache;
+import model.media.ThumbnailService;
+import model.media.ThumbnailService.PhotoSize;
+import utils.HttpUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Serves performer photos from the media store at {@code /media/photo/<size>/<key>},
+ * where size is one of {@code small}, {@code medium}, {@code large}, {@code original}
+ * (or 64, 256, 800).
+ * <p>
+ * Keys are content hashes, so responses are cached by browsers as immutable and conditional
+ * requests are answered with 304 from the ETag alone.
+ * </p>
+ * <p>
+ * Small files (thumbnails) are served from the off-heap {@link MediaBufferCache}, which saves the
+ * disk read but not the copy: the servlet API only accepts byte arrays, so the buffer is copied
+ * into the container's output buffer in heap-sized chunks. Other files are handed to the
+ * container's sendfile support when available, so the kernel copies them straight to the socket;
+ * otherwise they are streamed through the output stream like any other response.
+ * </p>
+ */
+@WebServlet("/media/photo/*")
+public class GetPhoto extends HttpServlet {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    // Tomcat sendfile attributes (see the "useSendfile" connector attribute)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        ThumbnailService thumbnails = (ThumbnailService) getServletContext().getAttribute(ThumbnailService.CONTEXT_ATTRIBUTE);
+        if (thumbnails == null) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        // PathInfo: /<size>/<key>
+        String pathInfo = req.getPathInfo();
+        String[] parts = (pathInfo != null) ? pathInfo.substring(1).split("/") : new String[0];
+        PhotoSize size = (parts.length == 2) ? PhotoSize.parse(parts[0]) : null;
+        if (size == null || !FileSystemMediaStore.isKey(parts[1])) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String key = parts[1];
+
+        Path file;
+        try {
+            file = thumbnails.resolve(key, size);
+        } catch (NoSuchFileException e) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        } catch (IOException e) {
+            System.err.println("Errore nel recupero della foto " + key + ": " + e.getMessage());
+            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+
+        String etag = "\"" + key + "-" + size.getPixels() + "\"";
+        resp.setHeader("Cache-Control", IMMUTABLE);
+        resp.setHeader("ETag", etag);
+        if (HttpUtil.matchesEtag(req.getHeader("If-None-Match"), etag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        resp.setContentType(key.endsWith(".png") ? "image/png" : "image/jpeg");
+        resp.setContentLengthLong(length);
+
+        MediaBufferCache cache = (MediaBufferCache) getServletContext().getAttribute(MediaBufferCache.CONTEXT_ATTRIBUTE);
+        ByteBuffer cached = (cache != null) ? cache.get(file, length) : null;
+        if (cached != null) {
+            write(cached, resp);
+        } else if (Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORTED))) {
+            // The container sends the file after the servlet returns
+            req.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            req.setAttribute(SENDFILE_START, 0L);
+            req.setAttribute(SENDFILE_END, length);
+        } else {
+            Files.copy(file, resp.getOutputStream());
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static void write(ByteBuffer content, HttpServletResponse resp) throws IOException {
+        WritableByteChannel out = Channels.newChannel(resp.getOutputStream());
+        while (content.hasRemaining()) {
+            out.write(content);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package controller.gestioneMonitoraggio;
+
+import filter.CompressionStats;
+import filter.RouteTable;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import model.cache.CacheStats;
+import model.cache.EntityCaches;
+import model.datasource.ConnectionPool;
+import model.datasource.InstrumentedDataSource;
+import model.datasource.PoolStats;
+import model.datasource.SqlStats;
+import model.media.MediaBufferCache;
+import model.media.ThumbnailService;
+import utils.LoginAttemptTracker;
+import utils.PasswordHashingExecutor;
+import utils.metrics.LatencyHistogram;
+import utils.metrics.PrometheusWriter;
+import utils.metrics.RequestMetrics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the application metrics at {@code /admin/metrics} in the Prometheus text format.
+ * <p>
+ * If the {@code metrics.token} context parameter is set, requests must carry it as
+ * {@code Authorization: Bearer <token>}; otherwise only requests from the loopback interface
+ * are accepted.
+ * </p>
+ */
+@WebServlet("/admin/metrics")
+public class GetMetrics extends HttpServlet {
+
+    // Upper bounds of the exported latency buckets, in seconds
+    private static final double[] LATENCY_BOUNDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final String[] LATENCY_LABELS = new String[LATENCY_BOUNDS.length + 1];
+
+    static {
+        for (int i = 0; i < LATENCY_BOUNDS.length; i++) {
+            LATENCY_LABELS[i] = BigDecimal.valueOf(LATENCY_BOUNDS[i]).stripTrailingZeros().toPlainString();
+        }
+        LATENCY_LABELS[LATENCY_BOUNDS.length] = "+Inf";
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        ServletContext context = getServletContext();
+        String token = context.getInitParameter("metrics.token");
+
+        if (token != null && !token.isBlank()) {
+            if (!hasToken(req, token.trim())) {
+                resp.setHeader("WWW-Authenticate", "Bearer");
+                resp.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+        } else if (!isLoopback(req.getRemoteAddr())) {
+            resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        resp.setContentType(PrometheusWriter.CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-store");
+        PrometheusWriter out = new PrometheusWriter(resp.getWriter());
+
+        writeRequests(out, (RequestMetrics) context.getAttribute(RequestMetrics.CONTEXT_ATTRIBUTE));
+        writeAccessControl(out, (RouteTable) context.getAttribute(RouteTable.CONTEXT_ATTRIBUTE));
+        writePool(out, context.getAttribute(ConnectionPool.CONTEXT_ATTRIBUTE));
+        writeSql(out, (InstrumentedDataSource) context.getAttribute(InstrumentedDataSource.CONTEXT_ATTRIBUTE));
+        writeCaches(out);
+        writeHashing(out, (PasswordHashingExecutor) context.getAttribute(PasswordHashingExecutor.CONTEXT_ATTRIBUTE));
+        writeLogins(out, (LoginAttemptTracker) context.getAttribute(LoginAttemptTracker.CONTEXT_ATTRIBUTE));
+        writeCompression(out, (CompressionStats) context.getAttribute(CompressionStats.CONTEXT_ATTRIBUTE));
+        writeMedia(out, (ThumbnailService) context.getAttribute(ThumbnailService.CONTEXT_ATTRIBUTE),
+                (MediaBufferCache) context.getAttribute(MediaBufferCache.CONTEXT_ATTRIBUTE));
+    }
+
+    // --- Helper Methods ---
+
+    private static boolean hasToken(HttpServletRequest req, String token) {
+        String header = req.getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return false;
+        }
+        byte[] given = header.substring(7).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(given, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isLoopback(String address) {
+        if (address == null) return false;
+        try {
+            // The remote address is an IP literal, so no name lookup takes place
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static void writeRequests(PrometheusWriter out, RequestMetrics metrics) {
+        if (metrics == null) return;
+
+        out.single("audire_start_time_seconds", "gauge", "Time the request metrics started, in seconds since the epoch.",
+                metrics.getStartMillis() / 1000.0);
+        out.single("audire_http_requests_in_flight", "gauge", "Requests being processed.", metrics.getInFlight());
+
+        out.family("audire_http_route_requests_in_flight", "gauge", "Requests being processed by servlet mapping.");
+        for (String route : metrics.getRoutes()) {
+            out.sample("audire_http_route_requests_in_flight", metrics.getInFlight(route), "route", route);
+        }
+
+        String name = "audire_http_request_duration_seconds";
+        out.family(name, "histogram", "Request latency by servlet mapping, method and status class.");
+        for (RequestMetrics.Series series : metrics.getSeries()) {
+            writeBuckets(out, name, series.getHistogram(),
+                    "route", series.getRoute(), "method", series.getMethod(), "status", series.getStatusClass());
+        }
+
+        out.family("audire_http_request_duration_max_seconds", "gauge", "Slowest request since startup.");
+        for (RequestMetrics.Series series : metrics.getSeries()) {
+            out.sample("audire_http_request_duration_max_seconds", series.getHistogram().getMaxSeconds(),
+                    "route", series.getRoute(), "method", series.getMethod(), "status", series.getStatusClass());
+        }
+    }
+
+    private static void writeAccessControl(PrometheusWriter out, RouteTable routes) {
+        if (routes == null) return;
+        String name = "audire_access_decisions_total";
+        out.family(name, "counter", "Access control decisions.")
+                .sample(name, routes.getBypassedCount(), "decision", "bypass")
+                .sample(name, routes.getAllowedCount(), "decision", "allow")
+                .sample(name, routes.getDeniedCount(), "decision", "deny")
+                .sample(name, routes.getRedirectedCount(), "decision", "login");
+    }
+
+    private static void writePool(PrometheusWriter out, Object pool) {
+        if (!(pool instanceof ConnectionPool)) return;
+        PoolStats stats = ((ConnectionPool) pool).getStats();
+        out.single("audire_db_pool_active", "gauge", "Connections in use.", stats.getActive());
+        out.single("audire_db_pool_idle", "gauge", "Idle connections.", stats.getIdle());
+        out.single("audire_db_pool_max", "gauge", "Maximum pool size.", stats.getMaxSize());
+        out.single("audire_db_pool_waiting", "gauge", "Threads waiting for a connection.", stats.getWaiting());
+        out.single("audire_db_pool_acquired_total", "counter", "Connections handed out.", stats.getAcquired());
+        out.single("audire_db_pool_acquire_seconds_total", "counter", "Time spent waiting for connections.",
+                stats.getAcquireNanosTotal() / 1e9);
+        out.single("audire_db_pool_timeouts_total", "counter", "Acquisitions that timed out.", stats.getTimeouts());
+        out.single("audire_db_pool_leaks_total", "counter", "Connections held beyond the leak detection threshold.", stats.getLeaks());
+    }
+
+    private static void writeSql(PrometheusWriter out, InstrumentedDataSource ds) {
+        if (ds == null) return;
+        writeHistogram(out, "audire_db_connection_acquire_seconds", "Time spent obtaining a connection.", ds.getAcquireTime());
+        writeHistogram(out, "audire_db_connection_hold_seconds", "Time between obtaining and closing a connection.", ds.getHoldTime());
+
+        List<SqlStats> statements = ds.getStatementStats();
+        String name = "audire_sql_duration_seconds";
+        out.family(name, "histogram", "Execution time by normalised SQL statement.");
+        for (SqlStats stats : statements) {
+            writeBuckets(out, name, stats.getLatency(), "statement", stats.getSql());
+        }
+        out.family("audire_sql_rows_total", "counter", "Rows read or updated by normalised SQL statement.");
+        for (SqlStats stats : statements) {
+            out.sample("audire_sql_rows_total", stats.getRows(), "statement", stats.getSql());
+        }
+        out.family("audire_sql_errors_total", "counter", "Failed executions by normalised SQL statement.");
+        for (SqlStats stats : statements) {
+            out.sample("audire_sql_errors_total", stats.getErrorCount(), "statement", stats.getSql());
+        }
+    }
+
+    private static void writeHistogram(PrometheusWriter out, String name, String help, LatencyHistogram histogram) {
+        out.family(name, "histogram", help);
+        writeBuckets(out, name, histogram);
+    }
+
+    /**
+     * Writes the {@code _bucket}, {@code _sum} and {@code _count} samples of one histogram series.
+     * Buckets are cumulative since startup, so quantiles over a time window are left to the
+     * monitoring system ({@code histogram_quantile} over {@code rate} of the buckets).
+     */
+    private static void writeBuckets(PrometheusWriter out, String name, LatencyHistogram histogram, String... labels) {
+        long[] cumulative = histogram.getCumulativeCounts(LATENCY_BOUNDS);
+        String[] bucketLabels = Arrays.copyOf(labels, labels.length + 2);
+        bucketLabels[labels.length] = "le";
+        for (int i = 0; i < cumulative.length; i++) {
+            bucketLabels[labels.length + 1] = LATENCY_LABELS[i];
+            out.sample(name + "_bucket", cumulative[i], bucketLabels);
+        }
+        out.sample(name + "_sum", histogram.getSumSeconds(), labels);
+        // Same snapshot as the +Inf bucket, which Prometheus requires to be equal to the count
+        out.sample(name + "_count", cumulative[cumulative.length - 1], labels);
+    }
+
+    private static void writeCaches(PrometheusWriter out) {
+        Map<String, CacheStats> caches = EntityCaches.stats();
+        out.family("audire_cache_hits_total", "counter", "Entity cache hits.");
+        caches.forEach((name, stats) -> out.sample("audire_cache_hits_total", stats.getHits(), "cache", name));
+        out.family("audire_cache_misses_total", "counter", "Entity cache misses.");
+        caches.forEach((name, stats) -> out.sample("audire_cache_misses_total", stats.getMisses(), "cache", name));
+        out.family("audire_cache_evictions_total", "counter", "Entity cache evictions.");
+        caches.forEach((name, stats) -> out.sample("audire_cache_evictions_total", stats.getEvictions(), "cache", name));
+        out.family("audire_cache_rejections_total", "counter", "Entries not admitted to the entity cache.");
+        caches.forEach((name, stats) -> out.sample("audire_cache_rejections_total", stats.getRejections(), "cache", name));
+        out.family("audire_cache_size", "gauge", "Entity cache entries.");
+        caches.forEach((name, stats) -> out.sample("audire_cache_size", stats.getSize(), "cache", name));
+    }
+
+    private static void writeHashing(PrometheusWriter out, PasswordHashingExecutor executor) {
+        if (executor == null) return;
+        out.single("audire_hashing_queue_depth", "gauge", "Password hashes waiting for a thread.", executor.getQueueDepth());
+        out.single("audire_hashing_active", "gauge", "Password hashes being computed.", executor.getActiveCount());
+        out.single("audire_hashing_completed_total", "counter", "Password hashes computed.", executor.getCompletedCount());
+        out.single("audire_hashing_rejected_total", "counter", "Password hashes rejected because the queue was full.", executor.getRejectedCount());
+        out.single("audire_hashing_timeouts_total", "counter", "Password hashes that timed out.", executor.getTimeoutCount());
+        out.single("audire_hashing_seconds_total", "counter", "Time spent computing password hashes.", executor.getHashNanosTotal() / 1e9);
+    }
+
+    private static void writeLogins(PrometheusWriter out, LoginAttemptTracker tracker) {
+        if (tracker == null) return;
+        String name = "audire_login_throttled_total";
+        out.family(name, "counter", "Login attempts rejected by throttling.")
+                .sample(name, tracker.getRejectedByEmail(), "key", "email")
+                .sample(name, tracker.getRejectedByAddress(), "key", "address");
+        out.single("audire_login_failures_total", "counter", "Failed login attempts.", tracker.getFailureCount());
+    }
+
+    private static void writeCompression(PrometheusWriter out, CompressionStats stats) {
+        if (stats == null) return;
+        String name = "audire_compression_responses_total";
+        out.family(name, "counter", "Dynamic responses by compression outcome.")
+                .sample(name, stats.getCompressedResponses(), "outcome", "compressed")
+                .sample(name, stats.getSkippedResponses(), "outcome", "skipped");
+        out.single("audire_compression_input_bytes_total", "counter", "Bytes before compression.", stats.getBytesIn());
+        out.single("audire_compression_output_bytes_total", "counter", "Bytes after compression.", stats.getBytesOut());
+        out.single("audire_compression_cpu_seconds_total", "counter", "CPU time spent compressing.", stats.getCpuNanos() / 1e9);
+    }
+
+    private static void writeMedia(PrometheusWriter out, ThumbnailService thumbnails, MediaBufferCache cache) {
+        if (thumbnails != null) {
+            out.single("audire_thumbnails_generated_total", "counter", "Thumbnails generated.", thumbnails.getGeneratedCount());
+            out.single("audire_thumbnails_coalesced_total", "counter", "Requests that waited for a thumbnail already being generated.", thumbnails.getCoalescedCount());
+            out.single("audire_thumbnails_dropped_total", "counter", "Background generations dropped because the queue was full.", thumbnails.getDroppedCount());
+            out.single("audire_thumbnails_failures_total", "counter", "Failed thumbnail generations.", thumbnails.getFailureCount());
+            out.single("audire_thumbnails_queue_depth", "gauge", "Queued background generations.", thumbnails.getQueueDepth());
+        }
+        if (cache != null) {
+            out.single("audire_media_cache_hits_total", "counter", "Photos served from the off-heap cache.", cache.getHitCount());
+            out.single("audire_media_cache_misses_total", "counter", "Cacheable photos not found in the off-heap cache.", cache.getMissCount());
+            out.single("audire_media_cache_oversized_total", "counter", "Photos too large for the off-heap cache.", cache.getOversizedCount());
+            out.single("audire_media_cache_evictions_total", "counter", "Photos evicted from the off-heap cache.", cache.getEvictionCount());
+            out.single("audire_media_cache_bytes", "gauge", "Off-heap memory used by cached photos.", cache.getUsedBytes());
+        }
+    }
+}
@@ -5,10 +5,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 import model.dao.ProductionDAO;
-import model.dao.ProductionManagerDAO;
 import model.dto.ProductionDTO;
-import model.dto.ProductionManagerDTO;
 import model.dto.UserDTO;
+import model.dto.UserPrincipal;
 import utils.NotificationUtil;
 import javax.sql.DataSource;
 import java.io.IOException;
@@ -23,7 +22,7 @@ public class AddProduction extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         HttpSession session = req.getSession(false);
-        UserDTO user = (session != null) ? (UserDTO) session.getAttribute("user") : null;
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
 
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
@@ -37,7 +36,7 @@ public class AddProduction extends HttpServlet {
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         HttpSession session = req.getSession(false);
-        UserDTO user = (session != null) ? (UserDTO) session.getAttribute("user") : null;
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
 
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
@@ -65,19 +64,15 @@ public class AddProduction extends HttpServlet {
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         ProductionDAO productionDAO = new ProductionDAO(ds);
 
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
-
         try {
-            ProductionManagerDTO pmDTO = pmDAO.getByUserID(user.getUserID());
-
-            if (pmDTO == null) {
+            if (user.getPmID() <= 0) {
                 throw new ServletException("Errore critico: Profilo PM non trovato.");
             }
 
             ProductionDTO production = new ProductionDTO();
             production.setTitle(title.trim());
             production.setCreationDate(LocalDateTime.now());
-            production.setPmID(pmDTO.getPmID());
+            production.setPmID(user.getPmID());
 
             try {
                 production.setType(ProductionDTO.Type.valueOf(typeStr));
@@ -5,10 +5,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 import model.dao.ProductionDAO;
-import model.dao.ProductionManagerDAO;
 import model.dto.ProductionDTO;
-import model.dto.ProductionManagerDTO;
 import model.dto.UserDTO;
+import model.dto.UserPrincipal;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.sql.SQLException;
@@ -21,7 +20,7 @@ public class GetProductions extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         HttpSession session = req.getSession(false);
-        UserDTO user = (session != null) ? (UserDTO) session.getAttribute("user") : null;
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
 
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
@@ -30,16 +29,13 @@ public class GetProductions extends HttpServlet {
 
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         ProductionDAO prodDAO = new ProductionDAO(ds);
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
 
         try {
-            ProductionManagerDTO pmDTO = pmDAO.getByUserID(user.getUserID());
-
-            if (pmDTO == null) {
+            if (user.getPmID() <= 0) {
                 req.setAttribute("error", "Errore: Profilo PM non trovato.");
                 req.setAttribute("productions", new ArrayList<ProductionDTO>());
             } else {
-                Collection<ProductionDTO> productions = prodDAO.getByPmID(pmDTO.getPmID());
+                Collection<ProductionDTO> productions = prodDAO.getByPmID(user.getPmID());
                 req.setAttribute("productions", productions);
             }
 
@@ -4,10 +4,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 import model.dao.ProductionDAO;
-import model.dao.ProductionManagerDAO;
-import model.dto.ProductionDTO;
-import model.dto.ProductionManagerDTO;
 import model.dto.UserDTO;
+import model.dto.UserPrincipal;
 import utils.NotificationUtil;
 
 import javax.sql.DataSource;
@@ -20,7 +18,7 @@ public class RemoveProduction extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         HttpSession session = req.getSession(false);
-        UserDTO user = (session != null) ? (UserDTO) session.getAttribute("user") : null;
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
 
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
@@ -36,33 +34,23 @@ public class RemoveProduction extends HttpServlet {
 
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         ProductionDAO prodDAO = new ProductionDAO(ds);
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
 
         try {
             int prodID = Integer.parseInt(idStr);
 
-            ProductionDTO production = prodDAO.getByID(prodID);
-            ProductionManagerDTO currentPm = pmDAO.getByUserID(user.getUserID());
-
-            if (production == null) {
-                NotificationUtil.sendNotification(req, "Produzione non trovata.", "error");
-                resp.sendRedirect(req.getContextPath() + "/pm/productions");
-                return;
-            }
-
-
-            if (currentPm == null || production.getPmID() != currentPm.getPmID()) {
+            if (user.getPmID() <= 0) {
                 NotificationUtil.sendNotification(req, "Non hai i permessi per eliminare questa produzione.", "error");
                 resp.sendRedirect(req.getContextPath() + "/pm/productions");
                 return;
             }
 
-            boolean deleted = prodDAO.delete(prodID);
+            // Controllo di proprietà ed eliminazione in un'unica query
+            boolean deleted = prodDAO.deleteOwnedBy(prodID, user.getPmID());
 
             if (deleted) {
                 NotificationUtil.sendNotification(req, "Produzione eliminata con successo.", "success");
             } else {
-                NotificationUtil.sendNotification(req, "Impossibile eliminare la produzione.", "error");
+                NotificationUtil.sendNotification(req, "Produzione non trovata o non hai i permessi per eliminarla.", "error");
             }
 
         } catch (NumberFormatException e) {
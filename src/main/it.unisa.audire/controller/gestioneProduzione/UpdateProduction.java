@@ -5,10 +5,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 import model.dao.ProductionDAO;
-import model.dao.ProductionManagerDAO;
 import model.dto.ProductionDTO;
-import model.dto.ProductionManagerDTO;
 import model.dto.UserDTO;
+import model.dto.UserPrincipal;
 import utils.NotificationUtil;
 import javax.sql.DataSource;
 import java.io.IOException;
@@ -22,7 +21,7 @@ public class UpdateProduction extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 
-        UserDTO user = (UserDTO) req.getSession().getAttribute("user");
+        UserPrincipal user = (UserPrincipal) req.getSession().getAttribute("user");
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
             return;
@@ -36,12 +35,10 @@ public class UpdateProduction extends HttpServlet {
 
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         ProductionDAO prodDAO = new ProductionDAO(ds);
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
 
         try {
             int prodID = Integer.parseInt(idStr);
             ProductionDTO production = prodDAO.getByID(prodID);
-            ProductionManagerDTO currentPm = pmDAO.getByUserID(user.getUserID());
 
             if (production == null) {
                 NotificationUtil.sendNotification(req, "Produzione non trovata.", "error");
@@ -49,7 +46,7 @@ public class UpdateProduction extends HttpServlet {
                 return;
             }
 
-            if (currentPm == null || production.getPmID() != currentPm.getPmID()) {
+            if (user.getPmID() <= 0 || production.getPmID() != user.getPmID()) {
                 NotificationUtil.sendNotification(req, "Non hai i permessi per modificare questa produzione.", "error");
                 resp.sendRedirect(req.getContextPath() + "/pm/productions");
                 return;
@@ -67,7 +64,7 @@ public class UpdateProduction extends HttpServlet {
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        UserDTO user = (UserDTO) req.getSession().getAttribute("user");
+        UserPrincipal user = (UserPrincipal) req.getSession().getAttribute("user");
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
             return;
@@ -80,6 +77,14 @@ public class UpdateProduction extends HttpServlet {
         List<String> errors = new ArrayList<>();
         if (title == null || title.trim().isEmpty()) errors.add("Il titolo è obbligatorio.");
 
+        ProductionDTO.Type type = null;
+        try {
+            if (typeStr != null) type = ProductionDTO.Type.valueOf(typeStr);
+        } catch (IllegalArgumentException e) {
+            // Gestito sotto
+        }
+        if (type == null) errors.add("Tipologia non valida.");
+
         if (!errors.isEmpty()) {
             req.setAttribute("errors", errors);
             doGet(req, resp);
@@ -88,37 +93,24 @@ public class UpdateProduction extends HttpServlet {
 
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         ProductionDAO prodDAO = new ProductionDAO(ds);
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
 
         try {
-            int prodID = Integer.parseInt(idStr);
-
-            ProductionDTO production = prodDAO.getByID(prodID);
-            ProductionManagerDTO currentPm = pmDAO.getByUserID(user.getUserID());
+            ProductionDTO production = new ProductionDTO();
+            production.setProductionID(Integer.parseInt(idStr));
+            production.setTitle(title.trim());
+            production.setType(type);
 
-            if (production == null || currentPm == null || production.getPmID() != currentPm.getPmID()) {
+            // Controllo di proprietà e aggiornamento in un'unica query
+            if (user.getPmID() <= 0 || !prodDAO.updateOwnedBy(production, user.getPmID())) {
                 resp.sendError(HttpServletResponse.SC_FORBIDDEN);
                 return;
             }
 
-            production.setTitle(title.trim());
-            try {
-                production.setType(ProductionDTO.Type.valueOf(typeStr));
-            } catch (IllegalArgumentException e) {
-                errors.add("Tipologia non valida.");
-                req.setAttribute("errors", errors);
-                req.setAttribute("production", production);
-                req.getRequestDispatcher("/WEB-INF/views/pm/edit-production.jsp").forward(req, resp);
-                return;
-            }
-
-            prodDAO.save(production);
-
             NotificationUtil.sendNotification(req, "Produzione aggiornata con successo!", "success");
 
             resp.sendRedirect(req.getContextPath() + "/pm/productions");
 
-        } catch (SQLException | NumberFormatException e) {
+        } catch (SQLException | IllegalArgumentException e) {
             e.printStackTrace();
             req.setAttribute("error", "Errore durante il salvataggio.");
             doGet(req, resp);
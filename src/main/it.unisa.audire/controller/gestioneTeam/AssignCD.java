@@ -6,8 +6,8 @@ import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 import model.dao.CastingDirectorDAO;
 import model.dao.ProductionDAO;
-import model.dao.ProductionManagerDAO;
 import model.dao.TeamDAO;
+import model.dao.UnitOfWork;
 import model.dto.*;
 import utils.NotificationUtil;
 import javax.sql.DataSource;
@@ -19,7 +19,7 @@ public class AssignCD extends HttpServlet {
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        UserDTO user = (UserDTO) req.getSession().getAttribute("user");
+        UserPrincipal user = (UserPrincipal) req.getSession().getAttribute("user");
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
             return;
@@ -34,14 +34,12 @@ public class AssignCD extends HttpServlet {
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
         ProductionDAO prodDAO = new ProductionDAO(ds);
         TeamDAO teamDAO = new TeamDAO(ds);
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
 
         try {
             int prodID = Integer.parseInt(prodIdStr);
             ProductionDTO production = prodDAO.getByID(prodID);
-            ProductionManagerDTO pmDTO = pmDAO.getByUserID(user.getUserID());
 
-            if (production == null || pmDTO == null || production.getPmID() != pmDTO.getPmID()) {
+            if (production == null || user.getPmID() <= 0 || production.getPmID() != user.getPmID()) {
                 NotificationUtil.sendNotification(req, "Accesso negato.", "error");
                 resp.sendRedirect(req.getContextPath() + "/pm/productions");
                 return;
@@ -73,20 +71,37 @@ public class AssignCD extends HttpServlet {
 
         String userIdStr = req.getParameter("userId");
 
+        UserPrincipal user = (UserPrincipal) req.getSession().getAttribute("user");
+        if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
+            resp.sendRedirect(req.getContextPath() + "/login");
+            return;
+        }
+
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
-        TeamDAO teamDAO = new TeamDAO(ds);
-        CastingDirectorDAO cdDAO = new CastingDirectorDAO(ds);
 
-        try {
+        // Ownership check, profile lookup and insert share one connection and one transaction
+        try (UnitOfWork uow = UnitOfWork.begin(ds)) {
+            TeamDAO teamDAO = new TeamDAO(uow.getDataSource());
+            ProductionDAO prodDAO = new ProductionDAO(uow.getDataSource());
+            CastingDirectorDAO cdDAO = new CastingDirectorDAO(uow.getDataSource());
+
             int prodID = Integer.parseInt(prodIdStr);
             int userId = Integer.parseInt(userIdStr);
 
+            ProductionDTO production = prodDAO.getByID(prodID);
+            if (production == null || user.getPmID() <= 0 || production.getPmID() != user.getPmID()) {
+                NotificationUtil.sendNotification(req, "Accesso negato.", "error");
+                resp.sendRedirect(req.getContextPath() + "/pm/productions");
+                return;
+            }
+
             CastingDirectorDTO cdDTO = cdDAO.getByUserID(userId);
 
             if (cdDTO != null) {
                 if ("add".equals(action)) {
                     TeamDTO team = new TeamDTO(prodID, cdDTO.getCdID());
                     teamDAO.save(team);
+                    uow.commit();
                     NotificationUtil.sendNotification(req, "Casting Director aggiunto con successo!", "success");
                 }
             } else {
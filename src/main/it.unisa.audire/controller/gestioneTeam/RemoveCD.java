@@ -16,7 +16,7 @@ public class RemoveCD extends HttpServlet {
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         HttpSession session = req.getSession(false);
-        UserDTO user = (session != null) ? (UserDTO) session.getAttribute("user") : null;
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
 
         if (user == null || user.getRole() != UserDTO.Role.ProductionManager) {
             resp.sendRedirect(req.getContextPath() + "/login");
@@ -33,19 +33,19 @@ public class RemoveCD extends HttpServlet {
         }
 
         DataSource ds = (DataSource) getServletContext().getAttribute("ds");
-        TeamDAO teamDAO = new TeamDAO(ds);
-        ProductionDAO prodDAO = new ProductionDAO(ds);
-        ProductionManagerDAO pmDAO = new ProductionManagerDAO(ds);
-        CastingDirectorDAO cdDAO = new CastingDirectorDAO(ds);
 
-        try {
+        // Ownership check, profile lookup and removal share one connection and one transaction
+        try (UnitOfWork uow = UnitOfWork.begin(ds)) {
+            TeamDAO teamDAO = new TeamDAO(uow.getDataSource());
+            ProductionDAO prodDAO = new ProductionDAO(uow.getDataSource());
+            CastingDirectorDAO cdDAO = new CastingDirectorDAO(uow.getDataSource());
+
             int prodID = Integer.parseInt(prodIdStr);
             int userId = Integer.parseInt(userIdStr);
 
             ProductionDTO production = prodDAO.getByID(prodID);
-            ProductionManagerDTO pmDTO = pmDAO.getByUserID(user.getUserID());
 
-            if (production == null || pmDTO == null || production.getPmID() != pmDTO.getPmID()) {
+            if (production == null || user.getPmID() <= 0 || production.getPmID() != user.getPmID()) {
                 NotificationUtil.sendNotification(req, "Non hai i permessi per modificare questo team.", "error");
                 resp.sendRedirect(req.getContextPath() + "/pm/productions");
                 return;
@@ -55,6 +55,7 @@ public class RemoveCD extends HttpServlet {
 
             if (cdDTO != null) {
                 boolean removed = teamDAO.delete(prodID, cdDTO.getCdID());
+                uow.commit();
 
                 if (removed) {
                     NotificationUtil.sendNotification(req, "Membro rimosso dal team con successo.", "success");
@@ -6,13 +6,22 @@ import jakarta.servlet.http.HttpFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import model.dto.UserDTO;
+import model.dto.UserPrincipal;
 
 import java.io.IOException;
 
 @WebFilter(filterName = "AccessControlFilter", urlPatterns = "/*")
 public class AccessControlFilter extends HttpFilter {
 
+    private RouteTable routes;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        super.init(config);
+        routes = RouteTable.defaults();
+        config.getServletContext().setAttribute(RouteTable.CONTEXT_ATTRIBUTE, routes);
+    }
+
     @Override
     public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
             throws IOException, ServletException {
@@ -20,47 +29,33 @@ public class AccessControlFilter extends HttpFilter {
         HttpServletRequest request = (HttpServletRequest) req;
         HttpServletResponse response = (HttpServletResponse) res;
 
-        String path = request.getServletPath();
-
-        HttpSession session = request.getSession(false);
-        UserDTO user = (session != null) ? (UserDTO) session.getAttribute("user") : null;
-        boolean isLoggedIn = (user != null);
-
+        String pathInfo = request.getPathInfo();
+        String path = (pathInfo == null) ? request.getServletPath() : request.getServletPath() + pathInfo;
+        RouteTable.Route route = routes.route(path);
 
-        if (path.contains("/cd/")) {
-            if (!isLoggedIn) {
-                redirectToLogin(request, response);
-                return;
-            }
-            if (user.getRole() != UserDTO.Role.CastingDirector) {
-                handleUnauthorized(response);
-                return;
-            }
+        // Static resources: no session lookup needed
+        if (route.isBypass()) {
+            routes.record(RouteTable.Decision.BYPASS);
+            chain.doFilter(req, res);
+            return;
         }
 
-        else if (path.contains("/pm/")) {
-            if (!isLoggedIn) {
-                redirectToLogin(request, response);
-                return;
-            }
-            if (user.getRole() != UserDTO.Role.ProductionManager) {
-                handleUnauthorized(response);
-                return;
-            }
-        }
+        HttpSession session = request.getSession(false);
+        UserPrincipal user = (session != null) ? (UserPrincipal) session.getAttribute("user") : null;
 
-        else if (path.contains("/performer/")) {
-            if (!isLoggedIn) {
+        RouteTable.Decision decision = route.decide(user != null ? user.getRole() : null);
+        routes.record(decision);
+
+        switch (decision) {
+            case LOGIN:
                 redirectToLogin(request, response);
                 return;
-            }
-            if (user.getRole() != UserDTO.Role.Performer) {
+            case DENY:
                 handleUnauthorized(response);
                 return;
-            }
+            default:
+                chain.doFilter(req, res);
         }
-
-        chain.doFilter(req, res);
     }
 
     private void redirectToLogin(HttpServletRequest request, HttpServletResponse response)
@@ -0,0 +1,570 @@
+package filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import utils.AssetRegistry;
+import utils.HttpUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses dynamic responses (pages, JSON) with gzip or deflate, as accepted by the client.
+ * <p>
+ * The body is held in a small buffer until {@code compression.threshold} bytes have been written:
+ * shorter responses are sent as they are, since compressing them costs more than it saves.
+ * Only the content types in {@link #COMPRESSIBLE_TYPES} are compressed. Redirects, errors and
+ * responses that already carry a {@code Content-Encoding} are passed through untouched; static
+ * assets and media have their own precompressed or binary representations and are skipped.
+ * </p>
+ * <p>
+ * {@link Deflater} instances own native memory, so they are borrowed from a bounded pool and reset
+ * on return instead of being created for every response. Compression ratio and CPU time are
+ * published as {@link CompressionStats} under {@link CompressionStats#CONTEXT_ATTRIBUTE}.
+ * </p>
+ * <p>
+ * Only blocking output is supported: the filter is not {@code asyncSupported}, so no request
+ * passing through it can start async processing, and the wrapped stream answers
+ * {@link ServletOutputStream#setWriteListener(WriteListener)} with the {@link IllegalStateException}
+ * its contract prescribes outside async mode. A servlet that needs non-blocking
+ * I/O must be mapped outside the filter or added to {@link #EXCLUDED_PATHS}.
+ * </p>
+ */
+@WebFilter(filterName = "CompressionFilter", urlPatterns = "/*")
+public class CompressionFilter extends HttpFilter {
+
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "text/html", "text/plain", "text/css", "text/xml", "text/csv", "text/javascript",
+            "application/json", "application/xml", "application/javascript", "image/svg+xml");
+    private static final String[] EXCLUDED_PATHS = {AssetRegistry.PREFIX, "/media"};
+    private static final int BUFFER_SIZE = 8192;
+
+    private boolean enabled;
+    private int threshold;
+    private DeflaterPool gzipPool;
+    private DeflaterPool deflatePool;
+    private CompressionStats stats;
+    private ThreadMXBean threads;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        super.init(config);
+        ServletContext context = config.getServletContext();
+
+        String enabledValue = context.getInitParameter("compression.enabled");
+        enabled = enabledValue == null || Boolean.parseBoolean(enabledValue.trim());
+        threshold = intParameter(context, "compression.threshold", 1024);
+        int level = intParameter(context, "compression.level", 6);
+        int poolSize = intParameter(context, "compression.poolSize", 2 * Runtime.getRuntime().availableProcessors());
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            level = Deflater.DEFAULT_COMPRESSION;
+        }
+
+        gzipPool = new DeflaterPool(level, true, poolSize);
+        deflatePool = new DeflaterPool(level, false, poolSize);
+        stats = new CompressionStats();
+        context.setAttribute(CompressionStats.CONTEXT_ATTRIBUTE, stats);
+
+        // Thread CPU time is a JVM-wide setting: it is used if already enabled, never switched on here
+        threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isCurrentThreadCpuTimeSupported() || !threads.isThreadCpuTimeEnabled()) {
+            threads = null;
+        }
+
+        System.out.println("Compressione risposte " + (enabled ? "attiva" : "disattivata")
+                + " (soglia " + threshold + " byte, livello " + level + ", pool " + poolSize + ").");
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        String encoding = enabled ? negotiate(request) : null;
+        if (encoding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CompressingResponse wrapped = new CompressingResponse(response, encoding);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, wrapped);
+            completed = true;
+        } finally {
+            if (completed) {
+                wrapped.finish();
+            } else {
+                // The container writes the error page to the original response
+                wrapped.abandon();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (gzipPool != null) gzipPool.close();
+        if (deflatePool != null) deflatePool.close();
+        super.destroy();
+    }
+
+    // --- Helper Methods ---
+
+    private static String negotiate(HttpServletRequest request) {
+        if ("HEAD".equals(request.getMethod())) return null;
+
+        String path = request.getServletPath();
+        for (String excluded : EXCLUDED_PATHS) {
+            if (path.equals(excluded) || path.startsWith(excluded + "/")) return null;
+        }
+
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (HttpUtil.acceptsEncoding(acceptEncoding, "gzip")) return "gzip";
+        if (HttpUtil.acceptsEncoding(acceptEncoding, "deflate")) return "deflate";
+        return null;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) return false;
+        int semicolon = contentType.indexOf(';');
+        String mimeType = (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim().toLowerCase(Locale.ROOT);
+        return COMPRESSIBLE_TYPES.contains(mimeType);
+    }
+
+    private long cpuTime() {
+        return threads != null ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static int intParameter(ServletContext context, String name, int defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Parametro " + name + " non valido: " + value + ". Uso il valore predefinito " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Bounded pool of {@link Deflater}s with the same level and format.
+     * Deflaters created beyond the pool size, under peak load, are ended when returned.
+     */
+    private static final class DeflaterPool {
+        private final int level;
+        private final boolean nowrap;
+        private final ArrayBlockingQueue<Deflater> idle;
+
+        private DeflaterPool(int level, boolean nowrap, int size) {
+            this.level = level;
+            this.nowrap = nowrap;
+            this.idle = new ArrayBlockingQueue<>(Math.max(1, size));
+        }
+
+        private Deflater borrow() {
+            Deflater deflater = idle.poll();
+            return deflater != null ? deflater : new Deflater(level, nowrap);
+        }
+
+        private void release(Deflater deflater) {
+            deflater.reset();
+            if (!idle.offer(deflater)) {
+                deflater.end();
+            }
+        }
+
+        private void close() {
+            Deflater deflater;
+            while ((deflater = idle.poll()) != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Deflates into the underlying stream, adding the gzip header and trailer when needed.
+     */
+    private final class CompressedStream {
+        private final OutputStream out;
+        private final DeflaterPool pool;
+        private final boolean gzip;
+        private final CRC32 crc = new CRC32();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private Deflater deflater;
+        private long bytesIn;
+        private long bytesOut;
+        private long cpuNanos;
+
+        private CompressedStream(OutputStream out, boolean gzip) throws IOException {
+            this.out = out;
+            this.gzip = gzip;
+            this.pool = gzip ? gzipPool : deflatePool;
+            this.deflater = pool.borrow();
+            if (gzip) {
+                // Magic, CM=deflate, no flags, no mtime, XFL=0, OS=unknown
+                byte[] header = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+                out.write(header);
+                bytesOut += header.length;
+            }
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return;
+            long start = cpuTime();
+            if (gzip) crc.update(b, off, len);
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            bytesIn += len;
+            cpuNanos += cpuTime() - start;
+        }
+
+        private void flush() throws IOException {
+            long start = cpuTime();
+            while (drain(Deflater.SYNC_FLUSH) == buffer.length) {
+                // Keep going until the deflater has nothing left
+            }
+            cpuNanos += cpuTime() - start;
+            out.flush();
+        }
+
+        private void finish() throws IOException {
+            long start = cpuTime();
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            cpuNanos += cpuTime() - start;
+            if (gzip) {
+                byte[] trailer = new byte[8];
+                writeIntLE(trailer, 0, crc.getValue());
+                writeIntLE(trailer, 4, bytesIn);
+                out.write(trailer);
+                bytesOut += trailer.length;
+            }
+            stats.recordCompressed(bytesIn, bytesOut, cpuNanos);
+            release();
+        }
+
+        private void release() {
+            if (deflater != null) {
+                pool.release(deflater);
+                deflater = null;
+            }
+        }
+
+        private int drain(int flush) throws IOException {
+            int n = deflater.deflate(buffer, 0, buffer.length, flush);
+            if (n > 0) {
+                out.write(buffer, 0, n);
+                bytesOut += n;
+            }
+            return n;
+        }
+
+        private void writeIntLE(byte[] b, int off, long value) {
+            b[off] = (byte) value;
+            b[off + 1] = (byte) (value >> 8);
+            b[off + 2] = (byte) (value >> 16);
+            b[off + 3] = (byte) (value >> 24);
+        }
+    }
+
+    private enum Mode {UNDECIDED, IDENTITY, COMPRESSED}
+
+    /**
+     * Holds back the first {@code threshold} bytes, then either compresses or passes the body through.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final String encoding;
+        private final byte[] pending = new byte[Math.max(1, threshold)];
+        private int pendingCount;
+        private Mode mode = Mode.UNDECIDED;
+        private long contentLength = -1;
+        private CompressedStream compressed;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        private boolean finishing;
+
+        private CompressingResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        CompressingResponse.this.write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        CompressingResponse.this.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        CompressingResponse.this.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        // The request cannot be in async mode, since the filter is not asyncSupported
+                        throw new IllegalStateException("Non-blocking output requires async processing, which compressed responses do not support");
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                ServletOutputStream stream = getOutputStream();
+                outputStream = null;
+                writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (mode == Mode.UNDECIDED) {
+                contentLength = len;
+            } else if (mode == Mode.IDENTITY) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setContentLengthLong(value != null ? Long.parseLong(value.trim()) : -1);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setHeader(name, value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            passThrough();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            passThrough();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            passThrough();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            flush();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            pendingCount = 0;
+            if (mode == Mode.COMPRESSED) {
+                // Content-Encoding is already set: start a new compressed body
+                compressed.release();
+                try {
+                    compressed = new CompressedStream(getResponse().getOutputStream(), encoding.equals("gzip"));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot restart the compressed body", e);
+                }
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            abandon();
+            pendingCount = 0;
+            contentLength = -1;
+            mode = Mode.UNDECIDED;
+            outputStream = null;
+            writer = null;
+        }
+
+        /**
+         * Completes the body after the chain has returned.
+         */
+        private void finish() throws IOException {
+            finishing = true;
+            if (writer != null) {
+                writer.flush();
+            }
+            if (mode == Mode.UNDECIDED) {
+                if (contentLength < 0) {
+                    contentLength = pendingCount;
+                }
+                decide(pendingCount >= threshold && pendingCount > 0);
+            }
+            if (mode == Mode.COMPRESSED) {
+                compressed.finish();
+            }
+        }
+
+        /**
+         * Returns the deflater to the pool without writing anything else.
+         */
+        private void abandon() {
+            if (compressed != null) {
+                compressed.release();
+                compressed = null;
+            }
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (mode == Mode.UNDECIDED) {
+                if (pendingCount + len <= threshold) {
+                    System.arraycopy(b, off, pending, pendingCount, len);
+                    pendingCount += len;
+                    return;
+                }
+                decide(true);
+            }
+            if (mode == Mode.COMPRESSED) {
+                compressed.write(b, off, len);
+            } else {
+                getResponse().getOutputStream().write(b, off, len);
+            }
+        }
+
+        private void flush() throws IOException {
+            if (finishing) {
+                // Writer flush at the end of the response: the whole body is known
+                return;
+            }
+            if (mode == Mode.UNDECIDED) {
+                // Content is being streamed: decide now on what is known
+                decide(pendingCount >= threshold);
+            }
+            if (mode == Mode.COMPRESSED) {
+                compressed.flush();
+            } else {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        private void passThrough() {
+            pendingCount = 0;
+            if (mode == Mode.UNDECIDED) {
+                stats.recordSkipped();
+            }
+            // The container discards the buffered body; nothing is left to compress
+            abandon();
+            if (mode == Mode.COMPRESSED && !isCommitted()) {
+                // The redirect or error page is sent as it is, not in the encoding chosen earlier
+                super.setHeader("Content-Encoding", null);
+            }
+            mode = Mode.IDENTITY;
+        }
+
+        private void decide(boolean largeEnough) throws IOException {
+            String contentType = getContentType();
+            boolean compressible = isCompressible(contentType);
+            int status = getStatus();
+            boolean compress = largeEnough && compressible && !isCommitted()
+                    && getHeader("Content-Encoding") == null
+                    && status != SC_NO_CONTENT && status != SC_NOT_MODIFIED && status != SC_PARTIAL_CONTENT;
+
+            if (compressible) {
+                super.addHeader("Vary", "Accept-Encoding");
+            }
+
+            if (compress) {
+                mode = Mode.COMPRESSED;
+                super.setHeader("Content-Encoding", encoding);
+                compressed = new CompressedStream(getResponse().getOutputStream(), encoding.equals("gzip"));
+                compressed.write(pending, 0, pendingCount);
+            } else {
+                mode = Mode.IDENTITY;
+                stats.recordSkipped();
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                if (pendingCount > 0) {
+                    getResponse().getOutputStream().write(pending, 0, pendingCount);
+                }
+            }
+            pendingCount = 0;
+        }
+    }
+}
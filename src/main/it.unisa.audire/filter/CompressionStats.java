@@ -0,0 +1,77 @@
+package filter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the {@link CompressionFilter}, published in the servlet context under
+ * {@link #CONTEXT_ATTRIBUTE}.
+ */
+public final class CompressionStats {
+
+    public static final String CONTEXT_ATTRIBUTE = "compressionStats";
+
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder skippedResponses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    void recordCompressed(long uncompressed, long compressed, long cpu) {
+        compressedResponses.increment();
+        bytesIn.add(uncompressed);
+        bytesOut.add(compressed);
+        cpuNanos.add(cpu);
+    }
+
+    void recordSkipped() {
+        skippedResponses.increment();
+    }
+
+    public long getCompressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    /**
+     * @return responses left uncompressed (too small, type not allowed, redirects, errors).
+     */
+    public long getSkippedResponses() {
+        return skippedResponses.sum();
+    }
+
+    /**
+     * @return the uncompressed size of the compressed responses.
+     */
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    /**
+     * @return the compressed size of the compressed responses.
+     */
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * @return the compressed size divided by the uncompressed size (lower is better), or 1 if nothing was compressed.
+     */
+    public double getRatio() {
+        long in = bytesIn.sum();
+        return in == 0 ? 1.0 : bytesOut.sum() / (double) in;
+    }
+
+    /**
+     * @return the CPU time spent compressing, in nanoseconds (0 if thread CPU time is not supported
+     * or not enabled in the JVM).
+     */
+    public long getCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats{compressed=" + getCompressedResponses() + ", skipped=" + getSkippedResponses()
+                + ", bytesIn=" + getBytesIn() + ", bytesOut=" + getBytesOut()
+                + ", ratio=" + String.format("%.3f", getRatio()) + ", cpuMillis=" + getCpuNanos() / 1_000_000 + "}";
+    }
+}
@@ -0,0 +1,85 @@
+package filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import utils.metrics.RequestMetrics;
+
+import java.io.IOException;
+
+/**
+ * Records the latency of every request in {@link RequestMetrics}, keyed by the servlet mapping
+ * that handled it (e.g. {@code /login}, {@code /pm/team}, {@code *.jsp}), the HTTP method and
+ * the status class. The metrics are published under {@link RequestMetrics#CONTEXT_ATTRIBUTE}
+ * and exported by {@code /admin/metrics}.
+ */
+@WebFilter(filterName = "MetricsFilter", urlPatterns = "/*", asyncSupported = true)
+public class MetricsFilter extends HttpFilter {
+
+    private RequestMetrics metrics;
+
+    @Override
+    public void init(FilterConfig config) throws ServletException {
+        super.init(config);
+        metrics = new RequestMetrics();
+        config.getServletContext().setAttribute(RequestMetrics.CONTEXT_ATTRIBUTE, metrics);
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        String route = routeOf(request);
+        long start = System.nanoTime();
+        metrics.start(route);
+
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        metrics.finish(route, request.getMethod(), response.getStatus(), System.nanoTime() - start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                // An exception becomes an error page rendered by the container
+                int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+                metrics.finish(route, request.getMethod(), status, System.nanoTime() - start);
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static String routeOf(HttpServletRequest request) {
+        HttpServletMapping mapping = request.getHttpServletMapping();
+        if (mapping == null || mapping.getPattern() == null) {
+            return "unmapped";
+        }
+        String pattern = mapping.getPattern();
+        return pattern.isEmpty() ? "/" : pattern;
+    }
+}
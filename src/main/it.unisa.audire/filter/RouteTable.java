@@ -0,0 +1,263 @@
+package filter;
+
+import model.dto.UserDTO;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Access rules of the application, built once at startup and consulted by {@link AccessControlFilter}.
+ * <p>
+ * Rules are attached to path prefixes and stored in a trie indexed by path segment, so
+ * {@code /pm} matches {@code /pm/team} but not {@code /pmx} or {@code /media/pm/...}; the longest
+ * matching prefix wins. Each rule precomputes its decision for every role, and the rule found for
+ * a path is remembered, so a repeated path costs a single map lookup.
+ * </p>
+ * <p>
+ * Bypassed prefixes (static resources) need neither a session nor a rule evaluation.
+ * The table is published in the servlet context under {@link #CONTEXT_ATTRIBUTE} with its counters.
+ * </p>
+ */
+public final class RouteTable {
+
+    public static final String CONTEXT_ATTRIBUTE = "routeTable";
+
+    // Upper bound of the remembered paths, so that random URLs cannot grow the cache forever
+    private static final int MAX_CACHED_PATHS = 4096;
+
+    /**
+     * Outcome of the access check for a request.
+     */
+    public enum Decision {
+        /** Static resource: served without looking at the session. */
+        BYPASS,
+        /** The user may access the path. */
+        ALLOW,
+        /** The path requires a login. */
+        LOGIN,
+        /** The user is logged in with a role that may not access the path. */
+        DENY
+    }
+
+    /**
+     * The rule matched by a path, with its decision for each role.
+     */
+    public static final class Route {
+        private final String prefix;
+        private final boolean bypass;
+        private final Decision anonymous;
+        private final Decision[] byRole;
+
+        private Route(String prefix, boolean bypass, UserDTO.Role[] allowedRoles) {
+            this.prefix = prefix;
+            this.bypass = bypass;
+            UserDTO.Role[] roles = UserDTO.Role.values();
+            this.byRole = new Decision[roles.length];
+
+            if (bypass) {
+                this.anonymous = Decision.BYPASS;
+                Arrays.fill(byRole, Decision.BYPASS);
+            } else if (allowedRoles == null) {
+                this.anonymous = Decision.ALLOW;
+                Arrays.fill(byRole, Decision.ALLOW);
+            } else {
+                this.anonymous = Decision.LOGIN;
+                Arrays.fill(byRole, Decision.DENY);
+                for (UserDTO.Role role : allowedRoles) {
+                    byRole[role.ordinal()] = Decision.ALLOW;
+                }
+            }
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public boolean isBypass() {
+            return bypass;
+        }
+
+        /**
+         * @param role the role of the logged-in user, or null for an anonymous request.
+         * @return the precomputed decision.
+         */
+        public Decision decide(UserDTO.Role role) {
+            return role == null ? anonymous : byRole[role.ordinal()];
+        }
+    }
+
+    /**
+     * Collects the rules of a {@link RouteTable}.
+     */
+    public static final class Builder {
+        private final Node root = new Node();
+
+        private Builder() {
+            root.route = new Route("/", false, null);
+        }
+
+        /**
+         * Serves the paths under {@code prefix} without any check.
+         */
+        public Builder bypass(String prefix) {
+            node(prefix).route = new Route(prefix, true, null);
+            return this;
+        }
+
+        /**
+         * Makes the paths under {@code prefix} accessible to everyone, overriding a shorter prefix.
+         */
+        public Builder permitAll(String prefix) {
+            node(prefix).route = new Route(prefix, false, null);
+            return this;
+        }
+
+        /**
+         * Restricts the paths under {@code prefix} to users with one of the given roles.
+         */
+        public Builder require(String prefix, UserDTO.Role... roles) {
+            if (roles.length == 0) {
+                throw new IllegalArgumentException("At least one role is required for " + prefix);
+            }
+            node(prefix).route = new Route(prefix, false, roles.clone());
+            return this;
+        }
+
+        public RouteTable build() {
+            return new RouteTable(root);
+        }
+
+        private Node node(String prefix) {
+            if (prefix == null || !prefix.startsWith("/")) {
+                throw new IllegalArgumentException("Route prefixes must start with '/': " + prefix);
+            }
+            Node node = root;
+            for (String segment : prefix.substring(1).split("/")) {
+                if (segment.isEmpty()) continue;
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            return node;
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Route route;
+    }
+
+    private final Node root;
+    private final ConcurrentHashMap<String, Route> resolved = new ConcurrentHashMap<>();
+
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LongAdder redirected = new LongAdder();
+
+    private RouteTable(Node root) {
+        this.root = root;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the rules of the application: static resources are bypassed, and the {@code /cd},
+     * {@code /pm} and {@code /performer} areas are reserved to their roles.
+     */
+    public static RouteTable defaults() {
+        return builder()
+                .bypass("/assets")
+                .bypass("/styles")
+                .bypass("/scripts")
+                .bypass("/images")
+                .bypass("/uploads")
+                .bypass("/media/photo")
+                .bypass("/favicon.ico")
+                .require("/cd", UserDTO.Role.CastingDirector)
+                .require("/pm", UserDTO.Role.ProductionManager)
+                .require("/performer", UserDTO.Role.Performer)
+                .build();
+    }
+
+    /**
+     * Finds the rule with the longest prefix matching the path.
+     *
+     * @param path the context-relative path, e.g. {@code /pm/team}.
+     * @return the route; paths without a specific rule get the public root route.
+     */
+    public Route route(String path) {
+        Route route = resolved.get(path);
+        if (route != null) {
+            return route;
+        }
+
+        route = match(path);
+        if (resolved.size() < MAX_CACHED_PATHS) {
+            resolved.putIfAbsent(path, route);
+        }
+        return route;
+    }
+
+    // --- Metrics ---
+
+    void record(Decision decision) {
+        switch (decision) {
+            case BYPASS:
+                bypassed.increment();
+                break;
+            case ALLOW:
+                allowed.increment();
+                break;
+            case LOGIN:
+                redirected.increment();
+                break;
+            case DENY:
+                denied.increment();
+                break;
+        }
+    }
+
+    public long getBypassedCount() {
+        return bypassed.sum();
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getDeniedCount() {
+        return denied.sum();
+    }
+
+    /**
+     * @return the number of anonymous requests redirected to the login page.
+     */
+    public long getRedirectedCount() {
+        return redirected.sum();
+    }
+
+    // --- Helper Methods ---
+
+    private Route match(String path) {
+        Node node = root;
+        Route best = root.route;
+        int start = 1;
+        int length = path.length();
+
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = length;
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) break;
+                if (node.route != null) best = node.route;
+            }
+            start = end + 1;
+        }
+        return best;
+    }
+}
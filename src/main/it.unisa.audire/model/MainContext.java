@@ -4,16 +4,38 @@ import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
+import model.cache.EntityCaches;
+import model.datasource.ConnectionPool;
+import model.datasource.InstrumentedDataSource;
+import model.datasource.PoolConfig;
+import model.media.FileSystemMediaStore;
+import model.media.MediaBufferCache;
+import model.media.MediaStore;
+import model.media.ThumbnailService;
+import com.password4j.Argon2Function;
+import utils.Argon2Policy;
+import utils.AssetRegistry;
+import utils.LoginAttemptTracker;
+import utils.PasswordHashingExecutor;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
 
 
 @WebListener
 public class MainContext implements ServletContextListener {
 
+    private ConnectionPool pool;
+    private PasswordHashingExecutor hashingExecutor;
+    private MediaStore mediaStore;
+    private ThumbnailService thumbnailService;
+
     public void contextInitialized(ServletContextEvent sce) {
         ServletContext context = sce.getServletContext();
 
@@ -28,12 +50,287 @@ public class MainContext implements ServletContextListener {
             System.out.println("Errore: Impossibile trovare il DataSource. " + e.getMessage());
         }
 
+        if (ds == null) {
+            ds = createConnectionPool(context);
+        }
+        if (ds != null) {
+            ds = instrument(context, ds);
+        }
+
         context.setAttribute("ds", ds);
         System.out.println("DataSource creato e impostato nel contesto dell'applicazione.");
+
+        configureCache(context, EntityCaches.USER);
+        configureCache(context, EntityCaches.CASTING_DIRECTOR);
+        configureCache(context, EntityCaches.PRODUCTION_MANAGER);
+
+        configurePasswordPolicy(context);
+        createHashingExecutor(context);
+        createLoginAttemptTracker(context);
+        createMediaStore(context);
+        registerAssets(context);
+    }
+
+    /**
+     * Wraps the DataSource to collect per-statement statistics, unless {@code db.instrument} is false.
+     * Statements slower than {@code db.slowQueryMillis} (0 disables the log) are logged without their parameter values.
+     */
+    private DataSource instrument(ServletContext context, DataSource ds) {
+        String enabled = context.getInitParameter("db.instrument");
+        if (enabled != null && !Boolean.parseBoolean(enabled.trim())) {
+            return ds;
+        }
+        long slowQueryMillis = longParameter(context, "db.slowQueryMillis", 500);
+        InstrumentedDataSource instrumented = new InstrumentedDataSource(ds, Math.max(0, slowQueryMillis));
+        context.setAttribute(InstrumentedDataSource.CONTEXT_ATTRIBUTE, instrumented);
+        return instrumented;
+    }
+
+    /**
+     * Fingerprints the static assets so that views can link them through {@code audire:asset}.
+     */
+    private void registerAssets(ServletContext context) {
+        try {
+            AssetRegistry registry = AssetRegistry.scan(context);
+            AssetRegistry.install(registry);
+            System.out.println("Risorse statiche registrate: " + registry.size());
+        } catch (IOException e) {
+            System.out.println("Errore: Impossibile registrare le risorse statiche. " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates the media store for uploaded files in {@code media.root}, by default
+     * {@code audire-media} under the Tomcat base directory (or the user home), outside the
+     * exploded WAR so that uploads survive a redeploy.
+     */
+    private void createMediaStore(ServletContext context) {
+        String root = context.getInitParameter("media.root");
+        if (root == null || root.trim().isEmpty()) {
+            String base = System.getProperty("catalina.base", System.getProperty("user.home"));
+            root = Paths.get(base, "audire-media").toString();
+        }
+        long graceMinutes = longParameter(context, "media.gcGraceMinutes", 60);
+        long intervalMinutes = longParameter(context, "media.gcIntervalMinutes", 60);
+
+        try {
+            mediaStore = new FileSystemMediaStore(Paths.get(root.trim()), Duration.ofMinutes(graceMinutes),
+                    intervalMinutes > 0 ? Duration.ofMinutes(intervalMinutes) : null);
+            context.setAttribute(MediaStore.CONTEXT_ATTRIBUTE, mediaStore);
+            System.out.println("Media store creato in " + root.trim());
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Errore: Impossibile creare il media store in " + root + ". " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        int threads = intParameter(context, "media.thumbnailThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int queueCapacity = intParameter(context, "media.thumbnailQueueCapacity", 256);
+        try {
+            thumbnailService = new ThumbnailService(mediaStore, Paths.get(root.trim(), "derived"), threads, queueCapacity);
+            context.setAttribute(ThumbnailService.CONTEXT_ATTRIBUTE, thumbnailService);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Errore: Impossibile creare il servizio delle miniature. " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        createMediaBufferCache(context);
+    }
+
+    /**
+     * Creates the off-heap cache of the most requested photos, sized by {@code media.bufferCacheMiB}
+     * (0 disables it) and {@code media.bufferCacheMaxEntryKiB}.
+     */
+    private void createMediaBufferCache(ServletContext context) {
+        long maxMiB = longParameter(context, "media.bufferCacheMiB", 32);
+        int maxEntryKiB = intParameter(context, "media.bufferCacheMaxEntryKiB", 256);
+        if (maxMiB <= 0) {
+            return;
+        }
+        try {
+            MediaBufferCache cache = new MediaBufferCache(maxMiB * 1024 * 1024, maxEntryKiB * 1024);
+            context.setAttribute(MediaBufferCache.CONTEXT_ATTRIBUTE, cache);
+            System.out.println("Cache delle foto: " + maxMiB + " MiB fuori heap.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Errore: parametri della cache delle foto non validi. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Selects the Argon2 parameters for new password hashes.
+     * <p>
+     * The parameters are the fixed {@code hashing.argon2.memoryKiB} / {@code iterations} / {@code parallelism};
+     * without them the historical parameters are kept. Existing hashes with a lower cost are upgraded at the next login.
+     * </p>
+     * <p>
+     * If {@code hashing.argon2.calibrate} is true, the parameters are also benchmarked against
+     * {@code hashing.argon2.targetMillis} up to {@code hashing.argon2.maxMemoryKiB} and the result is only
+     * printed, to be copied into web.xml: timing-dependent values would differ between restarts and nodes.
+     * </p>
+     */
+    private void configurePasswordPolicy(ServletContext context) {
+        int parallelism = intParameter(context, "hashing.argon2.parallelism", 1);
+        int memoryKiB = intParameter(context, "hashing.argon2.memoryKiB", 0);
+        int iterations = intParameter(context, "hashing.argon2.iterations", 0);
+
+        try {
+            if (memoryKiB > 0 && iterations > 0) {
+                Argon2Policy.configure(Argon2Policy.of(memoryKiB, iterations, parallelism));
+            }
+            if (Boolean.parseBoolean(context.getInitParameter("hashing.argon2.calibrate"))) {
+                long targetMillis = longParameter(context, "hashing.argon2.targetMillis", 250);
+                int maxMemoryKiB = intParameter(context, "hashing.argon2.maxMemoryKiB", 64 * 1024);
+
+                long start = System.currentTimeMillis();
+                Argon2Function calibrated = Argon2Policy.calibrate(targetMillis, maxMemoryKiB, parallelism);
+                System.out.println("Calibrazione Argon2 completata in " + (System.currentTimeMillis() - start) + "ms (obiettivo " + targetMillis + "ms). "
+                        + "Valori suggeriti, non applicati: hashing.argon2.memoryKiB=" + calibrated.getMemory()
+                        + ", hashing.argon2.iterations=" + calibrated.getIterations());
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Errore: parametri Argon2 non validi, uso quelli predefiniti. " + e.getMessage());
+        }
+        System.out.println("Parametri Argon2 per i nuovi hash: " + Argon2Policy.describe(Argon2Policy.current()));
+    }
+
+    /**
+     * Creates the bounded executor for password hashing from the context parameters
+     * {@code hashing.parallelism} (default: number of processors), {@code hashing.queueCapacity}
+     * and {@code hashing.timeoutMillis}.
+     */
+    private void createHashingExecutor(ServletContext context) {
+        int parallelism = intParameter(context, "hashing.parallelism", Runtime.getRuntime().availableProcessors());
+        int queueCapacity = intParameter(context, "hashing.queueCapacity", 64);
+        long timeoutMillis = longParameter(context, "hashing.timeoutMillis", 10_000L);
+
+        try {
+            hashingExecutor = new PasswordHashingExecutor(parallelism, queueCapacity, timeoutMillis);
+            context.setAttribute(PasswordHashingExecutor.CONTEXT_ATTRIBUTE, hashingExecutor);
+            System.out.println("Executor di hashing creato: " + parallelism + " thread, coda " + queueCapacity + ", timeout " + timeoutMillis + "ms");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Errore: configurazione dell'executor di hashing non valida. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Configures one entity cache from the context parameters
+     * {@code cache.<name>.enabled}, {@code cache.<name>.maxSize} and {@code cache.<name>.ttlSeconds}.
+     * Caches are disabled unless explicitly enabled.
+     */
+    private void configureCache(ServletContext context, String name) {
+        String prefix = "cache." + name + ".";
+        boolean enabled = Boolean.parseBoolean(context.getInitParameter(prefix + "enabled"));
+        int maxSize = intParameter(context, prefix + "maxSize", 1000);
+        int ttlSeconds = intParameter(context, prefix + "ttlSeconds", 300);
+
+        try {
+            EntityCaches.configure(name, enabled, maxSize, Duration.ofSeconds(ttlSeconds));
+            System.out.println("Cache " + name + ": " + (enabled ? "attiva (max " + maxSize + ", TTL " + ttlSeconds + "s)" : "disattivata"));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Errore: configurazione della cache " + name + " non valida. " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the failed-login tracker from the {@code login.*} context parameters.
+     */
+    private void createLoginAttemptTracker(ServletContext context) {
+        int maxPerEmail = intParameter(context, "login.maxFailuresPerEmail", 5);
+        int maxPerAddress = intParameter(context, "login.maxFailuresPerAddress", 20);
+        long windowSeconds = longParameter(context, "login.windowSeconds", 900);
+        long baseDelaySeconds = longParameter(context, "login.baseDelaySeconds", 1);
+        long maxDelaySeconds = longParameter(context, "login.maxDelaySeconds", 900);
+        int maxTrackedKeys = intParameter(context, "login.maxTrackedKeys", 10_000);
+
+        try {
+            LoginAttemptTracker tracker = new LoginAttemptTracker(maxPerEmail, maxPerAddress, windowSeconds * 1000,
+                    baseDelaySeconds * 1000, maxDelaySeconds * 1000, maxTrackedKeys);
+            context.setAttribute(LoginAttemptTracker.CONTEXT_ATTRIBUTE, tracker);
+            System.out.println("Limitazione dei tentativi di accesso: " + maxPerEmail + " per account, " + maxPerAddress + " per indirizzo ogni " + windowSeconds + "s");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Errore: configurazione della limitazione degli accessi non valida. " + e.getMessage());
+        }
+    }
+
+    private static long longParameter(ServletContext context, String name, long defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Errore: valore non numerico per " + name + ", uso " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static int intParameter(ServletContext context, String name, int defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Errore: valore non numerico per " + name + ", uso " + defaultValue);
+            return defaultValue;
+        }
     }
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
+        if (hashingExecutor != null) {
+            hashingExecutor.close();
+        }
+        if (thumbnailService != null) {
+            thumbnailService.close();
+        }
+        if (mediaStore != null) {
+            mediaStore.close();
+        }
+        if (pool != null) {
+            pool.close();
+            System.out.println("Pool di connessioni chiuso.");
+        }
         ServletContextListener.super.contextDestroyed(sce);
     }
+
+    /**
+     * Builds the in-process connection pool from the {@code db.*} and {@code pool.*} context
+     * parameters, used when the container does not provide {@code jdbc/Audire}.
+     *
+     * @return the pool, or null if {@code db.url} is not set or the pool cannot be created.
+     */
+    private DataSource createConnectionPool(ServletContext context) {
+        String url = context.getInitParameter("db.url");
+        if (url == null || url.trim().isEmpty()) {
+            System.out.println("Errore: nessun DataSource JNDI e nessun parametro db.url configurato.");
+            return null;
+        }
+
+        PoolConfig config = new PoolConfig(url.trim(), context.getInitParameter("db.user"), context.getInitParameter("db.password"));
+        config.setDriverClassName(context.getInitParameter("db.driver"));
+        config.setMinSize(intParameter(context, "pool.minSize", config.getMinSize()));
+        config.setMaxSize(intParameter(context, "pool.maxSize", config.getMaxSize()));
+        config.setAcquireTimeout(longParameter(context, "pool.acquireTimeoutMillis", config.getAcquireTimeout()));
+        config.setIdleTimeout(longParameter(context, "pool.idleTimeoutMillis", config.getIdleTimeout()));
+        config.setLeakDetectionThreshold(longParameter(context, "pool.leakDetectionThresholdMillis", config.getLeakDetectionThreshold()));
+        String validationQuery = context.getInitParameter("pool.validationQuery");
+        if (validationQuery != null) {
+            config.setValidationQuery(validationQuery.trim().isEmpty() ? null : validationQuery.trim());
+        }
+
+        try {
+            pool = new ConnectionPool(config);
+            context.setAttribute(ConnectionPool.CONTEXT_ATTRIBUTE, pool);
+            System.out.println("Pool di connessioni interno creato: " + config);
+            return pool;
+        } catch (SQLException | IllegalArgumentException e) {
+            System.out.println("Errore: Impossibile creare il pool di connessioni. " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
 }
\ No newline at end of file
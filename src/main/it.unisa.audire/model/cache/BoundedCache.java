@@ -0,0 +1,171 @@
+package model.cache;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded, frequency-aware cache with per-entry expiry.
+ * <p>
+ * Entries are kept in LRU order. When the cache is full, a new entry is admitted only if its
+ * estimated access frequency is higher than that of the least recently used entry, which it then
+ * replaces; otherwise the new entry is dropped. This keeps one-off lookups (e.g. a scan over many
+ * users) from flushing the entries that are read on every request.
+ * </p>
+ * <p>
+ * Each entry expires a fixed time after it was written. Expired entries are removed lazily.
+ * A value loaded concurrently with an invalidation is not cached, so a read racing with a
+ * {@code save()} cannot reinstate stale data.
+ * </p>
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public final class BoundedCache<K, V> implements Cache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final FrequencySketch sketch;
+
+    // Guarded by this
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+
+    /**
+     * @param maxSize the maximum number of entries, at least 1.
+     * @param ttl     how long an entry stays valid after being written.
+     */
+    public BoundedCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache TTL must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1024) * 4 / 3 + 1, 0.75f, true);
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    @Override
+    public V get(K key, Loader<? super K, ? extends V> loader) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            V value = lookup(key);
+            if (value != null) {
+                return value;
+            }
+            loadGeneration = generation;
+        }
+
+        V loaded = loader.load(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    admit(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public synchronized V getIfPresent(K key) {
+        return lookup(key);
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        Objects.requireNonNull(value, "Cached value cannot be null");
+        sketch.increment(key);
+        admit(key, value);
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    @Override
+    public synchronized void invalidateIf(Predicate<? super V> filter) {
+        generation++;
+        entries.values().removeIf(entry -> filter.test(entry.value));
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @Override
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, rejections, entries.size(), maxSize);
+    }
+
+    // --- Helper Methods ---
+
+    private V lookup(K key) {
+        sketch.increment(key);
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    private void admit(K key, V value) {
+        long now = System.nanoTime();
+        Entry<V> entry = new Entry<>(value, now + ttlNanos);
+
+        if (entries.containsKey(key) || entries.size() < maxSize) {
+            entries.put(key, entry);
+            return;
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> lru = entries.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = lru.next();
+        if (victim.getValue().isExpired(now)) {
+            lru.remove();
+        } else if (sketch.frequency(key) > sketch.frequency(victim.getKey())) {
+            lru.remove();
+            evictions++;
+        } else {
+            // The candidate is colder than everything cached
+            rejections++;
+            return;
+        }
+        entries.put(key, entry);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package model.cache;
+
+import java.sql.SQLException;
+import java.util.function.Predicate;
+
+/**
+ * A read-through cache placed in front of a DAO lookup.
+ * <p>
+ * Values are loaded on a miss by the supplied {@link Loader}; {@code null} results are not cached.
+ * Implementations must be thread-safe, and cached values must be treated as read-only by
+ * callers (the DAOs hand out copies).
+ * </p>
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public interface Cache<K, V> {
+
+    /**
+     * Loads the value of a key on a cache miss.
+     */
+    @FunctionalInterface
+    interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    /**
+     * Returns the cached value of a key, loading and caching it on a miss.
+     *
+     * @param key    the key.
+     * @param loader loads the value if it is not cached.
+     * @return the value, or null if the loader returned null.
+     * @throws SQLException if the loader fails.
+     */
+    V get(K key, Loader<? super K, ? extends V> loader) throws SQLException;
+
+    /**
+     * @param key the key.
+     * @return the cached value, or null if absent or expired.
+     */
+    V getIfPresent(K key);
+
+    /**
+     * Caches a value, subject to the admission policy of the implementation.
+     *
+     * @param key   the key.
+     * @param value the value, not null.
+     */
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    /**
+     * Removes every entry whose value matches the given filter.
+     *
+     * @param filter the condition on the cached values.
+     */
+    void invalidateIf(Predicate<? super V> filter);
+
+    void invalidateAll();
+
+    /**
+     * @return a snapshot of the cache statistics.
+     */
+    CacheStats stats();
+
+    /**
+     * Returns a cache that stores nothing and always delegates to the loader.
+     *
+     * @param <K> the key type.
+     * @param <V> the value type.
+     * @return the shared disabled cache.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> Cache<K, V> disabled() {
+        return (Cache<K, V>) DisabledCache.INSTANCE;
+    }
+}
@@ -0,0 +1,77 @@
+package model.cache;
+
+import java.io.Serializable;
+
+/**
+ * Immutable snapshot of the counters of a {@link Cache}.
+ */
+public final class CacheStats implements Serializable {
+
+    static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long rejections;
+    private final int size;
+    private final int maxSize;
+
+    public CacheStats(long hits, long misses, long evictions, long rejections, int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of cached entries removed to make room for new ones (expired entries are not counted).
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of new entries not cached because they were colder than every cached entry.
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the fraction of lookups served from the cache, or 0 if there were none.
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", rejections=" + rejections +
+                ", size=" + size +
+                ", maxSize=" + maxSize +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package model.cache;
+
+import java.sql.SQLException;
+import java.util.function.Predicate;
+
+/**
+ * Cache used when caching is turned off for a DAO: every lookup goes to the database.
+ */
+final class DisabledCache implements Cache<Object, Object> {
+
+    static final DisabledCache INSTANCE = new DisabledCache();
+
+    private DisabledCache() {}
+
+    @Override
+    public Object get(Object key, Loader<? super Object, ?> loader) throws SQLException {
+        return loader.load(key);
+    }
+
+    @Override
+    public Object getIfPresent(Object key) {
+        return null;
+    }
+
+    @Override
+    public void put(Object key, Object value) {}
+
+    @Override
+    public void invalidate(Object key) {}
+
+    @Override
+    public void invalidateIf(Predicate<? super Object> filter) {}
+
+    @Override
+    public void invalidateAll() {}
+
+    @Override
+    public CacheStats stats() {
+        return CacheStats.EMPTY;
+    }
+}
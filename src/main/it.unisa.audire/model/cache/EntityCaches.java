@@ -0,0 +1,94 @@
+package model.cache;
+
+import model.dto.CastingDirectorDTO;
+import model.dto.ProductionManagerDTO;
+import model.dto.UserDTO;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Application-wide registry of the entity caches shared by the DAO instances.
+ * <p>
+ * DAOs are created per request, so their caches live here. Every cache starts disabled and is
+ * turned on by {@link #configure(String, boolean, int, Duration)}, which
+ * {@link model.MainContext} calls at startup from the {@code cache.*} context parameters.
+ * </p>
+ */
+public final class EntityCaches {
+
+    public static final String USER = "user";
+    public static final String CASTING_DIRECTOR = "castingDirector";
+    public static final String PRODUCTION_MANAGER = "productionManager";
+
+    private static volatile Cache<Integer, UserDTO> usersByID = Cache.disabled();
+    private static volatile Cache<String, Integer> userIDsByEmail = Cache.disabled();
+    private static volatile Cache<Integer, CastingDirectorDTO> castingDirectorsByUserID = Cache.disabled();
+    private static volatile Cache<Integer, ProductionManagerDTO> productionManagersByUserID = Cache.disabled();
+
+    private EntityCaches() {}
+
+    /**
+     * Enables, resizes or disables the caches of one DAO. Existing entries are discarded.
+     *
+     * @param name    one of {@link #USER}, {@link #CASTING_DIRECTOR}, {@link #PRODUCTION_MANAGER}.
+     * @param enabled whether lookups are cached.
+     * @param maxSize the maximum number of entries.
+     * @param ttl     how long an entry stays valid.
+     * @throws IllegalArgumentException if the name is unknown or the size/TTL are not positive.
+     */
+    public static synchronized void configure(String name, boolean enabled, int maxSize, Duration ttl) {
+        switch (name) {
+            case USER:
+                usersByID = create(enabled, maxSize, ttl);
+                userIDsByEmail = create(enabled, maxSize, ttl);
+                break;
+            case CASTING_DIRECTOR:
+                castingDirectorsByUserID = create(enabled, maxSize, ttl);
+                break;
+            case PRODUCTION_MANAGER:
+                productionManagersByUserID = create(enabled, maxSize, ttl);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown cache: " + name);
+        }
+    }
+
+    public static Cache<Integer, UserDTO> usersByID() {
+        return usersByID;
+    }
+
+    /**
+     * @return the secondary index used by {@code UserDAO.getByEmail}; values are user IDs.
+     */
+    public static Cache<String, Integer> userIDsByEmail() {
+        return userIDsByEmail;
+    }
+
+    public static Cache<Integer, CastingDirectorDTO> castingDirectorsByUserID() {
+        return castingDirectorsByUserID;
+    }
+
+    public static Cache<Integer, ProductionManagerDTO> productionManagersByUserID() {
+        return productionManagersByUserID;
+    }
+
+    /**
+     * @return a snapshot of the statistics of every cache, keyed by cache name.
+     */
+    public static Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("user", usersByID.stats());
+        stats.put("user.email", userIDsByEmail.stats());
+        stats.put(CASTING_DIRECTOR, castingDirectorsByUserID.stats());
+        stats.put(PRODUCTION_MANAGER, productionManagersByUserID.stats());
+        return stats;
+    }
+
+    // --- Helper Methods ---
+
+    private static <K, V> Cache<K, V> create(boolean enabled, int maxSize, Duration ttl) {
+        return enabled ? new BoundedCache<>(maxSize, ttl) : Cache.disabled();
+    }
+}
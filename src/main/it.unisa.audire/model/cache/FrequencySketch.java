@@ -0,0 +1,75 @@
+package model.cache;
+
+/**
+ * Approximate access-frequency counter (count-min sketch) used by {@link BoundedCache} for admission.
+ * <p>
+ * Each key increments one 4-bit counter in each of four rows; its estimated frequency is the
+ * minimum of the four. After a number of increments proportional to the cache size every counter
+ * is halved, so the sketch favours recent popularity over all-time popularity.
+ * Not thread-safe: the owning cache serialises access.
+ * </p>
+ */
+final class FrequencySketch {
+
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maxSize) {
+        int width = Integer.highestOneBit(Math.max(16, maxSize) * 2 - 1) << 1;
+        this.counters = new byte[ROWS][width];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(10 * maxSize, 160);
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < ROWS; row++) {
+            int index = indexOf(hash, row);
+            if (counters[row][index] < MAX_COUNT) {
+                counters[row][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, counters[row][indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    // --- Helper Methods ---
+
+    private void reset() {
+        for (byte[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % ROWS];
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45D9F3B;
+        return hash ^ (hash >>> 16);
+    }
+}
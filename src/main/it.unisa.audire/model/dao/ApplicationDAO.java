@@ -7,6 +7,7 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing ApplicationDTO entities.
@@ -24,8 +25,37 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
 
     private static final String DEFAULT_ORDER_COLUMN = "SendingDate DESC";
 
+    // Columns selected by every query, each with the code that reads it
+    static final RowMapping<ApplicationDTO> MAPPING = RowMapping.of(ApplicationDTO::new)
+            .column("ApplicationID", (rs, i, app) -> app.setApplicationID(rs.getInt(i)))
+            .column("SendingDate", (rs, i, app) -> app.setSendingDate(rs.getObject(i, LocalDateTime.class)))
+            .column("Status", (rs, i, app) -> {
+                String status = rs.getString(i);
+                if (status != null) app.setStatus(mapDbToStatus(status));
+            })
+            .column("Feedback", (rs, i, app) -> app.setFeedback(rs.getString(i)))
+            .column("PerformerID", (rs, i, app) -> app.setPerformerID(rs.getInt(i)))
+            .column("CastingID", (rs, i, app) -> app.setCastingID(rs.getInt(i)))
+            .build();
+
+    static final String COLUMNS = MAPPING.getColumns();
+
+    private static final Map<String, ApplicationDTO.Status> DB_TO_STATUS =
+            DbEnums.lookup(ApplicationDTO.Status.class, ApplicationDAO::mapStatusToDb);
+
     private final DataSource dataSource;
 
+    private final BatchWriter<ApplicationDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO Application (SendingDate, Status, Feedback, PerformerID, CastingID) VALUES", 5,
+            this::setStatementParameters,
+            "UPDATE Application SET SendingDate=?, Status=?, Feedback=?, PerformerID=?, CastingID=? WHERE ApplicationID=?",
+            (ps, index, app) -> {
+                index = setStatementParameters(ps, index, app);
+                ps.setInt(index++, app.getApplicationID());
+                return index;
+            },
+            ApplicationDTO::getApplicationID, ApplicationDTO::setApplicationID);
+
     public ApplicationDAO(DataSource dataSource) {
         this.dataSource = Objects.requireNonNull(dataSource, "DataSource cannot be null");
     }
@@ -42,12 +72,7 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
      */
     @Override
     public void save(ApplicationDTO app) throws SQLException {
-        if (app == null || app.getStatus() == null || app.getSendingDate() == null) {
-            throw new IllegalArgumentException("ApplicationDTO cannot be null");
-        }
-        if (app.getPerformerID() <= 0 || app.getCastingID() <= 0) {
-            throw new IllegalArgumentException("Application must link to valid Performer and Casting IDs.");
-        }
+        validate(app);
 
         String sql;
         if (app.getApplicationID() == 0) {
@@ -56,7 +81,7 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-                setStatementParameters(ps, app);
+                setStatementParameters(ps, 1, app);
 
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -77,7 +102,7 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql)) {
 
-                setStatementParameters(ps, app);
+                setStatementParameters(ps, 1, app);
                 ps.setInt(6, app.getApplicationID());
 
                 ps.executeUpdate();
@@ -85,6 +110,25 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
         }
     }
 
+    /**
+     * Persists a collection of applications in a single transaction.
+     * <p>
+     * New applications are inserted with multi-row INSERT statements and receive their generated IDs;
+     * existing ones are updated through a JDBC batch. Either all of them are saved or none is.
+     * </p>
+     *
+     * @param apps the applications to save.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public void saveAll(Collection<ApplicationDTO> apps, int chunkSize) throws SQLException {
+        for (ApplicationDTO app : apps) {
+            validate(app);
+        }
+        batchWriter.saveAll(dataSource, apps, chunkSize);
+    }
+
     /**
      * Deletes an application by its ID.
      *
@@ -117,13 +161,13 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
     public ApplicationDTO getByID(Integer applicationID) throws SQLException {
         if (applicationID == null || applicationID <= 0) return null;
 
-        String sql = "SELECT * FROM Application WHERE ApplicationID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Application WHERE ApplicationID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, applicationID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractAppFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -140,7 +184,7 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
     public Collection<ApplicationDTO> getByPerformerID(Integer performerID) throws SQLException {
         if (performerID == null || performerID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Application WHERE PerformerID = ? ORDER BY SendingDate DESC";
+        String sql = "SELECT " + COLUMNS + " FROM Application WHERE PerformerID = ? ORDER BY SendingDate DESC";
         Collection<ApplicationDTO> list = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -148,13 +192,57 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
             ps.setInt(1, performerID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(extractAppFromResultSet(rs));
+                    list.add(MAPPING.map(rs));
                 }
             }
         }
         return list;
     }
 
+    /**
+     * Checks whether a performer has applied to at least one casting of a Casting Director.
+     * <p>
+     * Used to authorize access to the performer's CV: a Casting Director may only see the
+     * CVs of the applicants to their own castings.
+     * </p>
+     *
+     * @param performerID the ID of the performer.
+     * @param cdID the ID of the Casting Director.
+     * @return {@code true} if such an application exists.
+     * @throws SQLException if database error occurs.
+     */
+    public boolean existsForCastingDirector(Integer performerID, Integer cdID) throws SQLException {
+        if (performerID == null || performerID <= 0 || cdID == null || cdID <= 0) return false;
+
+        String sql = "SELECT 1 FROM Application a JOIN Casting c ON c.CastingID = a.CastingID " +
+                "WHERE a.PerformerID = ? AND c.CdID = ? LIMIT 1";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, performerID);
+            ps.setInt(2, cdID);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Retrieves one page of the applications submitted by a specific Performer,
+     * most recent first.
+     *
+     * @param performerID the ID of the performer.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of applications to return.
+     * @return a page of applications.
+     * @throws SQLException if database error occurs.
+     */
+    public Page<ApplicationDTO> getByPerformerID(Integer performerID, String afterKey, int limit) throws SQLException {
+        if (performerID == null || performerID <= 0) return Page.empty();
+
+        return Keyset.fixed("SendingDate DESC", "ApplicationID").fetch(dataSource, "SELECT " + COLUMNS + " FROM Application",
+                "PerformerID = ?", new Object[]{performerID}, afterKey, limit, MAPPING);
+    }
+
     /**
      * Retrieves all applications received for a specific Casting call.
      *
@@ -165,7 +253,7 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
     public Collection<ApplicationDTO> getByCastingID(Integer castingID) throws SQLException {
         if (castingID == null || castingID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Application WHERE CastingID = ? ORDER BY SendingDate DESC";
+        String sql = "SELECT " + COLUMNS + " FROM Application WHERE CastingID = ? ORDER BY SendingDate DESC";
         Collection<ApplicationDTO> list = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -173,13 +261,30 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
             ps.setInt(1, castingID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(extractAppFromResultSet(rs));
+                    list.add(MAPPING.map(rs));
                 }
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of the applications received for a specific Casting call,
+     * most recent first.
+     *
+     * @param castingID the ID of the casting.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of applications to return.
+     * @return a page of applications.
+     * @throws SQLException if database error occurs.
+     */
+    public Page<ApplicationDTO> getByCastingID(Integer castingID, String afterKey, int limit) throws SQLException {
+        if (castingID == null || castingID <= 0) return Page.empty();
+
+        return Keyset.fixed("SendingDate DESC", "ApplicationID").fetch(dataSource, "SELECT " + COLUMNS + " FROM Application",
+                "CastingID = ?", new Object[]{castingID}, afterKey, limit, MAPPING);
+    }
+
     /**
      * Retrieves all applications in the system.
      *
@@ -190,61 +295,82 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
     @Override
     public Collection<ApplicationDTO> getAll(String order) throws SQLException {
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
-        String sql = "SELECT * FROM Application ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM Application ORDER BY " + actualOrder;
 
         Collection<ApplicationDTO> list = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(extractAppFromResultSet(rs));
+                list.add(MAPPING.map(rs));
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of applications.
+     *
+     * @param order the column to sort by.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of applications to return.
+     * @return a page of applications.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Page<ApplicationDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, ALLOWED_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "ApplicationID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM Application", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all applications using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of applications.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<ApplicationDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM Application ORDER BY " + actualOrder, MAPPING);
+    }
+
     // --- Helper Methods ---
 
-    private void setStatementParameters(PreparedStatement ps, ApplicationDTO app) throws SQLException {
-        if (app.getSendingDate() != null) {
-            ps.setTimestamp(1, Timestamp.valueOf(app.getSendingDate()));
-        } else {
-            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+    private void validate(ApplicationDTO app) {
+        if (app == null || app.getStatus() == null || app.getSendingDate() == null) {
+            throw new IllegalArgumentException("ApplicationDTO cannot be null");
         }
-
-        if (app.getStatus() != null) {
-            ps.setString(2, mapStatusToDb(app.getStatus()));
-        } else {
-            ps.setString(2, "In attesa"); // Default DB value
+        if (app.getPerformerID() <= 0 || app.getCastingID() <= 0) {
+            throw new IllegalArgumentException("Application must link to valid Performer and Casting IDs.");
         }
-
-        ps.setString(3, app.getFeedback());
-        ps.setInt(4, app.getPerformerID());
-        ps.setInt(5, app.getCastingID());
     }
 
-    private ApplicationDTO extractAppFromResultSet(ResultSet rs) throws SQLException {
-        ApplicationDTO app = new ApplicationDTO();
-        app.setApplicationID(rs.getInt("ApplicationID"));
-
-        Timestamp ts = rs.getTimestamp("SendingDate");
-        if (ts != null) {
-            app.setSendingDate(ts.toLocalDateTime());
+    private int setStatementParameters(PreparedStatement ps, int index, ApplicationDTO app) throws SQLException {
+        if (app.getSendingDate() != null) {
+            ps.setObject(index++, app.getSendingDate());
+        } else {
+            ps.setObject(index++, LocalDateTime.now());
         }
 
-        String statusStr = rs.getString("Status");
-        if (statusStr != null) {
-            app.setStatus(mapDbToStatus(statusStr));
+        if (app.getStatus() != null) {
+            ps.setString(index++, mapStatusToDb(app.getStatus()));
+        } else {
+            ps.setString(index++, "In attesa"); // Default DB value
         }
 
-        app.setFeedback(rs.getString("Feedback"));
-        app.setPerformerID(rs.getInt("PerformerID"));
-        app.setCastingID(rs.getInt("CastingID"));
-        return app;
+        ps.setString(index++, app.getFeedback());
+        ps.setInt(index++, app.getPerformerID());
+        ps.setInt(index++, app.getCastingID());
+        return index;
     }
 
-    // Mapping: "In attesa" <-> IN_ATTESA
-    private String mapStatusToDb(ApplicationDTO.Status status) {
+    // Mapping: "In attesa" <-> In_attesa
+    static String mapStatusToDb(ApplicationDTO.Status status) {
         switch (status) {
             case In_attesa: return "In attesa";
             case Shortlist: return "Shortlist";
@@ -254,13 +380,7 @@ public class ApplicationDAO implements GenericDAO<ApplicationDTO, Integer> {
         }
     }
 
-    private ApplicationDTO.Status mapDbToStatus(String dbValue) {
-        try {
-            // "In attesa" -> "IN_ATTESA"
-            String normalized = dbValue.toUpperCase().replace(" ", "_");
-            return ApplicationDTO.Status.valueOf(normalized);
-        } catch (IllegalArgumentException e) {
-            return ApplicationDTO.Status.In_attesa;
-        }
+    static ApplicationDTO.Status mapDbToStatus(String dbValue) {
+        return DB_TO_STATUS.getOrDefault(dbValue, ApplicationDTO.Status.In_attesa);
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package model.dao;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Persists collections of DTOs with as few round trips as possible.
+ * <p>
+ * New entities (ID 0) are written with multi-row {@code INSERT ... VALUES (...), (...)} statements,
+ * one per chunk, and the generated keys are assigned back to each DTO in order.
+ * Existing entities are updated through a JDBC batch. Everything runs on a single
+ * connection and in a single transaction, which is rolled back on failure.
+ * </p>
+ * <p>
+ * When the connection is already inside a transaction (auto-commit disabled), the writer
+ * joins it and leaves commit and rollback to the owner of the transaction.
+ * </p>
+ *
+ * @param <T> the DTO type.
+ */
+final class BatchWriter<T> {
+
+    // Upper bound on placeholders in a single MySQL prepared statement
+    private static final int MAX_PARAMETERS = 65535;
+
+    /**
+     * Binds the parameters of one entity starting at {@code index}.
+     *
+     * @param <T> the DTO type.
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        /**
+         * @return the index of the next parameter.
+         */
+        int bind(PreparedStatement ps, int index, T item) throws SQLException;
+    }
+
+    private final String insertPrefix;
+    private final String rowPlaceholders;
+    private final int parametersPerRow;
+    private final Binder<T> insertBinder;
+    private final String updateSql;
+    private final Binder<T> updateBinder;
+    private final ToIntFunction<T> idGetter;
+    private final ObjIntConsumer<T> idSetter;
+
+    /**
+     * @param insertPrefix     the INSERT statement up to and including {@code VALUES}, e.g. {@code "INSERT INTO Team (A, B) VALUES"}.
+     * @param parametersPerRow the number of placeholders of a single row.
+     * @param insertBinder     binds the columns of one row of the INSERT.
+     * @param updateSql        the single-row UPDATE statement, or null if the entity cannot be updated.
+     * @param updateBinder     binds all the parameters of the UPDATE, or null.
+     * @param idGetter         returns the primary key of a DTO (0 for new entities).
+     * @param idSetter         assigns a generated primary key to a DTO.
+     */
+    BatchWriter(String insertPrefix, int parametersPerRow, Binder<T> insertBinder,
+                String updateSql, Binder<T> updateBinder,
+                ToIntFunction<T> idGetter, ObjIntConsumer<T> idSetter) {
+        this.insertPrefix = insertPrefix;
+        this.parametersPerRow = parametersPerRow;
+        this.rowPlaceholders = "(" + String.join(", ", Collections.nCopies(parametersPerRow, "?")) + ")";
+        this.insertBinder = insertBinder;
+        this.updateSql = updateSql;
+        this.updateBinder = updateBinder;
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+    }
+
+    /**
+     * Saves all the given DTOs.
+     *
+     * @param dataSource the DataSource to write to.
+     * @param items      the DTOs to save; they must already be validated.
+     * @param chunkSize  the maximum number of rows per statement or batch.
+     * @throws SQLException if a database error occurs; no row is persisted in that case.
+     */
+    void saveAll(DataSource dataSource, Collection<T> items, int chunkSize) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        List<T> inserts = new ArrayList<>();
+        List<T> updates = new ArrayList<>();
+        for (T item : items) {
+            if (idGetter.applyAsInt(item) == 0) {
+                inserts.add(item);
+            } else if (updateSql != null) {
+                updates.add(item);
+            }
+        }
+        if (inserts.isEmpty() && updates.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean ownTransaction = connection.getAutoCommit();
+            if (ownTransaction) {
+                connection.setAutoCommit(false);
+            }
+            try {
+                insertAll(connection, inserts, Math.min(chunkSize, MAX_PARAMETERS / parametersPerRow));
+                updateAll(connection, updates, chunkSize);
+                if (ownTransaction) {
+                    connection.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (ownTransaction) {
+                    connection.rollback();
+                }
+                // The generated keys refer to rows that no longer exist
+                for (T item : inserts) {
+                    idSetter.accept(item, 0);
+                }
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void insertAll(Connection connection, List<T> inserts, int chunkSize) throws SQLException {
+        String fullChunkSql = null;
+
+        for (int from = 0; from < inserts.size(); from += chunkSize) {
+            List<T> chunk = inserts.subList(from, Math.min(from + chunkSize, inserts.size()));
+
+            String sql;
+            if (chunk.size() == chunkSize) {
+                if (fullChunkSql == null) fullChunkSql = insertSql(chunkSize);
+                sql = fullChunkSql;
+            } else {
+                sql = insertSql(chunk.size());
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int index = 1;
+                for (T item : chunk) {
+                    index = insertBinder.bind(ps, index, item);
+                }
+
+                if (ps.executeUpdate() != chunk.size()) {
+                    throw new SQLException("Batch insert failed, unexpected number of rows affected.");
+                }
+
+                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                    for (T item : chunk) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Batch insert failed, no ID obtained.");
+                        }
+                        idSetter.accept(item, generatedKeys.getInt(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateAll(Connection connection, List<T> updates, int chunkSize) throws SQLException {
+        if (updates.isEmpty()) return;
+
+        try (PreparedStatement ps = connection.prepareStatement(updateSql)) {
+            int pending = 0;
+            for (T item : updates) {
+                updateBinder.bind(ps, 1, item);
+                ps.addBatch();
+                if (++pending == chunkSize) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+
+    private String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(insertPrefix.length() + rows * (rowPlaceholders.length() + 2));
+        sql.append(insertPrefix).append(' ');
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+}
@@ -6,6 +6,7 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing CastingDTO entities.
@@ -24,8 +25,40 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
 
     private static final String DEFAULT_ORDER_COLUMN = "CastingID";
 
+    // Columns selected by every query, each with the code that reads it
+    static final RowMapping<CastingDTO> MAPPING = RowMapping.of(CastingDTO::new)
+            .column("CastingID", (rs, i, c) -> c.setCastingID(rs.getInt(i)))
+            .column("Location", (rs, i, c) -> c.setLocation(rs.getString(i)))
+            .column("Category", (rs, i, c) -> {
+                String category = rs.getString(i);
+                if (category != null) c.setCategory(mapDbToCategory(category));
+            })
+            .column("Description", (rs, i, c) -> c.setDescription(rs.getString(i)))
+            .column("PublishDate", (rs, i, c) -> c.setPublishDate(rs.getObject(i, LocalDateTime.class)))
+            .column("DeadLine", (rs, i, c) -> c.setDeadline(rs.getObject(i, LocalDateTime.class)))
+            .column("Title", (rs, i, c) -> c.setTitle(rs.getString(i)))
+            .column("CdID", (rs, i, c) -> c.setCdID(rs.getInt(i)))
+            .column("ProductionID", (rs, i, c) -> c.setProductionID(rs.getInt(i)))
+            .build();
+
+    static final String COLUMNS = MAPPING.getColumns();
+
+    private static final Map<String, CastingDTO.Category> DB_TO_CATEGORY =
+            DbEnums.lookup(CastingDTO.Category.class, CastingDAO::mapCategoryToDb);
+
     private final DataSource dataSource;
 
+    private final BatchWriter<CastingDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO Casting (Location, Category, Description, PublishDate, DeadLine, Title, CdID, ProductionID) VALUES", 8,
+            this::setStatementParameters,
+            "UPDATE Casting SET Location=?, Category=?, Description=?, PublishDate=?, DeadLine=?, Title=?, CdID=?, ProductionID=? WHERE CastingID=?",
+            (ps, index, casting) -> {
+                index = setStatementParameters(ps, index, casting);
+                ps.setInt(index++, casting.getCastingID());
+                return index;
+            },
+            CastingDTO::getCastingID, CastingDTO::setCastingID);
+
     public CastingDAO(DataSource dataSource) {
         this.dataSource = Objects.requireNonNull(dataSource, "DataSource cannot be null");
     }
@@ -43,15 +76,7 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
      */
     @Override
     public void save(CastingDTO casting) throws SQLException {
-        if (casting == null || casting.getLocation() == null || casting.getLocation().trim().isEmpty() ||
-                casting.getCategory() == null || casting.getDescription() == null ||
-                casting.getDescription().trim().isEmpty() || casting.getPublishDate() == null ||
-                casting.getDeadline() == null || casting.getTitle() == null || casting.getTitle().trim().isEmpty()) {
-            throw new IllegalArgumentException("CastingDTO cannot be null");
-        }
-        if (casting.getCdID() <= 0 || casting.getProductionID() <= 0) {
-            throw new IllegalArgumentException("Casting must be linked to a valid Casting Director and Production.");
-        }
+        validate(casting);
 
         String sql;
         if (casting.getCastingID() == 0) {
@@ -60,7 +85,7 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-                setStatementParameters(ps, casting);
+                setStatementParameters(ps, 1, casting);
 
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -81,7 +106,7 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql)) {
 
-                setStatementParameters(ps, casting);
+                setStatementParameters(ps, 1, casting);
                 ps.setInt(9, casting.getCastingID());
 
                 ps.executeUpdate();
@@ -89,6 +114,25 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
         }
     }
 
+    /**
+     * Persists a collection of castings in a single transaction.
+     * <p>
+     * New castings are inserted with multi-row INSERT statements and receive their generated IDs;
+     * existing ones are updated through a JDBC batch. Either all of them are saved or none is.
+     * </p>
+     *
+     * @param castings the castings to save.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public void saveAll(Collection<CastingDTO> castings, int chunkSize) throws SQLException {
+        for (CastingDTO casting : castings) {
+            validate(casting);
+        }
+        batchWriter.saveAll(dataSource, castings, chunkSize);
+    }
+
     /**
      * Deletes a casting by its ID.
      *
@@ -121,13 +165,13 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
     public CastingDTO getByID(Integer castingID) throws SQLException {
         if (castingID == null || castingID <= 0) return null;
 
-        String sql = "SELECT * FROM Casting WHERE CastingID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Casting WHERE CastingID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, castingID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractCastingFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -144,7 +188,7 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
     public Collection<CastingDTO> getByProductionID(Integer productionID) throws SQLException {
         if (productionID == null || productionID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Casting WHERE ProductionID = ? ORDER BY PublishDate DESC";
+        String sql = "SELECT " + COLUMNS + " FROM Casting WHERE ProductionID = ? ORDER BY PublishDate DESC";
         Collection<CastingDTO> list = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -152,13 +196,30 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
             ps.setInt(1, productionID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(extractCastingFromResultSet(rs));
+                    list.add(MAPPING.map(rs));
                 }
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of the castings associated with a specific Production,
+     * most recently published first.
+     *
+     * @param productionID the ID of the production.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of castings to return.
+     * @return a page of castings.
+     * @throws SQLException if a database error occurs.
+     */
+    public Page<CastingDTO> getByProductionID(Integer productionID, String afterKey, int limit) throws SQLException {
+        if (productionID == null || productionID <= 0) return Page.empty();
+
+        return Keyset.fixed("PublishDate DESC", "CastingID").fetch(dataSource, "SELECT " + COLUMNS + " FROM Casting",
+                "ProductionID = ?", new Object[]{productionID}, afterKey, limit, MAPPING);
+    }
+
     /**
      * Retrieves all castings managed by a specific Casting Director.
      *
@@ -169,7 +230,7 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
     public Collection<CastingDTO> getByCdID(Integer cdID) throws SQLException {
         if (cdID == null || cdID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Casting WHERE CdID = ? ORDER BY PublishDate DESC";
+        String sql = "SELECT " + COLUMNS + " FROM Casting WHERE CdID = ? ORDER BY PublishDate DESC";
         Collection<CastingDTO> list = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -177,13 +238,30 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
             ps.setInt(1, cdID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(extractCastingFromResultSet(rs));
+                    list.add(MAPPING.map(rs));
                 }
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of the castings managed by a specific Casting Director,
+     * most recently published first.
+     *
+     * @param cdID the ID of the casting director.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of castings to return.
+     * @return a page of castings.
+     * @throws SQLException if a database error occurs.
+     */
+    public Page<CastingDTO> getByCdID(Integer cdID, String afterKey, int limit) throws SQLException {
+        if (cdID == null || cdID <= 0) return Page.empty();
+
+        return Keyset.fixed("PublishDate DESC", "CastingID").fetch(dataSource, "SELECT " + COLUMNS + " FROM Casting",
+                "CdID = ?", new Object[]{cdID}, afterKey, limit, MAPPING);
+    }
+
     /**
      * Retrieves all castings in the system.
      *
@@ -194,82 +272,97 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
     @Override
     public Collection<CastingDTO> getAll(String order) throws SQLException {
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
-        String sql = "SELECT * FROM Casting ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM Casting ORDER BY " + actualOrder;
 
         Collection<CastingDTO> list = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(extractCastingFromResultSet(rs));
+                list.add(MAPPING.map(rs));
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of castings.
+     *
+     * @param order the column to sort by.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of castings to return.
+     * @return a page of castings.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Page<CastingDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, ALLOWED_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "CastingID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM Casting", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all castings using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of castings.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<CastingDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM Casting ORDER BY " + actualOrder, MAPPING);
+    }
+
     // --- Helper Methods ---
 
-    private void setStatementParameters(PreparedStatement ps, CastingDTO casting) throws SQLException {
-        ps.setString(1, casting.getLocation());
+    private void validate(CastingDTO casting) {
+        if (casting == null || casting.getLocation() == null || casting.getLocation().trim().isEmpty() ||
+                casting.getCategory() == null || casting.getDescription() == null ||
+                casting.getDescription().trim().isEmpty() || casting.getPublishDate() == null ||
+                casting.getDeadline() == null || casting.getTitle() == null || casting.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("CastingDTO cannot be null");
+        }
+        if (casting.getCdID() <= 0 || casting.getProductionID() <= 0) {
+            throw new IllegalArgumentException("Casting must be linked to a valid Casting Director and Production.");
+        }
+    }
+
+    private int setStatementParameters(PreparedStatement ps, int index, CastingDTO casting) throws SQLException {
+        ps.setString(index++, casting.getLocation());
 
         if (casting.getCategory() != null) {
-            ps.setString(2, mapCategoryToDb(casting.getCategory()));
+            ps.setString(index++, mapCategoryToDb(casting.getCategory()));
         } else {
-            ps.setNull(2, Types.VARCHAR);
+            ps.setNull(index++, Types.VARCHAR);
         }
 
-        ps.setString(3, casting.getDescription());
+        ps.setString(index++, casting.getDescription());
 
         // Handle PublishDate
         if (casting.getPublishDate() != null) {
-            ps.setTimestamp(4, Timestamp.valueOf(casting.getPublishDate()));
+            ps.setObject(index++, casting.getPublishDate());
         } else {
-            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setObject(index++, LocalDateTime.now());
         }
 
         // Handle DeadLine
         if (casting.getDeadline() != null) {
-            ps.setTimestamp(5, Timestamp.valueOf(casting.getDeadline()));
+            ps.setObject(index++, casting.getDeadline());
         } else {
-            ps.setNull(5, Types.DATE);
-        }
-
-        ps.setString(6, casting.getTitle());
-        ps.setInt(7, casting.getCdID());
-        ps.setInt(8, casting.getProductionID());
-    }
-
-    private CastingDTO extractCastingFromResultSet(ResultSet rs) throws SQLException {
-        CastingDTO c = new CastingDTO();
-        c.setCastingID(rs.getInt("CastingID"));
-        c.setLocation(rs.getString("Location"));
-
-        String catStr = rs.getString("Category");
-        if (catStr != null) {
-            c.setCategory(mapDbToCategory(catStr));
-        }
-
-        c.setDescription(rs.getString("Description"));
-
-        Timestamp ts = rs.getTimestamp("PublishDate");
-        if (ts != null) {
-            c.setPublishDate(ts.toLocalDateTime());
+            ps.setNull(index++, Types.DATE);
         }
 
-        Timestamp ts2 = rs.getTimestamp("DeadLine");
-        if (ts != null) {
-            c.setDeadline(ts.toLocalDateTime());
-        }
-
-        c.setTitle(rs.getString("Title"));
-        c.setCdID(rs.getInt("CdID"));
-        c.setProductionID(rs.getInt("ProductionID"));
-
-        return c;
+        ps.setString(index++, casting.getTitle());
+        ps.setInt(index++, casting.getCdID());
+        ps.setInt(index++, casting.getProductionID());
+        return index;
     }
 
     // Mapping Logic for Categories (reused from PerformerDAO logic)
-    private String mapCategoryToDb(CastingDTO.Category category) {
+    static String mapCategoryToDb(CastingDTO.Category category) {
         switch (category) {
             case Attore_Attrice: return "Attore/Attrice";
             case Doppiatore_trice: return "Doppiatore/trice";
@@ -277,16 +370,7 @@ public class CastingDAO implements GenericDAO<CastingDTO, Integer> {
         }
     }
 
-    private CastingDTO.Category mapDbToCategory(String dbValue) {
-        switch (dbValue) {
-            case "Attore/Attrice": return CastingDTO.Category.Attore_Attrice;
-            case "Doppiatore/trice": return CastingDTO.Category.Doppiatore_trice;
-            default:
-                try {
-                    return CastingDTO.Category.valueOf(dbValue);
-                } catch (IllegalArgumentException e) {
-                    return null;
-                }
-        }
+    static CastingDTO.Category mapDbToCategory(String dbValue) {
+        return DB_TO_CATEGORY.get(dbValue);
     }
 }
\ No newline at end of file
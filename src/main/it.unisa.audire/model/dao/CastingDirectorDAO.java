@@ -1,10 +1,12 @@
 package model.dao;
 
+import model.cache.EntityCaches;
 import model.dto.CastingDirectorDTO;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing Casting Director entities.
@@ -22,8 +24,25 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
 
     private static final String DEFAULT_ORDER_COLUMN = "CdID";
 
+    // Columns selected by every query, each with the code that reads it
+    private static final RowMapping<CastingDirectorDTO> MAPPING = RowMapping.of(CastingDirectorDTO::new)
+            .column("CdID", (rs, i, cd) -> cd.setCdID(rs.getInt(i)))
+            .column("UserID", (rs, i, cd) -> cd.setUserID(rs.getInt(i)))
+            .build();
+
+    private static final String COLUMNS = MAPPING.getColumns();
+
     private final DataSource dataSource;
 
+    private final BatchWriter<CastingDirectorDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO Casting_Director (UserID) VALUES", 1,
+            (ps, index, cd) -> {
+                ps.setInt(index++, cd.getUserID());
+                return index;
+            },
+            null, null,
+            CastingDirectorDTO::getCdID, CastingDirectorDTO::setCdID);
+
     /**
      * Constructs a new {@code CastingDirectorDAO} with the specified DataSource.
      *
@@ -46,12 +65,7 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
      */
     @Override
     public void save(CastingDirectorDTO cd) throws SQLException {
-        if (cd == null) {
-            throw new IllegalArgumentException("CastingDirectorDTO cannot be null");
-        }
-        if (cd.getUserID() <= 0) {
-            throw new IllegalArgumentException("A valid UserID is required to create a Casting Director profile.");
-        }
+        validate(cd);
 
         String sql;
         if (cd.getCdID() == 0) {
@@ -76,6 +90,32 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
                 }
             }
         }
+        int userID = cd.getUserID();
+        UnitOfWork.invalidate(dataSource, () -> EntityCaches.castingDirectorsByUserID().invalidate(userID));
+    }
+
+    /**
+     * Persists a collection of casting director profiles in a single multi-row INSERT per chunk.
+     * <p>
+     * Profiles are never updated, so entries with an ID other than 0 are skipped.
+     * New profiles receive their generated IDs; either all of them are saved or none is.
+     * </p>
+     *
+     * @param cds the DTO objects to save.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if any DTO is null or has an invalid UserID.
+     */
+    @Override
+    public void saveAll(Collection<CastingDirectorDTO> cds, int chunkSize) throws SQLException {
+        for (CastingDirectorDTO cd : cds) {
+            validate(cd);
+        }
+        batchWriter.saveAll(dataSource, cds, chunkSize);
+        for (CastingDirectorDTO cd : cds) {
+            int userID = cd.getUserID();
+            UnitOfWork.invalidate(dataSource, () -> EntityCaches.castingDirectorsByUserID().invalidate(userID));
+        }
     }
 
     /**
@@ -99,7 +139,9 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, cdID);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            UnitOfWork.invalidate(dataSource, () -> EntityCaches.castingDirectorsByUserID().invalidateIf(profile -> profile.getCdID() == cdID));
+            return deleted;
         }
     }
 
@@ -114,14 +156,14 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
     public CastingDirectorDTO getByID(Integer cdID) throws SQLException {
         if (cdID == null || cdID <= 0) return null;
 
-        String sql = "SELECT * FROM Casting_Director WHERE CdID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Casting_Director WHERE CdID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setInt(1, cdID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractCdFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -142,14 +184,22 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
     public CastingDirectorDTO getByUserID(Integer userID) throws SQLException {
         if (userID == null || userID <= 0) return null;
 
-        String sql = "SELECT * FROM Casting_Director WHERE UserID = ?";
+        if (UnitOfWork.isTransactional(dataSource)) {
+            // Uncommitted rows must not reach the shared cache
+            return loadByUserID(userID);
+        }
+        return copyOf(EntityCaches.castingDirectorsByUserID().get(userID, this::loadByUserID));
+    }
+
+    private CastingDirectorDTO loadByUserID(Integer userID) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Casting_Director WHERE UserID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setInt(1, userID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractCdFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -166,25 +216,62 @@ public class CastingDirectorDAO implements GenericDAO<CastingDirectorDTO, Intege
     @Override
     public Collection<CastingDirectorDTO> getAll(String order) throws SQLException {
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
-        String sql = "SELECT * FROM Casting_Director ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM Casting_Director ORDER BY " + actualOrder;
 
         Collection<CastingDirectorDTO> list = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(extractCdFromResultSet(rs));
+                list.add(MAPPING.map(rs));
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of Casting Director profiles.
+     *
+     * @param order the column to sort by.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of profiles to return.
+     * @return a page of Casting Director profiles.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Page<CastingDirectorDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, ALLOWED_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "CdID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM Casting_Director", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all Casting Director profiles using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of Casting Director profiles.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<CastingDirectorDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM Casting_Director ORDER BY " + actualOrder, MAPPING);
+    }
+
     // --- Helper Methods ---
 
-    private CastingDirectorDTO extractCdFromResultSet(ResultSet rs) throws SQLException {
-        CastingDirectorDTO cd = new CastingDirectorDTO();
-        cd.setCdID(rs.getInt("CdID"));
-        cd.setUserID(rs.getInt("UserID"));
-        return cd;
+    private void validate(CastingDirectorDTO cd) {
+        if (cd == null) {
+            throw new IllegalArgumentException("CastingDirectorDTO cannot be null");
+        }
+        if (cd.getUserID() <= 0) {
+            throw new IllegalArgumentException("A valid UserID is required to create a Casting Director profile.");
+        }
+    }
+
+    private static CastingDirectorDTO copyOf(CastingDirectorDTO cd) {
+        return cd != null ? new CastingDirectorDTO(cd.getCdID(), cd.getUserID()) : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package model.dao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds the reverse lookup tables used by the DAOs to map MySQL ENUM labels to Java enums.
+ * <p>
+ * The tables are derived from the same DTO-to-DB mapping used when writing, so the two
+ * directions cannot drift apart, and they turn each read into a single hash lookup
+ * instead of string normalisation plus {@link Enum#valueOf(Class, String)}.
+ * </p>
+ */
+final class DbEnums {
+
+    private DbEnums() {}
+
+    /**
+     * @param type the enum class.
+     * @param toDb the mapping from each constant to its database label.
+     * @param <E>  the enum type.
+     * @return an immutable map from database label to enum constant.
+     */
+    static <E extends Enum<E>> Map<String, E> lookup(Class<E> type, Function<E, String> toDb) {
+        E[] constants = type.getEnumConstants();
+        Map<String, E> map = new HashMap<>(constants.length * 2);
+        for (E constant : constants) {
+            map.put(toDb.apply(constant), constant);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -2,12 +2,62 @@ package model.dao;
 
 import java.sql.SQLException;
 import java.util.Collection;
-import java.util.List;
+import java.util.stream.Stream;
 
 public interface GenericDAO<T, ID> {
 
+    /**
+     * Default number of rows written per statement by {@link #saveAll(Collection)}.
+     */
+    int DEFAULT_BATCH_SIZE = 500;
+
     void save(T t) throws SQLException;
+
+    /**
+     * Saves all the given entities in a single transaction, using {@link #DEFAULT_BATCH_SIZE} rows per statement.
+     *
+     * @param items the entities to save; new ones receive their generated IDs.
+     * @throws SQLException if a database error occurs; no entity is persisted in that case.
+     */
+    default void saveAll(Collection<T> items) throws SQLException {
+        saveAll(items, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Saves all the given entities in a single transaction.
+     *
+     * @param items     the entities to save; new ones receive their generated IDs.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database error occurs; no entity is persisted in that case.
+     */
+    void saveAll(Collection<T> items, int chunkSize) throws SQLException;
+
     boolean delete(ID id) throws SQLException;
     T getByID(ID id) throws SQLException;
     Collection<T> getAll(String order) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Retrieves one page of entities using keyset pagination.
+     *
+     * @param order    the column to sort by (same whitelist as {@link #getAll(String)}).
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit    the maximum number of entities to return.
+     * @return the page and its continuation cursor.
+     * @throws SQLException if a database error occurs.
+     */
+    Page<T> getPage(String order, String afterKey, int limit) throws SQLException;
+
+    /**
+     * Streams all entities without materialising them in memory.
+     * <p>
+     * The returned stream holds a database connection until it is closed or fully consumed,
+     * so it must be used in a try-with-resources block. On MySQL no other statement can run
+     * on that connection while the stream is open.
+     * </p>
+     *
+     * @param order the column to sort by (same whitelist as {@link #getAll(String)}).
+     * @return a stream over all entities.
+     * @throws SQLException if the query cannot be executed.
+     */
+    Stream<T> stream(String order) throws SQLException;
+}
@@ -0,0 +1,234 @@
+package model.dao;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Builds and runs keyset (seek) paginated queries for the DAOs.
+ * <p>
+ * Instead of {@code OFFSET}, each page continues from the last row of the previous one
+ * using a predicate on the sort column, with the primary key as tie-breaker
+ * (e.g. {@code WHERE (SendingDate < ? OR (SendingDate = ? AND ApplicationID < ?))}).
+ * The cost of a page therefore does not grow with its position in the result.
+ * </p>
+ * <p>
+ * The continuation cursor handed to callers is a URL-safe token that encodes
+ * the sort column, the primary key and the sort value of the last row returned.
+ * It is Base64, not encrypted: callers must only allow sort columns whose values may be shown to the client.
+ * </p>
+ */
+final class Keyset {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    private static final char NULL_VALUE = 'N';
+    private static final char INTEGER_VALUE = 'I';
+    private static final char TIMESTAMP_VALUE = 'T';
+    private static final char STRING_VALUE = 'S';
+
+    private final String column;
+    private final boolean descending;
+    private final String keyColumn;
+
+    private Keyset(String column, boolean descending, String keyColumn) {
+        this.column = column;
+        this.descending = descending;
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Creates a keyset ordering from a user-supplied sort column.
+     * <p>
+     * The column must belong to the DAO whitelist, in which case the order is ascending;
+     * otherwise the DAO default order (which may carry a {@code DESC} suffix) is used.
+     * </p>
+     *
+     * @param order          the requested sort column, may be null.
+     * @param allowedColumns the DAO whitelist of sortable columns.
+     * @param defaultOrder   the DAO default order, e.g. {@code "SendingDate DESC"}.
+     * @param keyColumn      the primary key column used as tie-breaker.
+     * @return the keyset ordering.
+     */
+    static Keyset of(String order, List<String> allowedColumns, String defaultOrder, String keyColumn) {
+        if (order != null && allowedColumns.contains(order)) {
+            return new Keyset(order, false, keyColumn);
+        }
+        return fixed(defaultOrder, keyColumn);
+    }
+
+    /**
+     * Creates a keyset ordering from a trusted, hard-coded order clause such as {@code "PublishDate DESC"}.
+     *
+     * @param orderBy   the order clause.
+     * @param keyColumn the primary key column used as tie-breaker.
+     * @return the keyset ordering.
+     */
+    static Keyset fixed(String orderBy, String keyColumn) {
+        String[] parts = orderBy.trim().split("\\s+");
+        boolean desc = parts.length > 1 && parts[1].equalsIgnoreCase("DESC");
+        return new Keyset(parts[0], desc, keyColumn);
+    }
+
+    /**
+     * Fetches one page of rows.
+     *
+     * @param dataSource   the DataSource to query.
+     * @param select       the {@code SELECT ... FROM table} part of the query, without WHERE/ORDER BY.
+     * @param filter       an optional extra predicate (e.g. {@code "ProductionID = ?"}), may be null.
+     * @param filterParams the parameters bound to {@code filter}, in order.
+     * @param afterKey     the cursor returned by the previous page, or null for the first page.
+     * @param limit        the maximum number of rows, between 1 and {@value #MAX_PAGE_SIZE}.
+     * @param mapper       maps each row to a DTO.
+     * @param <T>          the DTO type.
+     * @return the page, with a continuation cursor if more rows are available.
+     * @throws SQLException             if a database error occurs.
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid.
+     */
+    <T> Page<T> fetch(DataSource dataSource, String select, String filter, Object[] filterParams,
+                      String afterKey, int limit, RowMapper<T> mapper) throws SQLException {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Cursor cursor = (afterKey != null && !afterKey.isEmpty()) ? decode(afterKey) : null;
+
+        StringBuilder sql = new StringBuilder(select);
+        List<String> conditions = new ArrayList<>(2);
+        if (filter != null) conditions.add(filter);
+        if (cursor != null) conditions.add(predicate(cursor));
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(orderBy()).append(" LIMIT ?");
+
+        List<T> items = new ArrayList<>(Math.min(limit, 64));
+        String nextCursor = null;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            if (filterParams != null) {
+                for (Object param : filterParams) {
+                    ps.setObject(index++, param);
+                }
+            }
+            if (cursor != null) {
+                index = bindPredicate(ps, index, cursor);
+            }
+            // One extra row tells us whether a further page exists
+            ps.setInt(index, limit + 1);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                Cursor last = null;
+                while (rs.next()) {
+                    if (items.size() == limit) {
+                        nextCursor = encode(last);
+                        break;
+                    }
+                    if (items.size() == limit - 1) {
+                        last = cursorFor(rs);
+                    }
+                    items.add(mapper.map(rs));
+                }
+            }
+        }
+        return new Page<>(items, nextCursor);
+    }
+
+    // --- Helper Methods ---
+
+    private String orderBy() {
+        String direction = descending ? " DESC" : "";
+        if (column.equalsIgnoreCase(keyColumn)) {
+            return keyColumn + direction;
+        }
+        return column + direction + ", " + keyColumn + direction;
+    }
+
+    private String predicate(Cursor cursor) {
+        String cmp = descending ? "<" : ">";
+        if (column.equalsIgnoreCase(keyColumn)) {
+            return keyColumn + " " + cmp + " ?";
+        }
+        // MySQL sorts NULLs first in ascending order and last in descending order
+        if (cursor.type == NULL_VALUE) {
+            return descending
+                    ? "(" + column + " IS NULL AND " + keyColumn + " < ?)"
+                    : "((" + column + " IS NULL AND " + keyColumn + " > ?) OR " + column + " IS NOT NULL)";
+        }
+        String seek = "(" + column + " " + cmp + " ? OR (" + column + " = ? AND " + keyColumn + " " + cmp + " ?)";
+        return descending ? seek + " OR " + column + " IS NULL)" : seek + ")";
+    }
+
+    private int bindPredicate(PreparedStatement ps, int index, Cursor cursor) throws SQLException {
+        if (!column.equalsIgnoreCase(keyColumn) && cursor.type != NULL_VALUE) {
+            bindValue(ps, index++, cursor);
+            bindValue(ps, index++, cursor);
+        }
+        ps.setInt(index++, cursor.key);
+        return index;
+    }
+
+    private void bindValue(PreparedStatement ps, int index, Cursor cursor) throws SQLException {
+        switch (cursor.type) {
+            case INTEGER_VALUE: ps.setLong(index, Long.parseLong(cursor.value)); break;
+            case TIMESTAMP_VALUE: ps.setTimestamp(index, Timestamp.valueOf(LocalDateTime.parse(cursor.value))); break;
+            default: ps.setString(index, cursor.value);
+        }
+    }
+
+    private Cursor cursorFor(ResultSet rs) throws SQLException {
+        int key = rs.getInt(keyColumn);
+        if (column.equalsIgnoreCase(keyColumn)) {
+            return new Cursor(key, INTEGER_VALUE, String.valueOf(key));
+        }
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return new Cursor(key, NULL_VALUE, "");
+        } else if (value instanceof Number) {
+            return new Cursor(key, INTEGER_VALUE, String.valueOf(((Number) value).longValue()));
+        } else if (value instanceof LocalDateTime) {
+            return new Cursor(key, TIMESTAMP_VALUE, value.toString());
+        } else if (value instanceof Timestamp) {
+            return new Cursor(key, TIMESTAMP_VALUE, ((Timestamp) value).toLocalDateTime().toString());
+        }
+        return new Cursor(key, STRING_VALUE, value.toString());
+    }
+
+    private String encode(Cursor cursor) {
+        String raw = orderBy() + "\n" + cursor.key + "\n" + cursor.type + cursor.value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+            if (parts.length != 3 || !parts[0].equals(orderBy()) || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Page cursor does not match the requested order");
+            }
+            return new Cursor(Integer.parseInt(parts[1]), parts[2].charAt(0), parts[2].substring(1));
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    private static final class Cursor {
+        private final int key;
+        private final char type;
+        private final String value;
+
+        private Cursor(int key, char type, String value) {
+            this.key = key;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
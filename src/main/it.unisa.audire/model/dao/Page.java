@@ -0,0 +1,56 @@
+package model.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of results returned by a keyset-paginated DAO query.
+ * <p>
+ * The {@code nextCursor} is an opaque token: callers pass it back unchanged as the
+ * {@code afterKey} argument to obtain the following page. It is {@code null} when
+ * there are no further rows.
+ * </p>
+ *
+ * @param <T> the type of the DTOs contained in the page.
+ */
+public class Page<T> implements Serializable {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns an empty, final page.
+     *
+     * @param <T> the type of the DTOs.
+     * @return a page with no items and no continuation cursor.
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -3,8 +3,12 @@ package model.dao;
 import model.dto.PerformerDTO;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing Performer entities.
@@ -13,6 +17,10 @@ import java.util.*;
  * It implements the CRUD (Create, Read, Update, Delete) operations and manages
  * the mapping between the relational database schema and the Java object model.
  * </p>
+ * <p>
+ * The CV BLOB is never part of the default column list: queries only return its size,
+ * and the content is streamed on demand through {@link #writeCv(Integer, OutputStream)}.
+ * </p>
  *
  */
 public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
@@ -23,8 +31,47 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
 
     private static final String DEFAULT_ORDER_COLUMN = "PerformerID";
 
+    private static final Map<String, PerformerDTO.Category> DB_TO_CATEGORY =
+            DbEnums.lookup(PerformerDTO.Category.class, PerformerDAO::mapCategoryToDb);
+
+    private static final Map<String, PerformerDTO.Gender> DB_TO_GENDER =
+            DbEnums.lookup(PerformerDTO.Gender.class, PerformerDTO.Gender::name);
+
+    // Every column except CV_Data, whose size and hash are kept in the generated CV_Size and CV_Hash columns
+    static final RowMapping<PerformerDTO> MAPPING = RowMapping.of(PerformerDTO::new)
+            .column("PerformerID", (rs, i, p) -> p.setPerformerID(rs.getInt(i)))
+            .column("Gender", (rs, i, p) -> {
+                String gender = rs.getString(i);
+                if (gender != null) p.setGender(DB_TO_GENDER.get(gender));
+            })
+            .column("Category", (rs, i, p) -> {
+                // DB "Attore/Attrice" -> DTO "Attore_Attrice"
+                String category = rs.getString(i);
+                if (category != null) p.setCategory(mapDbToCategory(category));
+            })
+            .column("Description", (rs, i, p) -> p.setDescription(rs.getString(i)))
+            .column("CV_Size", (rs, i, p) -> p.setCvSize(rs.getLong(i)))
+            .column("CV_MimeType", (rs, i, p) -> p.setCvMimeType(rs.getString(i)))
+            .column("ProfilePhoto", (rs, i, p) -> p.setProfilePhoto(rs.getString(i)))
+            .column("UserID", (rs, i, p) -> p.setUserID(rs.getInt(i)))
+            .column("CV_Hash", (rs, i, p) -> p.setCvHash(rs.getString(i)))
+            .build();
+
+    static final String COLUMNS = MAPPING.getColumns();
+
     private final DataSource dataSource;
 
+    private final BatchWriter<PerformerDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO Performer (Gender, Category, Description, CV_Data, CV_MimeType, ProfilePhoto, UserID) VALUES", 7,
+            (ps, index, performer) -> setStatementParameters(ps, index, performer, true),
+            "UPDATE Performer SET Gender=?, Category=?, Description=?, ProfilePhoto=?, UserID=? WHERE PerformerID=?",
+            (ps, index, performer) -> {
+                index = setStatementParameters(ps, index, performer, false);
+                ps.setInt(index++, performer.getPerformerID());
+                return index;
+            },
+            PerformerDTO::getPerformerID, PerformerDTO::setPerformerID);
+
     /**
      * Constructs a new PerformerDAO with the specified DataSource.
      *
@@ -43,6 +90,8 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
      * <li>If {@code performerID} is 0, a new record is created (INSERT), and the generated ID is set on the DTO.</li>
      * <li>If {@code performerID} is greater than 0, the existing record is updated (UPDATE).</li>
      * </ul>
+     * The CV is written only when {@link PerformerDTO#getCvStream()} is set, streaming it through
+     * {@code setBinaryStream}; otherwise an UPDATE leaves the stored CV untouched.
      * </p>
      *
      * @param performer the PerformerDTO object to save.
@@ -50,15 +99,7 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
      * @throws IllegalArgumentException if the performer is null, lacks a valid UserID, or has missing mandatory fields.
      */
     public void save(PerformerDTO performer) throws SQLException {
-        if (performer == null || performer.getGender() == null || performer.getCategory() == null ||
-                performer.getDescription() == null || performer.getDescription().trim().isEmpty() ||
-                performer.getProfilePhoto() == null || performer.getProfilePhoto().trim().isEmpty()) {
-            throw new IllegalArgumentException("Performer cannot be null and must have valid Gender, Category, Description, and Photo.");
-        }
-
-        if (performer.getUserID() <= 0) {
-            throw new IllegalArgumentException("Performer must be associated with a valid UserID");
-        }
+        validate(performer);
 
         String sql;
 
@@ -68,7 +109,7 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-                setStatementParameters(ps, performer);
+                setStatementParameters(ps, 1, performer, true);
 
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -85,18 +126,41 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
             }
         } else {
             // UPDATE
-            sql = "UPDATE Performer SET Gender=?, Category=?, Description=?, CV_Data=?, CV_MimeType=?, ProfilePhoto=?, UserID=? WHERE PerformerID=?";
+            boolean withCv = performer.getCvStream() != null;
+            sql = withCv
+                    ? "UPDATE Performer SET Gender=?, Category=?, Description=?, CV_Data=?, CV_MimeType=?, ProfilePhoto=?, UserID=? WHERE PerformerID=?"
+                    : "UPDATE Performer SET Gender=?, Category=?, Description=?, ProfilePhoto=?, UserID=? WHERE PerformerID=?";
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql)) {
 
-                setStatementParameters(ps, performer);
-                ps.setInt(8, performer.getPerformerID());
+                int index = setStatementParameters(ps, 1, performer, withCv);
+                ps.setInt(index, performer.getPerformerID());
 
                 ps.executeUpdate();
             }
         }
     }
 
+    /**
+     * Persists a collection of performers in a single transaction.
+     * <p>
+     * New performers are inserted with multi-row INSERT statements, including their CV stream if set,
+     * and receive their generated IDs. Existing performers are updated through a JDBC batch that
+     * leaves the stored CV untouched; use {@link #save(PerformerDTO)} to replace a CV.
+     * Either all of them are saved or none is.
+     * </p>
+     *
+     * @param performers the performers to save.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void saveAll(Collection<PerformerDTO> performers, int chunkSize) throws SQLException {
+        for (PerformerDTO performer : performers) {
+            validate(performer);
+        }
+        batchWriter.saveAll(dataSource, performers, chunkSize);
+    }
+
     /**
      * Deletes a performer from the database by their unique ID.
      *
@@ -128,13 +192,13 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
     public PerformerDTO getByID(Integer performerID) throws SQLException {
         if (performerID == null || performerID <= 0) return null;
 
-        String sql = "SELECT * FROM Performer WHERE PerformerID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Performer WHERE PerformerID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, performerID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractPerformerFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -155,13 +219,13 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
     public PerformerDTO getByUserID(Integer userID) throws SQLException {
         if (userID == null || userID <= 0) return null;
 
-        String sql = "SELECT * FROM Performer WHERE UserID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Performer WHERE UserID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, userID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractPerformerFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -178,85 +242,178 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
      */
     public Collection<PerformerDTO> getAll(String order) throws SQLException {
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
-        String sql = "SELECT * FROM Performer ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM Performer ORDER BY " + actualOrder;
 
         Collection<PerformerDTO> list = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(extractPerformerFromResultSet(rs));
+                list.add(MAPPING.map(rs));
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of performers using keyset pagination.
+     *
+     * @param order the column name to sort by. Must be one of: {@code "PerformerID", "Gender", "Category"}.
+     * If null or invalid, defaults to "PerformerID".
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of performers to return.
+     * @return a Page of PerformerDTO objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public Page<PerformerDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, ALLOWED_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "PerformerID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM Performer", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all performers using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of performers.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<PerformerDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM Performer ORDER BY " + actualOrder, MAPPING);
+    }
+
+    /**
+     * Streams the whole CV of a performer to the given output stream.
+     *
+     * @param performerID the ID of the performer.
+     * @param out the destination stream; it is not closed.
+     * @return the number of bytes written, or -1 if the performer does not exist or has no CV.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public long writeCv(Integer performerID, OutputStream out) throws SQLException, IOException {
+        return writeCv(performerID, null, 0, Long.MAX_VALUE, out);
+    }
+
+    /**
+     * Streams a byte range of a performer's CV to the given output stream.
+     * <p>
+     * The range is read by a single {@code SUBSTRING} query and copied from
+     * {@link ResultSet#getBinaryStream(int)}. When {@code cvHash} is given it is checked in the
+     * same WHERE clause, so the bytes always come from the CV the caller prepared its headers for.
+     * </p>
+     * <p>
+     * The range is not split into several queries: InnoDB walks an off-page BLOB from its first
+     * page on every {@code SUBSTRING}, so reading it in slices would cost I/O quadratic in its size.
+     * The driver buffers the whole row before the stream is returned, so memory use is the size of
+     * the range, at most the 10 MB accepted for a CV at registration.
+     * </p>
+     *
+     * @param performerID the ID of the performer.
+     * @param cvHash the expected {@code CV_Hash}, or null to read whatever CV is stored.
+     * @param offset the zero-based offset of the first byte to write.
+     * @param length the maximum number of bytes to write.
+     * @param out the destination stream; it is not closed.
+     * @return the number of bytes written, which is less than {@code length} only when the CV
+     * ends first, or -1 if the performer does not exist, has no CV or its CV does not match
+     * {@code cvHash}.
+     * @throws SQLException if a database access error occurs.
+     * @throws IOException if writing to {@code out} fails.
+     * @throws IllegalArgumentException if {@code performerID} is invalid or the range is negative.
+     */
+    public long writeCv(Integer performerID, String cvHash, long offset, long length, OutputStream out) throws SQLException, IOException {
+        if (performerID == null || performerID <= 0) {
+            throw new IllegalArgumentException("Invalid PerformerID");
+        }
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid CV range");
+        }
+
+        String sql = "SELECT SUBSTRING(CV_Data, ?, ?) FROM Performer WHERE PerformerID = ? AND CV_Data IS NOT NULL"
+                + (cvHash != null ? " AND CV_Hash = ?" : "");
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, offset + 1); // SUBSTRING positions are 1-based
+            ps.setInt(2, (int) Math.min(length, Integer.MAX_VALUE));
+            ps.setInt(3, performerID);
+            if (cvHash != null) {
+                ps.setString(4, cvHash);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    return (in != null) ? in.transferTo(out) : 0;
+                }
+            }
+        }
+    }
+
     // --- Helper Methods ---
 
+    private void validate(PerformerDTO performer) {
+        if (performer == null || performer.getGender() == null || performer.getCategory() == null ||
+                performer.getDescription() == null || performer.getDescription().trim().isEmpty() ||
+                performer.getProfilePhoto() == null || performer.getProfilePhoto().trim().isEmpty()) {
+            throw new IllegalArgumentException("Performer cannot be null and must have valid Gender, Category, Description, and Photo.");
+        }
+
+        if (performer.getUserID() <= 0) {
+            throw new IllegalArgumentException("Performer must be associated with a valid UserID");
+        }
+    }
+
     /**
      * Sets the parameters of the PreparedStatement based on the PerformerDTO.
      * Handles specific mapping for Enums and Nullable fields.
      *
      * @param ps the PreparedStatement to populate.
+     * @param index the index of the first parameter to set.
      * @param performer the DTO containing the data.
+     * @param withCv whether the CV_Data and CV_MimeType parameters are part of the statement.
+     * @return the index of the next parameter.
      * @throws SQLException if parameter setting fails.
      */
-    private void setStatementParameters(PreparedStatement ps, PerformerDTO performer) throws SQLException {
+    private int setStatementParameters(PreparedStatement ps, int index, PerformerDTO performer, boolean withCv) throws SQLException {
         if (performer.getGender() != null) {
-            ps.setString(1, performer.getGender().name());
+            ps.setString(index++, performer.getGender().name());
         } else {
-            ps.setNull(1, Types.CHAR);
+            ps.setNull(index++, Types.CHAR);
         }
 
         // Conversion logic: DTO "Attore_Attrice" -> DB "Attore/Attrice"
         if (performer.getCategory() != null) {
             String dbValue = mapCategoryToDb(performer.getCategory());
-            ps.setString(2, dbValue);
+            ps.setString(index++, dbValue);
         } else {
-            ps.setNull(2, Types.VARCHAR);
+            ps.setNull(index++, Types.VARCHAR);
         }
 
-        ps.setString(3, performer.getDescription());
-        ps.setBytes(4, performer.getCvData());
-        ps.setString(5, performer.getCvMimeType());
-        ps.setString(6, performer.getProfilePhoto());
-        ps.setInt(7, performer.getUserID());
-    }
+        ps.setString(index++, performer.getDescription());
 
-    /**
-     * Extracts a PerformerDTO from the current row of the ResultSet.
-     *
-     * @param rs the ResultSet cursor.
-     * @return a populated PerformerDTO.
-     * @throws SQLException if column access fails.
-     */
-    private PerformerDTO extractPerformerFromResultSet(ResultSet rs) throws SQLException {
-        PerformerDTO p = new PerformerDTO();
-        p.setPerformerID(rs.getInt("PerformerID"));
-
-        // Gender Mapping
-        String genderStr = rs.getString("Gender");
-        if (genderStr != null) {
-            try {
-                p.setGender(PerformerDTO.Gender.valueOf(genderStr));
-            } catch (IllegalArgumentException e) {
-                // Log error or ignore if enum constraint is violated in DB
+        if (withCv) {
+            InputStream cv = performer.getCvStream();
+            if (cv == null) {
+                ps.setNull(index++, Types.BLOB);
+            } else if (performer.getCvSize() > 0) {
+                ps.setBinaryStream(index++, cv, performer.getCvSize());
+            } else {
+                ps.setBinaryStream(index++, cv);
             }
+            ps.setString(index++, performer.getCvMimeType());
         }
 
-        // Category Mapping (DB "Attore/Attrice" -> DTO "Attore_Attrice")
-        String catStr = rs.getString("Category");
-        if (catStr != null) {
-            p.setCategory(mapDbToCategory(catStr));
-        }
-
-        p.setDescription(rs.getString("Description"));
-        p.setCvData(rs.getBytes("CV_Data"));
-        p.setCvMimeType(rs.getString("CV_MimeType"));
-        p.setProfilePhoto(rs.getString("ProfilePhoto"));
-        p.setUserID(rs.getInt("UserID"));
-
-        return p;
+        ps.setString(index++, performer.getProfilePhoto());
+        ps.setInt(index++, performer.getUserID());
+        return index;
     }
 
     /**
@@ -266,7 +423,7 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
      * @param category the Java Enum value.
      * @return the corresponding String value for the Database.
      */
-    private String mapCategoryToDb(PerformerDTO.Category category) {
+    static String mapCategoryToDb(PerformerDTO.Category category) {
         switch (category) {
             case Attore_Attrice: return "Attore/Attrice";
             case Doppiatore_trice: return "Doppiatore/trice";
@@ -281,16 +438,7 @@ public class PerformerDAO implements GenericDAO<PerformerDTO, Integer>{
      * @param dbValue the String value from the Database.
      * @return the corresponding Java Enum value, or null if mapping fails.
      */
-    private PerformerDTO.Category mapDbToCategory(String dbValue) {
-        switch (dbValue) {
-            case "Attore/Attrice": return PerformerDTO.Category.Attore_Attrice;
-            case "Doppiatore/trice": return PerformerDTO.Category.Doppiatore_trice;
-            default:
-                try {
-                    return PerformerDTO.Category.valueOf(dbValue);
-                } catch (IllegalArgumentException e) {
-                    return null;
-                }
-        }
+    static PerformerDTO.Category mapDbToCategory(String dbValue) {
+        return DB_TO_CATEGORY.get(dbValue);
     }
 }
\ No newline at end of file
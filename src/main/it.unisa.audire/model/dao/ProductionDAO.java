@@ -6,6 +6,7 @@ import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing ProductionDTO entities.
@@ -23,8 +24,36 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
 
     private static final String DEFAULT_ORDER_COLUMN = "ProductionID";
 
+    private static final Map<String, ProductionDTO.Type> DB_TO_TYPE =
+            DbEnums.lookup(ProductionDTO.Type.class, ProductionDAO::mapTypeToDb);
+
+    // Columns selected by every query, each with the code that reads it
+    private static final RowMapping<ProductionDTO> MAPPING = RowMapping.of(ProductionDTO::new)
+            .column("ProductionID", (rs, i, p) -> p.setProductionID(rs.getInt(i)))
+            .column("Title", (rs, i, p) -> p.setTitle(rs.getString(i)))
+            .column("Type", (rs, i, p) -> {
+                String type = rs.getString(i);
+                if (type != null) p.setType(mapDbToType(type));
+            })
+            .column("CreationDate", (rs, i, p) -> p.setCreationDate(rs.getObject(i, LocalDateTime.class)))
+            .column("PmID", (rs, i, p) -> p.setPmID(rs.getInt(i)))
+            .build();
+
+    private static final String COLUMNS = MAPPING.getColumns();
+
     private final DataSource dataSource;
 
+    private final BatchWriter<ProductionDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO Production (Title, Type, CreationDate, PmID) VALUES", 4,
+            this::setStatementParameters,
+            "UPDATE Production SET Title=?, Type=?, CreationDate=?, PmID=? WHERE ProductionID=?",
+            (ps, index, production) -> {
+                index = setStatementParameters(ps, index, production);
+                ps.setInt(index++, production.getProductionID());
+                return index;
+            },
+            ProductionDTO::getProductionID, ProductionDTO::setProductionID);
+
     /**
      * Constructs a new {@code ProductionDAO}.
      *
@@ -46,13 +75,7 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
      */
     @Override
     public void save(ProductionDTO production) throws SQLException {
-        if (production == null || production.getTitle() == null || production.getTitle().trim().isEmpty() ||
-                production.getType() == null || production.getCreationDate() == null ) {
-            throw new IllegalArgumentException("ProductionDTO cannot be null");
-        }
-        if (production.getPmID() <= 0) {
-            throw new IllegalArgumentException("A Production must be assigned to a valid Production Manager (PmID).");
-        }
+        validate(production);
 
         String sql;
         if (production.getProductionID() == 0) {
@@ -61,7 +84,7 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-                setStatementParameters(ps, production);
+                setStatementParameters(ps, 1, production);
 
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -82,7 +105,7 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql)) {
 
-                setStatementParameters(ps, production);
+                setStatementParameters(ps, 1, production);
                 ps.setInt(5, production.getProductionID());
 
                 ps.executeUpdate();
@@ -90,6 +113,25 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
         }
     }
 
+    /**
+     * Persists a collection of productions in a single transaction.
+     * <p>
+     * New productions are inserted with multi-row INSERT statements and receive their generated IDs;
+     * existing ones are updated through a JDBC batch. Either all of them are saved or none is.
+     * </p>
+     *
+     * @param productions the productions to save.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public void saveAll(Collection<ProductionDTO> productions, int chunkSize) throws SQLException {
+        for (ProductionDTO production : productions) {
+            validate(production);
+        }
+        batchWriter.saveAll(dataSource, productions, chunkSize);
+    }
+
     /**
      * Deletes a production by its ID.
      * <p>
@@ -115,6 +157,65 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
         }
     }
 
+    /**
+     * Deletes a production only if it belongs to the given Production Manager.
+     * <p>
+     * The ownership check and the delete run as a single statement, so there is no window
+     * between checking and deleting in which the production could change hands.
+     * </p>
+     *
+     * @param productionID the ID of the production to delete.
+     * @param pmID the ID of the Production Manager who must own it.
+     * @return true if deleted, false if the production does not exist or is owned by someone else.
+     * @throws SQLException if a database error occurs.
+     */
+    public boolean deleteOwnedBy(Integer productionID, Integer pmID) throws SQLException {
+        if (productionID == null || productionID <= 0 || pmID == null || pmID <= 0) {
+            throw new IllegalArgumentException("Invalid ProductionID or PmID");
+        }
+
+        String sql = "DELETE FROM Production WHERE ProductionID = ? AND PmID = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, productionID);
+            ps.setInt(2, pmID);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Updates the title and type of a production only if it belongs to the given Production Manager.
+     * <p>
+     * The ownership check and the update run as a single statement. The creation date and the
+     * owner are never modified. Connector/J reports matched rows by default, so an update that
+     * leaves the values unchanged still returns true.
+     * </p>
+     *
+     * @param production the production to update, identified by its ID.
+     * @param pmID the ID of the Production Manager who must own it.
+     * @return true if updated, false if the production does not exist or is owned by someone else.
+     * @throws SQLException if a database error occurs.
+     */
+    public boolean updateOwnedBy(ProductionDTO production, Integer pmID) throws SQLException {
+        if (production == null || production.getProductionID() <= 0 || production.getTitle() == null ||
+                production.getTitle().trim().isEmpty() || production.getType() == null) {
+            throw new IllegalArgumentException("ProductionDTO must have a valid ID, Title and Type");
+        }
+        if (pmID == null || pmID <= 0) {
+            throw new IllegalArgumentException("Invalid PmID");
+        }
+
+        String sql = "UPDATE Production SET Title = ?, Type = ? WHERE ProductionID = ? AND PmID = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, production.getTitle());
+            ps.setString(2, mapTypeToDb(production.getType()));
+            ps.setInt(3, production.getProductionID());
+            ps.setInt(4, pmID);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
     /**
      * Retrieves a production by its unique ID.
      *
@@ -126,13 +227,13 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
     public ProductionDTO getByID(Integer productionID) throws SQLException {
         if (productionID == null || productionID <= 0) return null;
 
-        String sql = "SELECT * FROM Production WHERE ProductionID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Production WHERE ProductionID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, productionID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractProductionFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -149,7 +250,7 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
     public Collection<ProductionDTO> getByPmID(Integer pmID) throws SQLException {
         if (pmID == null || pmID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Production WHERE PmID = ? ORDER BY CreationDate DESC";
+        String sql = "SELECT " + COLUMNS + " FROM Production WHERE PmID = ? ORDER BY CreationDate DESC";
         Collection<ProductionDTO> list = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -157,7 +258,7 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
             ps.setInt(1, pmID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    list.add(extractProductionFromResultSet(rs));
+                    list.add(MAPPING.map(rs));
                 }
             }
         }
@@ -174,65 +275,88 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
     @Override
     public Collection<ProductionDTO> getAll(String order) throws SQLException {
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
-        String sql = "SELECT * FROM Production ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM Production ORDER BY " + actualOrder;
 
         Collection<ProductionDTO> list = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(extractProductionFromResultSet(rs));
+                list.add(MAPPING.map(rs));
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of productions.
+     *
+     * @param order the column to sort by.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of productions to return.
+     * @return a page of productions.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Page<ProductionDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, ALLOWED_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "ProductionID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM Production", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all productions using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of productions.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<ProductionDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM Production ORDER BY " + actualOrder, MAPPING);
+    }
+
     // --- Helper Methods ---
 
-    private void setStatementParameters(PreparedStatement ps, ProductionDTO prod) throws SQLException {
-        ps.setString(1, prod.getTitle());
+    private void validate(ProductionDTO production) {
+        if (production == null || production.getTitle() == null || production.getTitle().trim().isEmpty() ||
+                production.getType() == null || production.getCreationDate() == null ) {
+            throw new IllegalArgumentException("ProductionDTO cannot be null");
+        }
+        if (production.getPmID() <= 0) {
+            throw new IllegalArgumentException("A Production must be assigned to a valid Production Manager (PmID).");
+        }
+    }
+
+    private int setStatementParameters(PreparedStatement ps, int index, ProductionDTO prod) throws SQLException {
+        ps.setString(index++, prod.getTitle());
 
         // Handle Enum Mapping (Java Enum -> SQL String)
         if (prod.getType() != null) {
-            ps.setString(2, mapTypeToDb(prod.getType()));
+            ps.setString(index++, mapTypeToDb(prod.getType()));
         } else {
-            ps.setNull(2, Types.VARCHAR);
+            ps.setNull(index++, Types.VARCHAR);
         }
 
         // Handle Date
         if (prod.getCreationDate() != null) {
-            ps.setTimestamp(3, Timestamp.valueOf(prod.getCreationDate()));
+            ps.setObject(index++, prod.getCreationDate());
         } else {
             // Default to current date if missing, or set null
-            ps.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setObject(index++, LocalDateTime.now());
         }
 
-        ps.setInt(4, prod.getPmID());
-    }
-
-    private ProductionDTO extractProductionFromResultSet(ResultSet rs) throws SQLException {
-        ProductionDTO p = new ProductionDTO();
-        p.setProductionID(rs.getInt("ProductionID"));
-        p.setTitle(rs.getString("Title"));
-
-        String typeStr = rs.getString("Type");
-        if (typeStr != null) {
-            p.setType(mapDbToType(typeStr));
-        }
-
-        Timestamp ts = rs.getTimestamp("CreationDate");
-        if (ts != null) {
-            p.setCreationDate(ts.toLocalDateTime());
-        }
-
-        p.setPmID(rs.getInt("PmID"));
-        return p;
+        ps.setInt(index++, prod.getPmID());
+        return index;
     }
 
     /**
      * Maps Java Enum (e.g., Serie_TV) to DB String (e.g., "Serie TV").
      */
-    private String mapTypeToDb(ProductionDTO.Type type) {
+    static String mapTypeToDb(ProductionDTO.Type type) {
         // Assuming Enum values like SERIE_TV, WEB_SERIES needs to become "Serie TV", "Web Series"
         switch (type) {
             case Serie_TV: return "Serie TV";
@@ -245,12 +369,7 @@ public class ProductionDAO implements GenericDAO<ProductionDTO, Integer> {
     /**
      * Maps DB String (e.g., "Serie TV") to Java Enum (e.g., SERIE_TV).
      */
-    private ProductionDTO.Type mapDbToType(String dbValue) {
-        try {
-            String normalized = dbValue.replace(" ", "_");
-            return ProductionDTO.Type.valueOf(normalized);
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
+    static ProductionDTO.Type mapDbToType(String dbValue) {
+        return DB_TO_TYPE.get(dbValue);
     }
 }
\ No newline at end of file
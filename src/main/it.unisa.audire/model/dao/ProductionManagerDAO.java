@@ -1,10 +1,12 @@
 package model.dao;
 
+import model.cache.EntityCaches;
 import model.dto.ProductionManagerDTO;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing Production Manager entities.
@@ -25,8 +27,25 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
 
     private static final String DEFAULT_ORDER_COLUMN = "PmID";
 
+    // Columns selected by every query, each with the code that reads it
+    private static final RowMapping<ProductionManagerDTO> MAPPING = RowMapping.of(ProductionManagerDTO::new)
+            .column("PmID", (rs, i, pm) -> pm.setPmID(rs.getInt(i)))
+            .column("UserID", (rs, i, pm) -> pm.setUserID(rs.getInt(i)))
+            .build();
+
+    private static final String COLUMNS = MAPPING.getColumns();
+
     private final DataSource dataSource;
 
+    private final BatchWriter<ProductionManagerDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO Production_Manager (UserID) VALUES", 1,
+            (ps, index, pm) -> {
+                ps.setInt(index++, pm.getUserID());
+                return index;
+            },
+            null, null,
+            ProductionManagerDTO::getPmID, ProductionManagerDTO::setPmID);
+
     /**
      * Constructs a new {@code ProductionManagerDAO} with the specified DataSource.
      *
@@ -49,12 +68,7 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
      */
     @Override
     public void save(ProductionManagerDTO pm) throws SQLException {
-        if (pm == null) {
-            throw new IllegalArgumentException("ProductionManagerDTO cannot be null");
-        }
-        if (pm.getUserID() <= 0) {
-            throw new IllegalArgumentException("A valid UserID is required to create a Production Manager profile.");
-        }
+        validate(pm);
 
         String sql;
         if (pm.getPmID() == 0) {
@@ -79,6 +93,32 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
                 }
             }
         }
+        int userID = pm.getUserID();
+        UnitOfWork.invalidate(dataSource, () -> EntityCaches.productionManagersByUserID().invalidate(userID));
+    }
+
+    /**
+     * Persists a collection of production manager profiles in a single multi-row INSERT per chunk.
+     * <p>
+     * Profiles are never updated, so entries with an ID other than 0 are skipped.
+     * New profiles receive their generated IDs; either all of them are saved or none is.
+     * </p>
+     *
+     * @param pms the DTO objects to save.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if any DTO is null or has an invalid UserID.
+     */
+    @Override
+    public void saveAll(Collection<ProductionManagerDTO> pms, int chunkSize) throws SQLException {
+        for (ProductionManagerDTO pm : pms) {
+            validate(pm);
+        }
+        batchWriter.saveAll(dataSource, pms, chunkSize);
+        for (ProductionManagerDTO pm : pms) {
+            int userID = pm.getUserID();
+            UnitOfWork.invalidate(dataSource, () -> EntityCaches.productionManagersByUserID().invalidate(userID));
+        }
     }
 
     /**
@@ -102,7 +142,9 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, pmID);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            UnitOfWork.invalidate(dataSource, () -> EntityCaches.productionManagersByUserID().invalidateIf(profile -> profile.getPmID() == pmID));
+            return deleted;
         }
     }
 
@@ -117,14 +159,14 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
     public ProductionManagerDTO getByID(Integer pmID) throws SQLException {
         if (pmID == null || pmID <= 0) return null;
 
-        String sql = "SELECT * FROM Production_Manager WHERE PmID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Production_Manager WHERE PmID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setInt(1, pmID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractPmFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -141,14 +183,22 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
     public ProductionManagerDTO getByUserID(Integer userID) throws SQLException {
         if (userID == null || userID <= 0) return null;
 
-        String sql = "SELECT * FROM Production_Manager WHERE UserID = ?";
+        if (UnitOfWork.isTransactional(dataSource)) {
+            // Uncommitted rows must not reach the shared cache
+            return loadByUserID(userID);
+        }
+        return copyOf(EntityCaches.productionManagersByUserID().get(userID, this::loadByUserID));
+    }
+
+    private ProductionManagerDTO loadByUserID(Integer userID) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM Production_Manager WHERE UserID = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
 
             ps.setInt(1, userID);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractPmFromResultSet(rs);
+                    return MAPPING.map(rs);
                 }
             }
         }
@@ -165,25 +215,62 @@ public class ProductionManagerDAO implements GenericDAO<ProductionManagerDTO, In
     @Override
     public Collection<ProductionManagerDTO> getAll(String order) throws SQLException {
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
-        String sql = "SELECT * FROM Production_Manager ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM Production_Manager ORDER BY " + actualOrder;
 
         Collection<ProductionManagerDTO> list = new ArrayList<>();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                list.add(extractPmFromResultSet(rs));
+                list.add(MAPPING.map(rs));
             }
         }
         return list;
     }
 
+    /**
+     * Retrieves one page of Production Manager profiles.
+     *
+     * @param order the column to sort by.
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of profiles to return.
+     * @return a page of Production Manager profiles.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Page<ProductionManagerDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, ALLOWED_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "PmID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM Production_Manager", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all Production Manager profiles using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of Production Manager profiles.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<ProductionManagerDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM Production_Manager ORDER BY " + actualOrder, MAPPING);
+    }
+
     // --- Helper Methods ---
 
-    private ProductionManagerDTO extractPmFromResultSet(ResultSet rs) throws SQLException {
-        ProductionManagerDTO pm = new ProductionManagerDTO();
-        pm.setPmID(rs.getInt("PmID"));
-        pm.setUserID(rs.getInt("UserID"));
-        return pm;
+    private void validate(ProductionManagerDTO pm) {
+        if (pm == null) {
+            throw new IllegalArgumentException("ProductionManagerDTO cannot be null");
+        }
+        if (pm.getUserID() <= 0) {
+            throw new IllegalArgumentException("A valid UserID is required to create a Production Manager profile.");
+        }
+    }
+
+    private static ProductionManagerDTO copyOf(ProductionManagerDTO pm) {
+        return pm != null ? new ProductionManagerDTO(pm.getPmID(), pm.getUserID()) : null;
     }
 }
\ No newline at end of file
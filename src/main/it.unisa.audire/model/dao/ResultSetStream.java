@@ -0,0 +1,130 @@
+package model.dao;
+
+import javax.sql.DataSource;
+import java.lang.ref.Cleaner;
+import java.sql.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Exposes a query as a lazily evaluated {@link Stream} backed by an open cursor.
+ * <p>
+ * The statement is forward-only and read-only; on MySQL the fetch size is set to
+ * {@link Integer#MIN_VALUE}, which makes Connector/J stream rows one at a time instead of
+ * buffering the whole result, so heap usage does not depend on the number of rows.
+ * </p>
+ * <p>
+ * The connection, statement and result set are released when the stream is closed,
+ * when the last row has been consumed, or, as a safety net, when an abandoned stream
+ * is garbage collected.
+ * </p>
+ */
+final class ResultSetStream {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    // Used for drivers that do not support MySQL's row-by-row streaming mode
+    private static final int PORTABLE_FETCH_SIZE = 500;
+
+    private ResultSetStream() {}
+
+    /**
+     * Executes the query and returns a stream over its rows.
+     *
+     * @param dataSource the DataSource to query.
+     * @param sql        the SQL query.
+     * @param mapper     maps each row to a DTO.
+     * @param params     the parameters bound to the query, in order.
+     * @param <T>        the DTO type.
+     * @return a stream that must be closed by the caller (e.g. try-with-resources).
+     * @throws SQLException if the query cannot be executed.
+     */
+    static <T> Stream<T> open(DataSource dataSource, String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        Resources resources = new Resources();
+        try {
+            resources.connection = dataSource.getConnection();
+            resources.statement = resources.connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+            boolean mysql = "MySQL".equals(resources.connection.getMetaData().getDatabaseProductName());
+            resources.statement.setFetchSize(mysql ? Integer.MIN_VALUE : PORTABLE_FETCH_SIZE);
+
+            for (int i = 0; i < params.length; i++) {
+                resources.statement.setObject(i + 1, params[i]);
+            }
+            resources.resultSet = resources.statement.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            resources.run();
+            throw e;
+        }
+
+        RowSpliterator<T> spliterator = new RowSpliterator<>(resources, mapper);
+        Cleaner.Cleanable cleanable = CLEANER.register(spliterator, resources);
+        spliterator.cleanable = cleanable;
+
+        return StreamSupport.stream(spliterator, false).onClose(cleanable::clean);
+    }
+
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Resources resources;
+        private final RowMapper<T> mapper;
+        private Cleaner.Cleanable cleanable;
+
+        private RowSpliterator(Resources resources, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resources = resources;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (resources.closed.get()) {
+                return false;
+            }
+            try {
+                if (!resources.resultSet.next()) {
+                    // Release the connection as soon as the cursor is exhausted
+                    cleanable.clean();
+                    return false;
+                }
+                action.accept(mapper.map(resources.resultSet));
+                return true;
+            } catch (SQLException e) {
+                cleanable.clean();
+                throw new IllegalStateException("Streaming read failed", e);
+            }
+        }
+    }
+
+    /**
+     * Cleanup action; must not reference the stream or spliterator, otherwise they would never become unreachable.
+     */
+    private static final class Resources implements Runnable {
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private Connection connection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+
+        @Override
+        public void run() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            closeQuietly(connection);
+        }
+
+        private static void closeQuietly(AutoCloseable resource) {
+            if (resource == null) return;
+            try {
+                resource.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package model.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Column list and row mapper of a DTO, generated from a single declaration.
+ * <p>
+ * Each column is declared once, together with the code that reads it. The SELECT list returned by
+ * {@link #getColumns()} is built from the declared names, and each reader is given the position
+ * of its own column, so the query and the mapper cannot disagree on the order. Rows are read with
+ * positional getters only, without reflection or lookups by name.
+ * </p>
+ * <p>
+ * The first result set mapped is checked against the declaration through its
+ * {@link ResultSetMetaData}: a query that does not start with {@link #getColumns()} fails at once
+ * instead of filling the DTOs with the values of other columns.
+ * </p>
+ *
+ * @param <T> the type of the DTO produced.
+ */
+final class RowMapping<T> implements RowMapper<T> {
+
+    /**
+     * Reads one column of the current row into the DTO.
+     */
+    @FunctionalInterface
+    interface ColumnReader<T> {
+        void read(ResultSet rs, int index, T target) throws SQLException;
+    }
+
+    /**
+     * Collects the columns of a {@link RowMapping}, in SELECT order.
+     */
+    static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final List<String> names = new ArrayList<>();
+        private final List<ColumnReader<T>> readers = new ArrayList<>();
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        Builder<T> column(String name, ColumnReader<T> reader) {
+            if (name == null || name.isBlank() || reader == null) {
+                throw new IllegalArgumentException("Column name and reader are required");
+            }
+            names.add(name);
+            readers.add(reader);
+            return this;
+        }
+
+        RowMapping<T> build() {
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("At least one column is required");
+            }
+            return new RowMapping<>(this);
+        }
+    }
+
+    private final Supplier<T> factory;
+    private final String[] names;
+    private final ColumnReader<T>[] readers;
+    private final String columns;
+    private volatile boolean verified;
+
+    @SuppressWarnings("unchecked")
+    private RowMapping(Builder<T> builder) {
+        this.factory = builder.factory;
+        this.names = builder.names.toArray(new String[0]);
+        this.readers = builder.readers.toArray(new ColumnReader[0]);
+        this.columns = String.join(", ", names);
+    }
+
+    static <T> Builder<T> of(Supplier<T> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory is required");
+        }
+        return new Builder<>(factory);
+    }
+
+    /**
+     * @return the declared columns, comma-separated, for the SELECT list.
+     */
+    String getColumns() {
+        return columns;
+    }
+
+    @Override
+    public T map(ResultSet rs) throws SQLException {
+        if (!verified) {
+            verify(rs.getMetaData());
+        }
+        T target = factory.get();
+        for (int i = 0; i < readers.length; i++) {
+            readers[i].read(rs, i + 1, target);
+        }
+        return target;
+    }
+
+    // --- Helper Methods ---
+
+    private void verify(ResultSetMetaData meta) throws SQLException {
+        if (meta.getColumnCount() < names.length) {
+            throw new IllegalStateException("Query returns " + meta.getColumnCount() + " columns, expected " + columns);
+        }
+        for (int i = 0; i < names.length; i++) {
+            String label = meta.getColumnLabel(i + 1);
+            if (!names[i].equalsIgnoreCase(label)) {
+                throw new IllegalStateException("Column " + (i + 1) + " is " + label + ", expected " + names[i] + " (" + columns + ")");
+            }
+        }
+        verified = true;
+    }
+}
@@ -21,6 +21,14 @@ import java.util.*;
  */
 public class TeamDAO {
 
+    // Columns selected by every query, each with the code that reads it
+    private static final RowMapping<TeamDTO> MAPPING = RowMapping.of(TeamDTO::new)
+            .column("ProductionID", (rs, i, team) -> team.setProductionID(rs.getInt(i)))
+            .column("CdID", (rs, i, team) -> team.setCdID(rs.getInt(i)))
+            .build();
+
+    private static final String COLUMNS = MAPPING.getColumns();
+
     private final DataSource dataSource;
 
     /**
@@ -102,7 +110,7 @@ public class TeamDAO {
     public List<TeamDTO> getByProductionID(int productionID) throws SQLException {
         if (productionID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Team WHERE ProductionID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Team WHERE ProductionID = ?";
         List<TeamDTO> teamMembers = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -111,7 +119,7 @@ public class TeamDAO {
             ps.setInt(1, productionID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    teamMembers.add(extractTeamFromResultSet(rs));
+                    teamMembers.add(MAPPING.map(rs));
                 }
             }
         }
@@ -128,7 +136,7 @@ public class TeamDAO {
     public List<TeamDTO> getByCdID(int cdID) throws SQLException {
         if (cdID <= 0) return new ArrayList<>();
 
-        String sql = "SELECT * FROM Team WHERE CdID = ?";
+        String sql = "SELECT " + COLUMNS + " FROM Team WHERE CdID = ?";
         List<TeamDTO> assignments = new ArrayList<>();
 
         try (Connection connection = dataSource.getConnection();
@@ -137,7 +145,7 @@ public class TeamDAO {
             ps.setInt(1, cdID);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    assignments.add(extractTeamFromResultSet(rs));
+                    assignments.add(MAPPING.map(rs));
                 }
             }
         }
@@ -177,7 +185,7 @@ public class TeamDAO {
      * @throws SQLException if a database access error occurs during the query execution.
      */
     public List<UserDTO> getTeamMembers(int productionID) throws SQLException {
-        String sql = "SELECT u.* " +
+        String sql = "SELECT u.UserID, u.FirstName, u.LastName, u.Email " +
                 "FROM User u " +
                 "JOIN Casting_Director cd ON u.UserID = cd.UserID " +
                 "JOIN Team t ON cd.CdID = t.CdID " +
@@ -200,7 +208,7 @@ public class TeamDAO {
      * @throws SQLException if a database access error occurs during the query execution.
      */
     public List<UserDTO> getAvailableCastingDirectors(int productionID) throws SQLException {
-        String sql = "SELECT u.* " +
+        String sql = "SELECT u.UserID, u.FirstName, u.LastName, u.Email " +
                 "FROM User u " +
                 "JOIN Casting_Director cd ON u.UserID = cd.UserID " +
                 "WHERE cd.CdID NOT IN (SELECT CdID FROM Team WHERE ProductionID = ?)";
@@ -209,13 +217,6 @@ public class TeamDAO {
     }
 
     // --- Helper Methods ---
-    private TeamDTO extractTeamFromResultSet(ResultSet rs) throws SQLException {
-        TeamDTO team = new TeamDTO();
-        team.setProductionID(rs.getInt("ProductionID"));
-        team.setCdID(rs.getInt("CdID"));
-        return team;
-    }
-
     private List<UserDTO> executeUserQuery(String sql, int productionID) throws SQLException {
         List<UserDTO> users = new ArrayList<>();
         try (Connection con = dataSource.getConnection();
@@ -234,10 +235,10 @@ public class TeamDAO {
 
     private UserDTO extractUser(ResultSet rs) throws SQLException {
         UserDTO user = new UserDTO();
-        user.setUserID(rs.getInt("UserID"));
-        user.setFirstName(rs.getString("FirstName"));
-        user.setLastName(rs.getString("LastName"));
-        user.setEmail(rs.getString("Email"));
+        user.setUserID(rs.getInt(1));
+        user.setFirstName(rs.getString(2));
+        user.setLastName(rs.getString(3));
+        user.setEmail(rs.getString(4));
         return user;
     }
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package model.dao;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Runs several DAO operations on a single connection and in a single transaction.
+ * <p>
+ * DAOs join the transaction by being created with {@link #getDataSource()}: every
+ * {@code getConnection()} on that DataSource returns the same connection, whose {@code close()}
+ * does nothing. The work is made durable by {@link #commit()}; closing the unit without
+ * committing rolls it back.
+ * </p>
+ * <pre>{@code
+ * try (UnitOfWork uow = UnitOfWork.begin(ds)) {
+ *     new UserDAO(uow.getDataSource()).save(user);
+ *     new PerformerDAO(uow.getDataSource()).save(performer);
+ *     uow.commit();
+ * }
+ * }</pre>
+ * <p>
+ * While a transaction is open, DAOs read around the entity caches, so uncommitted rows are never
+ * cached, and repeat their cache invalidations once the transaction ends.
+ * </p>
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private final Connection connection;
+    private final TransactionalDataSource view;
+    private final List<Runnable> afterCompletion = new ArrayList<>();
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(Connection connection, DataSource origin) {
+        this.connection = connection;
+        this.view = new TransactionalDataSource(this, origin);
+    }
+
+    /**
+     * Acquires a connection and starts a transaction on it.
+     *
+     * @param dataSource the DataSource to take the connection from.
+     * @return the unit of work, to be used in a try-with-resources block.
+     * @throws SQLException if no connection can be obtained.
+     * @throws IllegalArgumentException if the DataSource already belongs to a unit of work.
+     */
+    public static UnitOfWork begin(DataSource dataSource) throws SQLException {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("DataSource cannot be null");
+        }
+        if (dataSource instanceof TransactionalDataSource) {
+            throw new IllegalArgumentException("Nested units of work are not supported");
+        }
+
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new UnitOfWork(connection, dataSource);
+    }
+
+    /**
+     * @return the DataSource to pass to the DAOs taking part in the transaction.
+     */
+    public DataSource getDataSource() {
+        return view;
+    }
+
+    /**
+     * Commits the transaction. No further work can be done with this unit afterwards.
+     *
+     * @throws SQLException if the commit fails; the transaction is then rolled back on close.
+     */
+    public void commit() throws SQLException {
+        if (closed || committed) {
+            throw new IllegalStateException("Unit of work already completed");
+        }
+        connection.commit();
+        committed = true;
+    }
+
+    /**
+     * Rolls back the transaction if it was not committed and releases the connection.
+     *
+     * @throws SQLException if the rollback or the release fails.
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) return;
+        closed = true;
+
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+            connection.setAutoCommit(true);
+        } finally {
+            try {
+                connection.close();
+            } finally {
+                for (Runnable action : afterCompletion) {
+                    action.run();
+                }
+            }
+        }
+    }
+
+    // --- Package-private support for the DAOs ---
+
+    /**
+     * @return {@code true} if the DataSource belongs to an open unit of work.
+     */
+    static boolean isTransactional(DataSource dataSource) {
+        return dataSource instanceof TransactionalDataSource;
+    }
+
+    /**
+     * Runs a cache invalidation now and, inside a unit of work, again when the transaction ends,
+     * so that a reader cannot cache the pre-transaction row while the transaction is still open.
+     */
+    static void invalidate(DataSource dataSource, Runnable invalidation) {
+        invalidation.run();
+        if (dataSource instanceof TransactionalDataSource) {
+            ((TransactionalDataSource) dataSource).owner.afterCompletion.add(invalidation);
+        }
+    }
+
+    private Connection lease() throws SQLException {
+        if (closed) {
+            throw new SQLException("Unit of work is closed");
+        }
+        if (committed) {
+            throw new SQLException("Unit of work already committed");
+        }
+        return (Connection) Proxy.newProxyInstance(UnitOfWork.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new SharedConnectionHandler(connection));
+    }
+
+    /**
+     * DataSource view that hands out the connection of its unit of work.
+     */
+    private static final class TransactionalDataSource implements DataSource {
+        private final UnitOfWork owner;
+        private final DataSource origin;
+
+        private TransactionalDataSource(UnitOfWork owner, DataSource origin) {
+            this.owner = owner;
+            this.origin = origin;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return owner.lease();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("A unit of work uses a single connection");
+        }
+
+        @Override
+        public PrintWriter getLogWriter() throws SQLException {
+            return origin.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) throws SQLException {
+            origin.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            origin.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return origin.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return origin.getParentLogger();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            if (iface.isInstance(this)) {
+                return iface.cast(this);
+            }
+            return origin.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || origin.isWrapperFor(iface);
+        }
+    }
+
+    /**
+     * Forwards calls to the shared connection, except those that would end the transaction
+     * behind the back of its owner.
+     */
+    private static final class SharedConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private boolean closed;
+
+        private SharedConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed || connection.isClosed();
+                case "commit":
+                case "rollback":
+                case "setAutoCommit":
+                    throw new SQLException("The transaction is controlled by its unit of work");
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has been closed");
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package model.dao;
 
+import model.cache.EntityCaches;
 import model.dto.UserDTO;
 import com.password4j.Argon2Function;
+import com.password4j.BadParametersException;
 import com.password4j.Password;
-import com.password4j.types.Argon2;
+import utils.Argon2Policy;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object (DAO) for managing User entities.
@@ -16,21 +19,54 @@ import java.util.*;
  * This class handles all database operations regarding users, including
  * Create, Read, Update, and Delete (CRUD) operations, as well as password hashing.
  * </p>
+ * <p>
+ * Lookups by ID and by email go through the shared user cache (see {@link EntityCaches}),
+ * which is invalidated by every write made through this class.
+ * </p>
  */
 public class UserDAO implements GenericDAO<UserDTO, Integer> {
 
-    // Configuration for Argon2 password hashing
-    private static final Argon2Function ARGON_2_ID = Argon2Function.getInstance(19, 2, 1, 32, Argon2.ID);
-
     // Whitelist for sorting columns to prevent SQL Injection
     private static final List<String> ALLOWED_ORDER_COLUMNS = Arrays.asList(
             "UserID", "FirstName", "LastName", "PasswordHash", "PhoneNumber", "Role", "Email", "RegistrationDate"
     );
 
+    // Pageable subset: the cursor of getPage carries the sort value of the last row to the client,
+    // so password hashes and phone numbers must never be sort keys there
+    private static final List<String> PAGE_ORDER_COLUMNS = Arrays.asList(
+            "UserID", "FirstName", "LastName", "Role", "Email", "RegistrationDate"
+    );
+
     private static final String DEFAULT_ORDER_COLUMN = "UserID";
 
+    private static final Map<String, UserDTO.Role> DB_TO_ROLE = DbEnums.lookup(UserDTO.Role.class, UserDTO.Role::name);
+
+    // Columns selected by every query, each with the code that reads it
+    private static final RowMapping<UserDTO> MAPPING = RowMapping.of(UserDTO::new)
+            .column("UserID", (rs, i, user) -> user.setUserID(rs.getInt(i)))
+            .column("FirstName", (rs, i, user) -> user.setFirstName(rs.getString(i)))
+            .column("LastName", (rs, i, user) -> user.setLastName(rs.getString(i)))
+            .column("PasswordHash", (rs, i, user) -> user.setPasswordHash(rs.getString(i)))
+            .column("PhoneNumber", (rs, i, user) -> user.setPhoneNumber(rs.getString(i)))
+            .column("Email", (rs, i, user) -> user.setEmail(rs.getString(i)))
+            .column("Role", (rs, i, user) -> {
+                String role = rs.getString(i);
+                if (role != null) user.setRole(DB_TO_ROLE.get(role));
+            })
+            .column("RegistrationDate", (rs, i, user) -> user.setRegistrationDate(rs.getObject(i, LocalDateTime.class)))
+            .build();
+
+    private static final String COLUMNS = MAPPING.getColumns();
+
     private final DataSource dataSource;
 
+    private final BatchWriter<UserDTO> batchWriter = new BatchWriter<>(
+            "INSERT INTO User(FirstName, LastName, PasswordHash, PhoneNumber, Role, Email, RegistrationDate) VALUES", 7,
+            this::setInsertParameters,
+            "UPDATE User SET FirstName = ?, LastName = ?, PasswordHash = ?, PhoneNumber = ?, Role = ?, Email = ? WHERE UserID = ?",
+            this::setUpdateParameters,
+            UserDTO::getUserID, UserDTO::setUserID);
+
     /**
      * Constructs a new UserDAO with the specified DataSource.
      *
@@ -52,13 +88,7 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
      * @throws IllegalArgumentException if the user object or required fields are invalid.
      */
     public void save(UserDTO user) throws SQLException {
-        if (user == null || user.getFirstName() == null || user.getFirstName().trim().isEmpty() ||
-                user.getLastName() == null || user.getLastName().trim().isEmpty() ||
-                user.getEmail() == null || user.getEmail().trim().isEmpty() ||
-                user.getPasswordHash() == null || user.getPasswordHash().trim().isEmpty() ||
-                user.getRole() == null || user.getPhoneNumber() == null || user.getPhoneNumber().trim().isEmpty()) {
-            throw new IllegalArgumentException("User, FirstName, LastName, PasswordHash, PhoneNumber, Role or Email cannot be null or empty.");
-        }
+        validate(user);
 
         String sql;
         if (user.getUserID() == 0) {
@@ -67,13 +97,7 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-                ps.setString(1, user.getFirstName());
-                ps.setString(2, user.getLastName());
-                ps.setString(3, user.getPasswordHash());
-                ps.setString(4, user.getPhoneNumber());
-                ps.setString(5, user.getRole().name());
-                ps.setString(6, user.getEmail());
-                ps.setTimestamp(7, (user.getRegistrationDate() != null) ? Timestamp.valueOf(user.getRegistrationDate()) : Timestamp.valueOf(LocalDateTime.now()));
+                setInsertParameters(ps, 1, user);
 
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -94,17 +118,61 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement ps = connection.prepareStatement(sql)) {
 
-                ps.setString(1, user.getFirstName());
-                ps.setString(2, user.getLastName());
-                ps.setString(3, user.getPasswordHash());
-                ps.setString(4, user.getPhoneNumber());
-                ps.setString(5, user.getRole().name());
-                ps.setString(6, user.getEmail());
-                ps.setInt(7, user.getUserID());
+                setUpdateParameters(ps, 1, user);
 
                 ps.executeUpdate();
             }
         }
+        invalidateCache(user.getUserID());
+    }
+
+    /**
+     * Persists a collection of users in a single transaction.
+     * <p>
+     * New users are inserted with multi-row INSERT statements and receive their generated IDs;
+     * existing ones are updated through a JDBC batch. Either all of them are saved or none is.
+     * </p>
+     *
+     * @param users the UserDTO objects to save or update.
+     * @param chunkSize the maximum number of rows per statement.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if any user object or required field is invalid.
+     */
+    public void saveAll(Collection<UserDTO> users, int chunkSize) throws SQLException {
+        for (UserDTO user : users) {
+            validate(user);
+        }
+        batchWriter.saveAll(dataSource, users, chunkSize);
+        for (UserDTO user : users) {
+            invalidateCache(user.getUserID());
+        }
+    }
+
+    /**
+     * Replaces the password hash of a user, e.g. after an upgrade of the Argon2 parameters.
+     *
+     * @param userID       the unique identifier of the user.
+     * @param passwordHash the new hash.
+     * @return {@code true} if the user exists and was updated, {@code false} otherwise.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if the userID is invalid or the hash is empty.
+     */
+    public boolean updatePasswordHash(int userID, String passwordHash) throws SQLException {
+        if (userID <= 0 || passwordHash == null || passwordHash.trim().isEmpty()) {
+            throw new IllegalArgumentException("UserID and PasswordHash cannot be null or empty.");
+        }
+
+        String sql = "UPDATE User SET PasswordHash = ? WHERE UserID = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setString(1, passwordHash);
+            ps.setInt(2, userID);
+
+            boolean updated = ps.executeUpdate() > 0;
+            invalidateCache(userID);
+            return updated;
+        }
     }
 
     /**
@@ -125,6 +193,12 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
              PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setInt(1, userID);
             int affectedRows = ps.executeUpdate();
+            invalidateCache(userID);
+            // Role profiles are removed by ON DELETE CASCADE
+            UnitOfWork.invalidate(dataSource, () -> {
+                EntityCaches.castingDirectorsByUserID().invalidate(userID);
+                EntityCaches.productionManagersByUserID().invalidate(userID);
+            });
             return affectedRows > 0;
         }
     }
@@ -142,21 +216,11 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
             throw new IllegalArgumentException("UserID cannot be null or negative.");
         }
 
-        String sql = "SELECT * FROM User WHERE UserID = ?";
-        UserDTO userDTO = null;
-
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-
-            ps.setInt(1, userID);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    userDTO = extractUserFromResultSet(rs);
-                }
-            }
+        if (UnitOfWork.isTransactional(dataSource)) {
+            // Uncommitted rows must not reach the shared cache
+            return loadByID(userID);
         }
-        return userDTO;
+        return copyOf(EntityCaches.usersByID().get(userID, this::loadByID));
     }
 
     /**
@@ -172,7 +236,52 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
             throw new IllegalArgumentException("Email cannot be null or empty.");
         }
 
-        String sql = "SELECT * FROM User WHERE Email = ?";
+        if (UnitOfWork.isTransactional(dataSource)) {
+            return loadByEmail(email);
+        }
+
+        Integer cachedID = EntityCaches.userIDsByEmail().getIfPresent(email);
+        if (cachedID != null) {
+            UserDTO user = EntityCaches.usersByID().get(cachedID, this::loadByID);
+            if (user != null && email.equalsIgnoreCase(user.getEmail())) {
+                return copyOf(user);
+            }
+            // The email changed hands since it was indexed
+            EntityCaches.userIDsByEmail().invalidate(email);
+        }
+
+        UserDTO[] loaded = new UserDTO[1];
+        Integer userID = EntityCaches.userIDsByEmail().get(email, key -> {
+            loaded[0] = loadByEmail(key);
+            return loaded[0] != null ? loaded[0].getUserID() : null;
+        });
+        if (userID == null) {
+            return null;
+        }
+        // Seeds the ID cache with the row just read instead of querying again
+        return copyOf(EntityCaches.usersByID().get(userID, id -> loaded[0] != null ? loaded[0] : loadByID(id)));
+    }
+
+    private UserDTO loadByID(Integer userID) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM User WHERE UserID = ?";
+        UserDTO userDTO = null;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+
+            ps.setInt(1, userID);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    userDTO = MAPPING.map(rs);
+                }
+            }
+        }
+        return userDTO;
+    }
+
+    private UserDTO loadByEmail(String email) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM User WHERE Email = ?";
         UserDTO userDTO = null;
 
         try (Connection connection = dataSource.getConnection();
@@ -182,7 +291,7 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    userDTO = extractUserFromResultSet(rs);
+                    userDTO = MAPPING.map(rs);
                 }
             }
         }
@@ -202,72 +311,141 @@ public class UserDAO implements GenericDAO<UserDTO, Integer> {
         // Sanitize sort order to prevent SQL Injection
         String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
 
-        String sql = "SELECT * FROM User ORDER BY " + actualOrder;
+        String sql = "SELECT " + COLUMNS + " FROM User ORDER BY " + actualOrder;
 
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
+                users.add(MAPPING.map(rs));
             }
         }
         return users;
     }
 
     /**
-     * Helper method to map a ResultSet row to a UserDTO object.
+     * Retrieves one page of users using keyset pagination.
      *
-     * @param rs the ResultSet positioned at the current row.
-     * @return a populated UserDTO.
-     * @throws SQLException if a column is missing or a type mismatch occurs.
+     * @param order the column name to sort by, one of {@code "UserID", "FirstName", "LastName", "Role", "Email",
+     * "RegistrationDate"}. If invalid or null, defaults to "UserID".
+     * @param afterKey the cursor returned by the previous page, or null for the first page.
+     * @param limit the maximum number of users to return.
+     * @return a Page of UserDTO objects.
+     * @throws SQLException if a database access error occurs.
      */
-    private UserDTO extractUserFromResultSet(ResultSet rs) throws SQLException {
-        UserDTO user = new UserDTO();
-        user.setUserID(rs.getInt("UserID"));
-        user.setFirstName(rs.getString("FirstName"));
-        user.setLastName(rs.getString("LastName"));
-        user.setPasswordHash(rs.getString("PasswordHash"));
-        user.setPhoneNumber(rs.getString("PhoneNumber"));
-        user.setEmail(rs.getString("Email"));
-
-        // Handle Enum Conversion safely
-        String roleStr = rs.getString("Role");
-        if (roleStr != null) {
-            try {
-                user.setRole(UserDTO.Role.valueOf(roleStr));
-            } catch (IllegalArgumentException e) {
-                user.setRole(null); // Or handle default role
-            }
-        }
+    @Override
+    public Page<UserDTO> getPage(String order, String afterKey, int limit) throws SQLException {
+        return Keyset.of(order, PAGE_ORDER_COLUMNS, DEFAULT_ORDER_COLUMN, "UserID")
+                .fetch(dataSource, "SELECT " + COLUMNS + " FROM User", null, null, afterKey, limit, MAPPING);
+    }
+
+    /**
+     * Streams all users using a forward-only, read-only cursor.
+     * <p>
+     * The stream must be closed by the caller, preferably with try-with-resources.
+     * </p>
+     *
+     * @param order the column to sort by.
+     * @return a stream of users.
+     * @throws SQLException if a database error occurs.
+     */
+    @Override
+    public Stream<UserDTO> stream(String order) throws SQLException {
+        String actualOrder = (order != null && ALLOWED_ORDER_COLUMNS.contains(order)) ? order : DEFAULT_ORDER_COLUMN;
+        return ResultSetStream.open(dataSource, "SELECT " + COLUMNS + " FROM User ORDER BY " + actualOrder, MAPPING);
+    }
+
+    private void invalidateCache(int userID) {
+        UnitOfWork.invalidate(dataSource, () -> {
+            EntityCaches.usersByID().invalidate(userID);
+            EntityCaches.userIDsByEmail().invalidateIf(id -> id == userID);
+        });
+    }
+
+    private static UserDTO copyOf(UserDTO user) {
+        if (user == null) return null;
+        return new UserDTO(user.getUserID(), user.getFirstName(), user.getLastName(), user.getPasswordHash(),
+                user.getPhoneNumber(), user.getRole(), user.getEmail(), user.getRegistrationDate());
+    }
 
-        // Handle Timestamp conversion
-        Timestamp ts = rs.getTimestamp("RegistrationDate");
-        if (ts != null) {
-            user.setRegistrationDate(ts.toLocalDateTime());
+    private void validate(UserDTO user) {
+        if (user == null || user.getFirstName() == null || user.getFirstName().trim().isEmpty() ||
+                user.getLastName() == null || user.getLastName().trim().isEmpty() ||
+                user.getEmail() == null || user.getEmail().trim().isEmpty() ||
+                user.getPasswordHash() == null || user.getPasswordHash().trim().isEmpty() ||
+                user.getRole() == null || user.getPhoneNumber() == null || user.getPhoneNumber().trim().isEmpty()) {
+            throw new IllegalArgumentException("User, FirstName, LastName, PasswordHash, PhoneNumber, Role or Email cannot be null or empty.");
         }
+    }
 
-        return user;
+    private int setInsertParameters(PreparedStatement ps, int index, UserDTO user) throws SQLException {
+        index = setCommonParameters(ps, index, user);
+        ps.setObject(index++, (user.getRegistrationDate() != null) ? user.getRegistrationDate() : LocalDateTime.now());
+        return index;
+    }
+
+    private int setUpdateParameters(PreparedStatement ps, int index, UserDTO user) throws SQLException {
+        index = setCommonParameters(ps, index, user);
+        ps.setInt(index++, user.getUserID());
+        return index;
+    }
+
+    private int setCommonParameters(PreparedStatement ps, int index, UserDTO user) throws SQLException {
+        ps.setString(index++, user.getFirstName());
+        ps.setString(index++, user.getLastName());
+        ps.setString(index++, user.getPasswordHash());
+        ps.setString(index++, user.getPhoneNumber());
+        ps.setString(index++, user.getRole().name());
+        ps.setString(index++, user.getEmail());
+        return index;
     }
 
     /**
-     * Hashes a plain text password using the Argon2 algorithm.
+     * Hashes a plain text password using the Argon2 algorithm with the current {@link Argon2Policy}.
      *
      * @param plainPassword the password to hash.
-     * @return the hashed password string.
+     * @return the hashed password string, which embeds its Argon2 parameters.
      */
     public String hashPassword(String plainPassword) {
-        return Password.hash(plainPassword).addRandomSalt().with(ARGON_2_ID).getResult();
+        return Password.hash(plainPassword).addRandomSalt().with(Argon2Policy.current()).getResult();
     }
 
     /**
      * Verifies a plain text password against a stored hash.
+     * The Argon2 parameters are read from the hash itself, so hashes created under an older policy keep working.
      *
      * @param plainPassword the input password.
      * @param storedHash the hashed password from the database.
-     * @return {@code true} if matches, {@code false} otherwise.
+     * @return {@code true} if matches, {@code false} otherwise (also for malformed hashes).
      */
     public boolean verifyPassword(String plainPassword, String storedHash) {
-        return Password.check(plainPassword, storedHash).with(ARGON_2_ID);
+        Argon2Function function = parametersOf(storedHash);
+        return function != null && Password.check(plainPassword, storedHash).with(function);
+    }
+
+    /**
+     * Tells whether a stored hash is weaker than the current policy: another variant, less memory or fewer iterations.
+     * Hashes with a higher cost are kept, so that nodes with slightly different settings do not rehash each other's passwords.
+     *
+     * @param storedHash the hashed password from the database.
+     * @return {@code true} if the password should be hashed again at the next successful login.
+     */
+    public boolean needsRehash(String storedHash) {
+        Argon2Function function = parametersOf(storedHash);
+        Argon2Function policy = Argon2Policy.current();
+        return function == null
+                || function.getVariant() != policy.getVariant()
+                || function.getMemory() < policy.getMemory()
+                || function.getIterations() < policy.getIterations();
+    }
+
+    private static Argon2Function parametersOf(String storedHash) {
+        if (storedHash == null) return null;
+        try {
+            return Argon2Function.getInstanceFromHash(storedHash);
+        } catch (BadParametersException e) {
+            return null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,516 @@
+package model.datasource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * In-process JDBC connection pool, used when the container does not provide a DataSource.
+ * <p>
+ * Connections are handed out through a fair semaphore, so waiting threads are served in
+ * arrival order and give up after the configured acquire timeout. Idle connections are reused
+ * most-recently-used first, which keeps the working set small and lets the least recently used
+ * ones age out. A connection that has been idle for a while is validated before being returned.
+ * </p>
+ * <p>
+ * Callers receive a proxy whose {@code close()} returns the physical connection to the pool,
+ * rolling back any transaction left open. The physical connection is never exposed: statements
+ * and metadata obtained from the proxy answer {@code getConnection()} with the proxy itself, and
+ * {@code unwrap} only accepts the interfaces the proxy implements. A background task closes connections idle for longer
+ * than the idle timeout (down to the minimum size), refills the pool to its minimum size and,
+ * if enabled, reports connections held longer than the leak threshold together with the stack
+ * trace of the code that acquired them.
+ * </p>
+ */
+public final class ConnectionPool implements DataSource, AutoCloseable {
+
+    public static final String CONTEXT_ATTRIBUTE = "connectionPool";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> leased = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final ScheduledExecutorService housekeeper;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireNanosTotal = new LongAdder();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    private volatile int loginTimeout;
+
+    /**
+     * Creates the pool and opens its minimum number of connections.
+     *
+     * @param config the pool settings.
+     * @throws IllegalArgumentException if the settings are inconsistent.
+     * @throws SQLException if the driver cannot be loaded or the initial connections cannot be opened.
+     */
+    public ConnectionPool(PoolConfig config) throws SQLException {
+        this.config = Objects.requireNonNull(config, "PoolConfig cannot be null");
+        if (config.getUrl() == null || config.getUrl().trim().isEmpty()) {
+            throw new IllegalArgumentException("JDBC URL cannot be null or empty");
+        }
+        if (config.getMaxSize() <= 0 || config.getMinSize() < 0 || config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Pool size must satisfy 0 <= minSize <= maxSize and maxSize > 0");
+        }
+        if (config.getAcquireTimeout() < 0) {
+            throw new IllegalArgumentException("Acquire timeout cannot be negative");
+        }
+
+        if (config.getDriverClassName() != null) {
+            try {
+                Class.forName(config.getDriverClassName());
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("JDBC driver not found: " + config.getDriverClassName(), e);
+            }
+        }
+
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            closeIdle();
+            throw e;
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, config.getHousekeepingInterval());
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout for one to become available.
+     *
+     * @return a pooled connection; closing it returns it to the pool.
+     * @throws SQLTransientConnectionException if no connection becomes available in time.
+     * @throws SQLException if the pool is closed or a new connection cannot be opened.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getAcquireTimeout());
+
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeout(), TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("Connection pool exhausted: no connection available within "
+                        + config.getAcquireTimeout() + " ms (max " + config.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        try {
+            PooledConnection pooled = borrow(deadline);
+            long elapsed = System.nanoTime() - start;
+            acquired.increment();
+            acquireNanosTotal.add(elapsed);
+            acquireNanosMax.accumulateAndGet(elapsed, Math::max);
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pool only serves connections for its configured user");
+    }
+
+    /**
+     * @return a snapshot of the pool gauges and counters.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(leased.size(), idle.size(), total.get(), waiting.get(), config.getMaxSize(),
+                acquired.sum(), acquireNanosTotal.sum(), acquireNanosMax.get(), timeouts.sum(), leaks.sum());
+    }
+
+    /**
+     * Closes the idle connections and stops the background task. Connections still in use are
+     * closed when they are returned.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        housekeeper.shutdownNow();
+        closeIdle();
+    }
+
+    // --- DataSource boilerplate ---
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // Logging goes to standard output like the rest of the application
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Takes an idle connection or opens a new one. The caller holds a permit.
+     */
+    private PooledConnection borrow(long deadline) throws SQLException {
+        while (true) {
+            PooledConnection pooled = idle.pollFirst();
+            if (pooled == null) {
+                if (reserveSlot()) {
+                    return open();
+                }
+                // Every slot is taken by a connection being opened or returned; wait for it
+                try {
+                    long remaining = deadline - System.nanoTime();
+                    pooled = idle.pollFirst(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                }
+                if (pooled == null) {
+                    timeouts.increment();
+                    throw new SQLTransientConnectionException("Connection pool exhausted: no connection available within "
+                            + config.getAcquireTimeout() + " ms (max " + config.getMaxSize() + ")");
+                }
+            }
+
+            if (System.currentTimeMillis() - pooled.lastUsed < config.getValidationInterval() || isValid(pooled.physical)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = total.get();
+            if (current >= config.getMaxSize()) {
+                return false;
+            }
+            if (total.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Opens a physical connection for a slot already reserved in {@code total}.
+     */
+    private PooledConnection open() throws SQLException {
+        try {
+            Properties properties = new Properties();
+            if (config.getUser() != null) properties.setProperty("user", config.getUser());
+            if (config.getPassword() != null) properties.setProperty("password", config.getPassword());
+            return new PooledConnection(DriverManager.getConnection(config.getUrl(), properties));
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (config.getValidationQuery() == null) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                statement.execute(config.getValidationQuery());
+                return true;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Puts a connection returned by a caller back in the idle deque, or closes it if it is broken.
+     */
+    private void release(PooledConnection pooled) {
+        leased.remove(pooled);
+        try {
+            if (closed.get() || !reset(pooled.physical)) {
+                discard(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                // Never hand over a transaction left open by the previous borrower
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        closeQuietly(pooled.physical);
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (!closed.get() && total.get() < config.getMinSize() && reserveSlot()) {
+            PooledConnection pooled = open();
+            idle.offerLast(pooled);
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict from the least recently used end while above the minimum size
+            Iterator<PooledConnection> lru = idle.descendingIterator();
+            while (lru.hasNext() && total.get() > config.getMinSize()) {
+                PooledConnection pooled = lru.next();
+                if (now - pooled.lastUsed > config.getIdleTimeout() && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            }
+
+            fillToMinimum();
+
+            if (config.getLeakDetectionThreshold() > 0) {
+                for (PooledConnection pooled : leased) {
+                    long held = now - pooled.leasedAt;
+                    if (held > config.getLeakDetectionThreshold() && !pooled.leakReported) {
+                        pooled.leakReported = true;
+                        leaks.increment();
+                        System.err.println("Possibile connessione non chiusa: in uso da " + held + " ms, acquisita da:");
+                        pooled.acquiredAt.printStackTrace();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void closeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Implements {@code unwrap} and {@code isWrapperFor} on a proxy without reaching the object
+     * behind it, so callers cannot get hold of the physical connection or its statements.
+     */
+    private static Object unwrapProxy(Object proxy, Method method, Object[] args) throws SQLException {
+        Class<?> iface = (Class<?>) args[0];
+        if (method.getName().equals("isWrapperFor")) {
+            return iface.isInstance(proxy);
+        }
+        if (iface.isInstance(proxy)) {
+            return proxy;
+        }
+        throw new SQLException("Pooled objects cannot be unwrapped to " + iface.getName());
+    }
+
+    /**
+     * A physical connection and its bookkeeping.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long leasedAt;
+        private volatile Throwable acquiredAt;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection lease() {
+            leasedAt = System.currentTimeMillis();
+            leakReported = false;
+            acquiredAt = config.getLeakDetectionThreshold() > 0 ? new Throwable("Connection acquired here") : null;
+            leased.add(this);
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Handler of the proxy given to callers: forwards every call to the physical connection
+     * until the proxy is closed, then rejects them. Statements and metadata are wrapped in an
+     * {@link OwnedHandler} pointing back at the proxy.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (returned.get() ? ", returned]" : "]");
+                case "unwrap":
+                case "isWrapperFor":
+                    return unwrapProxy(proxy, method, args);
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            Object result = forward(pooled.physical, method, args);
+            if ((result instanceof Statement || result instanceof DatabaseMetaData) && method.getReturnType().isInterface()) {
+                return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new OwnedHandler(result, (Connection) proxy));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Handler of the statements and metadata created through a leased connection: forwards every
+     * call, but answers {@code getConnection()} with the leased proxy instead of the physical
+     * connection.
+     */
+    private static final class OwnedHandler implements InvocationHandler {
+        private final Object target;
+        private final Connection connection;
+
+        private OwnedHandler(Object target, Connection connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "unwrap":
+                case "isWrapperFor":
+                    return unwrapProxy(proxy, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return forward(target, method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package model.datasource;
+
+import utils.metrics.LatencyHistogram;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * {@link DataSource} wrapper that measures how the application uses the database.
+ * <p>
+ * It records the time spent waiting for a connection and holding it, and, for each normalised
+ * SQL statement, the number of executions, their latency, the errors and the rows read or
+ * updated. Statements slower than the slow-query threshold are logged with the type of their
+ * bound parameters, never their values, so no personal data or password hash reaches the log.
+ * </p>
+ * <p>
+ * Statements are normalised by replacing literals with {@code ?} and collapsing repeated
+ * parameter groups, so that {@code IN (?, ?, ?)} lists and the multi-row INSERTs of the batch
+ * writers of any size share one entry. The number of distinct entries is bounded.
+ * </p>
+ */
+public final class InstrumentedDataSource implements DataSource {
+
+    public static final String CONTEXT_ATTRIBUTE = "instrumentedDataSource";
+
+    private static final int MAX_STATEMENTS = 500;
+    private static final int MAX_NORMALIZED = 4096;
+    private static final String OTHER_STATEMENTS = "(other)";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern REPEATED_GROUPS = Pattern.compile("\\(\\?\\.\\.\\.\\)(?:\\s*,\\s*\\(\\?\\.\\.\\.\\))+");
+
+    private final DataSource delegate;
+    private final long slowQueryNanos;
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final ConcurrentHashMap<String, SqlStats> statements = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> normalized = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate         the data source to measure.
+     * @param slowQueryMillis  the execution time above which a statement is logged, or 0 to disable the log.
+     */
+    public InstrumentedDataSource(DataSource delegate, long slowQueryMillis) {
+        this.delegate = Objects.requireNonNull(delegate, "DataSource cannot be null");
+        if (slowQueryMillis < 0) {
+            throw new IllegalArgumentException("Slow query threshold cannot be negative");
+        }
+        this.slowQueryNanos = slowQueryMillis * 1_000_000L;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = delegate.getConnection();
+        return wrap(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = delegate.getConnection(username, password);
+        return wrap(connection, start);
+    }
+
+    /**
+     * @return the statistics of every statement executed so far, most expensive (total time) first.
+     */
+    public List<SqlStats> getStatementStats() {
+        List<SqlStats> list = new ArrayList<>(statements.values());
+        list.sort(Comparator.comparingDouble((SqlStats s) -> s.getLatency().getSumSeconds()).reversed());
+        return list;
+    }
+
+    /**
+     * @return the time spent in {@code getConnection()}.
+     */
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    /**
+     * @return the time between {@code getConnection()} and {@code close()}.
+     */
+    public LatencyHistogram getHoldTime() {
+        return holdTime;
+    }
+
+    public DataSource getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Normalises a statement for aggregation; see the class description.
+     *
+     * @param sql the statement as sent by the application.
+     * @return the normalised statement.
+     */
+    public static String normalize(String sql) {
+        String result = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        result = STRING_LITERAL.matcher(result).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = PARAMETER_LIST.matcher(result).replaceAll("(?...)");
+        return REPEATED_GROUPS.matcher(result).replaceAll("(?...), ...");
+    }
+
+    // --- DataSource boilerplate ---
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    // --- Helper Methods ---
+
+    private Connection wrap(Connection connection, long start) {
+        long acquired = System.nanoTime();
+        acquireTime.recordNanos(acquired - start);
+        return (Connection) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, acquired));
+    }
+
+    private SqlStats statsFor(String sql) {
+        if (sql == null) {
+            sql = OTHER_STATEMENTS;
+        }
+        String key = normalized.get(sql);
+        if (key == null) {
+            key = normalize(sql);
+            if (normalized.size() < MAX_NORMALIZED) {
+                normalized.put(sql, key);
+            }
+        }
+
+        SqlStats stats = statements.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (statements.size() >= MAX_STATEMENTS) {
+            key = OTHER_STATEMENTS;
+        }
+        return statements.computeIfAbsent(key, SqlStats::new);
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Measures how long the connection is held and instruments the statements it creates.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final long acquired;
+        private boolean closed;
+
+        private ConnectionHandler(Connection connection, long acquired) {
+            this.connection = connection;
+            this.acquired = acquired;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        holdTime.recordNanos(System.nanoTime() - acquired);
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            Object result = forward(connection, method, args);
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                String sql = (args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : null;
+                return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Times the executions of a statement and records the type of its bound parameters.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private String[] parameterTypes = new String[0];
+        private SqlStats lastStats;
+
+        private StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    Arrays.fill(parameterTypes, null);
+                    return forward(statement, method, args);
+                case "getResultSet":
+                    return countRows(forward(statement, method, args), lastStats);
+                default:
+                    break;
+            }
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                rememberParameter((Integer) args[0], name);
+                return forward(statement, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return forward(statement, method, args);
+            }
+
+            String executed = (args != null && args.length > 0 && args[0] instanceof String) ? (String) args[0] : sql;
+            SqlStats stats = statsFor(executed);
+            lastStats = stats;
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = forward(statement, method, args);
+            } catch (Throwable t) {
+                stats.recordError();
+                throw t;
+            }
+            long elapsed = System.nanoTime() - start;
+            stats.recordExecution(elapsed);
+
+            if (result instanceof Integer || result instanceof Long) {
+                if (!name.equals("execute")) stats.recordRows(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) stats.recordRows(Math.max(0, count));
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) stats.recordRows(Math.max(0, count));
+            }
+
+            if (slowQueryNanos > 0 && elapsed >= slowQueryNanos) {
+                logSlowQuery(stats, elapsed);
+            }
+            return countRows(result, stats);
+        }
+
+        private void rememberParameter(int index, String setter) {
+            if (index < 1 || index > 10_000) return;
+            if (index > parameterTypes.length) {
+                parameterTypes = Arrays.copyOf(parameterTypes, Math.max(index, parameterTypes.length * 2));
+            }
+            parameterTypes[index - 1] = setter.substring(3);
+        }
+
+        private void logSlowQuery(SqlStats stats, long elapsed) {
+            StringBuilder parameters = new StringBuilder();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i] == null) continue;
+                if (parameters.length() > 0) parameters.append(", ");
+                parameters.append(i + 1).append('=').append(parameterTypes[i]);
+            }
+            System.err.println("Query lenta (" + elapsed / 1_000_000 + " ms): " + stats.getSql()
+                    + (parameters.length() > 0 ? " [parametri: " + parameters + "]" : ""));
+        }
+
+        private Object countRows(Object result, SqlStats stats) {
+            if (!(result instanceof ResultSet) || stats == null) {
+                return result;
+            }
+            ResultSet resultSet = (ResultSet) result;
+            return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "next":
+                                boolean hasRow = resultSet.next();
+                                if (hasRow) stats.recordRow();
+                                return hasRow;
+                            default:
+                                return forward(resultSet, method, args);
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package model.datasource;
+
+/**
+ * Settings of a {@link ConnectionPool}.
+ * <p>
+ * All durations are in milliseconds. The defaults suit a small deployment; only the JDBC URL
+ * and the credentials are mandatory.
+ * </p>
+ */
+public class PoolConfig {
+    private String url;
+    private String user;
+    private String password;
+    private String driverClassName;
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long acquireTimeout = 30_000;
+    private long idleTimeout = 600_000;
+    private String validationQuery = "SELECT 1";
+    private long validationInterval = 5_000;
+    private long leakDetectionThreshold = 0;
+    private long housekeepingInterval = 30_000;
+
+    public PoolConfig() {}
+
+    public PoolConfig(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * @return the JDBC driver to load explicitly, or null to rely on driver auto-registration.
+     */
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    /**
+     * @return the number of connections kept open even when idle.
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    /**
+     * @return the maximum number of open connections, idle or in use.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return how long {@code getConnection()} waits for a free connection before failing.
+     */
+    public long getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * @return how long a connection may stay idle before being closed, as long as the pool stays above its minimum size.
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @return the query used to check a connection, or null to use {@link java.sql.Connection#isValid(int)}.
+     */
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    /**
+     * @return the idle time after which a connection is validated before being handed out.
+     */
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    public void setValidationInterval(long validationInterval) {
+        this.validationInterval = validationInterval;
+    }
+
+    /**
+     * @return how long a connection may be held before it is reported as a possible leak, or 0 to disable.
+     */
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    /**
+     * @return the period of the background task that evicts idle connections and reports leaks.
+     */
+    public long getHousekeepingInterval() {
+        return housekeepingInterval;
+    }
+
+    public void setHousekeepingInterval(long housekeepingInterval) {
+        this.housekeepingInterval = housekeepingInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig{" +
+                "url='" + url + '\'' +
+                ", user='" + user + '\'' +
+                ", minSize=" + minSize +
+                ", maxSize=" + maxSize +
+                ", acquireTimeout=" + acquireTimeout +
+                ", idleTimeout=" + idleTimeout +
+                ", validationQuery='" + validationQuery + '\'' +
+                ", leakDetectionThreshold=" + leakDetectionThreshold +
+                '}';
+    }
+}
@@ -0,0 +1,119 @@
+package model.datasource;
+
+import java.io.Serializable;
+
+/**
+ * Immutable snapshot of the gauges and counters of a {@link ConnectionPool}.
+ */
+public final class PoolStats implements Serializable {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int waiting;
+    private final int maxSize;
+    private final long acquired;
+    private final long acquireNanosTotal;
+    private final long acquireNanosMax;
+    private final long timeouts;
+    private final long leaks;
+
+    public PoolStats(int active, int idle, int total, int waiting, int maxSize, long acquired,
+                     long acquireNanosTotal, long acquireNanosMax, long timeouts, long leaks) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.acquired = acquired;
+        this.acquireNanosTotal = acquireNanosTotal;
+        this.acquireNanosMax = acquireNanosMax;
+        this.timeouts = timeouts;
+        this.leaks = leaks;
+    }
+
+    /**
+     * @return the number of connections currently lent out.
+     */
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return the number of open physical connections.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the number of threads waiting for a connection.
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of successful {@code getConnection()} calls.
+     */
+    public long getAcquired() {
+        return acquired;
+    }
+
+    /**
+     * @return the sum of the time spent in successful {@code getConnection()} calls, in nanoseconds.
+     */
+    public long getAcquireNanosTotal() {
+        return acquireNanosTotal;
+    }
+
+    /**
+     * @return the longest successful {@code getConnection()} call, in nanoseconds.
+     */
+    public long getAcquireNanosMax() {
+        return acquireNanosMax;
+    }
+
+    /**
+     * @return the mean time spent in {@code getConnection()}, in milliseconds.
+     */
+    public double getMeanAcquireMillis() {
+        return acquired == 0 ? 0.0 : acquireNanosTotal / (double) acquired / 1_000_000.0;
+    }
+
+    /**
+     * @return the number of {@code getConnection()} calls that timed out.
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return the number of connections reported as possible leaks.
+     */
+    public long getLeaks() {
+        return leaks;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", total=" + total +
+                ", waiting=" + waiting +
+                ", maxSize=" + maxSize +
+                ", acquired=" + acquired +
+                ", meanAcquireMillis=" + getMeanAcquireMillis() +
+                ", timeouts=" + timeouts +
+                ", leaks=" + leaks +
+                '}';
+    }
+}
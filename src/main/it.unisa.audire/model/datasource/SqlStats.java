@@ -0,0 +1,72 @@
+package model.datasource;
+
+import utils.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics of one normalised SQL statement, collected by {@link InstrumentedDataSource}.
+ */
+public final class SqlStats {
+
+    private final String sql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    SqlStats(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * @return the normalised statement: literals and bound parameters appear as {@code ?},
+     * and repeated {@code (?, ?)} groups are collapsed.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return the execution time, up to the first result (rows are fetched afterwards).
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return the rows read through {@code ResultSet.next()} plus the rows affected by updates.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    void recordExecution(long nanos) {
+        latency.recordNanos(nanos);
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void recordRows(long count) {
+        rows.add(count);
+    }
+
+    void recordRow() {
+        rows.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStats{count=" + getCount() + ", errors=" + getErrorCount() + ", rows=" + getRows()
+                + ", totalSeconds=" + latency.getSumSeconds() + ", sql='" + sql + "'}";
+    }
+}
@@ -1,7 +1,7 @@
 package model.dto;
 
+import java.io.InputStream;
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.Objects;
 
 public class PerformerDTO implements Serializable {
@@ -9,19 +9,21 @@ public class PerformerDTO implements Serializable {
     private Gender gender;
     private Category category;
     private String description;
-    private byte[] cvData;
+    private long cvSize;
+    private transient InputStream cvStream;
     private String cvMimeType;
+    private String cvHash;
     private String profilePhoto;
     private int userID;
 
     public PerformerDTO() {}
 
-    public PerformerDTO(int performerID, Gender gender, Category category, String description, byte[] cvData, String cvMimeType, String profilePhoto, int userID) {
+    public PerformerDTO(int performerID, Gender gender, Category category, String description, long cvSize, String cvMimeType, String profilePhoto, int userID) {
         this.performerID = performerID;
         this.gender = gender;
         this.category = category;
         this.description = description;
-        this.cvData = cvData;
+        this.cvSize = cvSize;
         this.cvMimeType = cvMimeType;
         this.profilePhoto = profilePhoto;
         this.userID = userID;
@@ -59,12 +61,35 @@ public class PerformerDTO implements Serializable {
         this.description = description;
     }
 
-    public byte[] getCvData() {
-        return cvData;
+    /**
+     * Returns the size in bytes of the stored CV, or 0 if the performer has none.
+     * <p>
+     * The CV content itself is never loaded with the DTO; it is streamed on demand
+     * through {@code PerformerDAO.writeCv}.
+     * </p>
+     */
+    public long getCvSize() {
+        return cvSize;
     }
 
-    public void setCvData(byte[] cvData) {
-        this.cvData = cvData;
+    public void setCvSize(long cvSize) {
+        this.cvSize = cvSize;
+    }
+
+    public boolean hasCv() {
+        return cvSize > 0;
+    }
+
+    /**
+     * Returns the stream holding new CV content to be written by the next save, or null
+     * if the stored CV must be left untouched.
+     */
+    public InputStream getCvStream() {
+        return cvStream;
+    }
+
+    public void setCvStream(InputStream cvStream) {
+        this.cvStream = cvStream;
     }
 
     public String getCvMimeType() {
@@ -75,6 +100,18 @@ public class PerformerDTO implements Serializable {
         this.cvMimeType = cvMimeType;
     }
 
+    /**
+     * Returns the SHA-256 of the stored CV as computed by the database, or null if the performer has none.
+     * It changes whenever the CV is replaced, so it is used as the ETag of the download.
+     */
+    public String getCvHash() {
+        return cvHash;
+    }
+
+    public void setCvHash(String cvHash) {
+        this.cvHash = cvHash;
+    }
+
     public String getProfilePhoto() {
         return profilePhoto;
     }
@@ -98,8 +135,9 @@ public class PerformerDTO implements Serializable {
                 ", gender=" + gender +
                 ", category=" + category +
                 ", description='" + description + '\'' +
-                ", cvData=" + Arrays.toString(cvData) +
+                ", cvSize=" + cvSize +
                 ", cvMimeType='" + cvMimeType + '\'' +
+                ", cvHash='" + cvHash + '\'' +
                 ", profilePhoto='" + profilePhoto + '\'' +
                 ", userID=" + userID +
                 '}';
@@ -109,7 +147,7 @@ public class PerformerDTO implements Serializable {
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         PerformerDTO that = (PerformerDTO) o;
-        return performerID == that.performerID && userID == that.userID && gender == that.gender && category == that.category && Objects.equals(description, that.description) && Objects.deepEquals(cvData, that.cvData) && Objects.equals(cvMimeType, that.cvMimeType) && Objects.equals(profilePhoto, that.profilePhoto);
+        return performerID == that.performerID && userID == that.userID && gender == that.gender && category == that.category && Objects.equals(description, that.description) && cvSize == that.cvSize && Objects.equals(cvMimeType, that.cvMimeType) && Objects.equals(profilePhoto, that.profilePhoto);
     }
 
     public enum Gender {
@@ -0,0 +1,107 @@
+package model.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Immutable identity of the logged-in user, stored in the {@code "user"} session attribute.
+ * <p>
+ * Besides the account data shown in the pages, it carries the ID of the role profile
+ * (PmID, CdID or PerformerID) resolved once at login or registration, so servlets do not
+ * need to look it up on every request. The password hash is deliberately not included.
+ * </p>
+ */
+public final class UserPrincipal implements Serializable {
+    private final int userID;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final UserDTO.Role role;
+    private final int profileID;
+
+    /**
+     * @param user      the authenticated user.
+     * @param profileID the ID of the user's role profile, or 0 if the profile does not exist.
+     */
+    public UserPrincipal(UserDTO user, int profileID) {
+        Objects.requireNonNull(user, "User cannot be null");
+        this.userID = user.getUserID();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.profileID = profileID;
+    }
+
+    public int getUserID() {
+        return userID;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserDTO.Role getRole() {
+        return role;
+    }
+
+    /**
+     * @return the ID of the role profile, or 0 if none was found.
+     */
+    public int getProfileID() {
+        return profileID;
+    }
+
+    /**
+     * @return the PmID, or 0 if the user is not a Production Manager.
+     */
+    public int getPmID() {
+        return role == UserDTO.Role.ProductionManager ? profileID : 0;
+    }
+
+    /**
+     * @return the CdID, or 0 if the user is not a Casting Director.
+     */
+    public int getCdID() {
+        return role == UserDTO.Role.CastingDirector ? profileID : 0;
+    }
+
+    /**
+     * @return the PerformerID, or 0 if the user is not a Performer.
+     */
+    public int getPerformerID() {
+        return role == UserDTO.Role.Performer ? profileID : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" +
+                "userID=" + userID +
+                ", firstName='" + firstName + '\'' +
+                ", lastName='" + lastName + '\'' +
+                ", email='" + email + '\'' +
+                ", role=" + role +
+                ", profileID=" + profileID +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        UserPrincipal that = (UserPrincipal) o;
+        return userID == that.userID && profileID == that.profileID && Objects.equals(firstName, that.firstName) && Objects.equals(lastName, that.lastName) && Objects.equals(email, that.email) && role == that.role;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userID, role, profileID);
+    }
+}
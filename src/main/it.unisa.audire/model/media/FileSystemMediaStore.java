@@ -0,0 +1,301 @@
+package model.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link MediaStore} backed by a directory outside the web application.
+ * <p>
+ * Layout under the root directory:
+ * </p>
+ * <ul>
+ *     <li>{@code objects/9f/86/<key>}: the content, sharded by the first two bytes of the hash
+ *     so that no directory grows beyond a few thousand entries;</li>
+ *     <li>{@code objects/9f/86/<key>.refs}: the reference count, as a decimal number;</li>
+ *     <li>{@code tmp/}: uploads being written, moved into place with an atomic rename once their
+ *     hash is known.</li>
+ * </ul>
+ * <p>
+ * Reference counts are updated under striped locks, so the store must be used by a single
+ * application instance. Unreferenced content is deleted only after a grace period, which protects
+ * content whose reference is about to be committed to the database.
+ * </p>
+ */
+public final class FileSystemMediaStore implements MediaStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]{64}(\\.[a-z0-9]{1,8})?$");
+    private static final String REFS_SUFFIX = ".refs";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path objects;
+    private final Path temp;
+    private final long gracePeriodMillis;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final ScheduledExecutorService collector;
+    private final List<Consumer<String>> deletionListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param root        the root directory; created if missing.
+     * @param gracePeriod how long unreferenced content and temporary files are kept.
+     * @param gcInterval  the interval of the background garbage collection, or null to disable it.
+     * @throws IOException if the directories cannot be created.
+     */
+    public FileSystemMediaStore(Path root, Duration gracePeriod, Duration gcInterval) throws IOException {
+        if (root == null || gracePeriod == null || gracePeriod.isNegative()) {
+            throw new IllegalArgumentException("Root directory and a non-negative grace period are required");
+        }
+        this.objects = Files.createDirectories(root.resolve("objects"));
+        this.temp = Files.createDirectories(root.resolve("tmp"));
+        this.gracePeriodMillis = gracePeriod.toMillis();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        if (gcInterval != null && !gcInterval.isZero() && !gcInterval.isNegative()) {
+            collector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "media-gc");
+                thread.setDaemon(true);
+                return thread;
+            });
+            collector.scheduleWithFixedDelay(this::collectQuietly, gcInterval.toMillis(), gcInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            collector = null;
+        }
+    }
+
+    @Override
+    public String put(InputStream content, String extension) throws IOException {
+        String suffix = normalizeExtension(extension);
+        MessageDigest digest = sha256();
+
+        Path upload = Files.createTempFile(temp, "upload-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(upload)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest()) + suffix;
+            Path target = pathFor(key);
+
+            synchronized (lockFor(key)) {
+                Files.createDirectories(target.getParent());
+                if (Files.exists(target)) {
+                    // Same content already stored: keep one copy and restart its grace period
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                } else {
+                    Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                writeRefs(key, readRefs(key) + 1);
+            }
+            return key;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(pathFor(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(pathFor(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(pathFor(key));
+    }
+
+    /**
+     * @return the file holding the content of the key; it must not be modified.
+     * @throws IllegalArgumentException if the key is malformed.
+     */
+    public Path pathFor(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid media key");
+        }
+        return objects.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    /**
+     * @return {@code true} if the value is a well-formed key of this store.
+     */
+    public static boolean isKey(String value) {
+        return value != null && KEY_PATTERN.matcher(value).matches();
+    }
+
+    @Override
+    public void release(String key) throws IOException {
+        pathFor(key);
+        synchronized (lockFor(key)) {
+            writeRefs(key, Math.max(0, readRefs(key) - 1));
+        }
+    }
+
+    @Override
+    public int collectGarbage() throws IOException {
+        long cutoff = System.currentTimeMillis() - gracePeriodMillis;
+        int deleted = 0;
+        List<String> deletedKeys = new ArrayList<>();
+
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(objects)) {
+            walk.filter(Files::isRegularFile).forEach(files::add);
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            String key = name.endsWith(REFS_SUFFIX) ? name.substring(0, name.length() - REFS_SUFFIX.length()) : name;
+            if (!isKey(key)) continue;
+
+            synchronized (lockFor(key)) {
+                Path blob = pathFor(key);
+                if (name.endsWith(REFS_SUFFIX)) {
+                    // Counter left behind by content deleted earlier
+                    if (!Files.exists(blob) && readRefs(key) == 0 && Files.deleteIfExists(file)) deleted++;
+                } else if (readRefs(key) == 0 && lastModified(blob) < cutoff) {
+                    if (Files.deleteIfExists(blob)) {
+                        deleted++;
+                        deletedKeys.add(key);
+                    }
+                    Files.deleteIfExists(refsPath(key));
+                }
+            }
+        }
+
+        try (DirectoryStream<Path> uploads = Files.newDirectoryStream(temp)) {
+            for (Path upload : uploads) {
+                if (lastModified(upload) < cutoff && Files.deleteIfExists(upload)) deleted++;
+            }
+        }
+
+        // Outside the locks: listeners may do their own I/O
+        for (String key : deletedKeys) {
+            notifyDeleted(key);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void addDeletionListener(Consumer<String> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener is required");
+        }
+        deletionListeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        if (collector != null) {
+            collector.shutdownNow();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void collectQuietly() {
+        try {
+            int deleted = collectGarbage();
+            if (deleted > 0) {
+                System.out.println("Media store: eliminati " + deleted + " file non più referenziati.");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Errore durante la pulizia del media store: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void notifyDeleted(String key) {
+        for (Consumer<String> listener : deletionListeners) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                System.err.println("Errore nella notifica dell'eliminazione di " + key + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path refsPath(String key) {
+        Path blob = pathFor(key);
+        return blob.resolveSibling(key + REFS_SUFFIX);
+    }
+
+    private int readRefs(String key) throws IOException {
+        try {
+            String value = new String(Files.readAllBytes(refsPath(key)), StandardCharsets.US_ASCII).trim();
+            return value.isEmpty() ? 0 : Integer.parseInt(value);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupted reference count for " + key, e);
+        }
+    }
+
+    private void writeRefs(String key, int refs) throws IOException {
+        Path refsFile = refsPath(key);
+        Path next = Files.createTempFile(temp, "refs-", ".tmp");
+        try {
+            Files.write(next, Integer.toString(refs).getBytes(StandardCharsets.US_ASCII));
+            Files.move(next, refsFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(next);
+        }
+    }
+
+    private static long lastModified(Path file) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (NoSuchFileException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static String normalizeExtension(String extension) {
+        if (extension == null || extension.isEmpty()) return "";
+        String normalized = extension.toLowerCase(Locale.ROOT);
+        if (!normalized.startsWith(".")) normalized = "." + normalized;
+        if (!normalized.matches("\\.[a-z0-9]{1,8}")) {
+            throw new IllegalArgumentException("Invalid media extension: " + extension);
+        }
+        return normalized;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
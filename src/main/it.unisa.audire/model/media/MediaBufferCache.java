@@ -0,0 +1,162 @@
+package model.media;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache of small media files held in direct (off-heap) buffers.
+ * <p>
+ * The most requested photos, typically the thumbnails shown on the review pages, are kept outside
+ * the Java heap, so they add no garbage collection work and can be written to the response
+ * without reading the disk again. Files are loaded with a single {@link FileChannel#read} into
+ * the direct buffer, without an intermediate heap copy.
+ * </p>
+ * <p>
+ * Entries are keyed by file path. The cached files must be immutable, as the content-addressed
+ * files of the {@link MediaStore} and of the {@link ThumbnailService} are, since entries are never
+ * revalidated. Direct memory is limited by {@code -XX:MaxDirectMemorySize}, which must leave room
+ * for {@code maxBytes}.
+ * </p>
+ */
+public final class MediaBufferCache {
+
+    public static final String CONTEXT_ATTRIBUTE = "mediaBufferCache";
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<Path, ByteBuffer> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxBytes      the maximum total size of the cached files.
+     * @param maxEntryBytes the maximum size of a single cached file; larger files are never cached.
+     */
+    public MediaBufferCache(long maxBytes, int maxEntryBytes) {
+        if (maxBytes <= 0 || maxEntryBytes <= 0 || maxEntryBytes > maxBytes) {
+            throw new IllegalArgumentException("Cache size must be positive and not smaller than the entry size");
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Returns the cached content of a file, loading it if it is small enough.
+     *
+     * @param file the file to read.
+     * @param size the size of the file, as already known by the caller.
+     * @return a read-only view of the content positioned at 0, or null if the file is too large to be cached.
+     * @throws IOException if the file cannot be read.
+     */
+    public ByteBuffer get(Path file, long size) throws IOException {
+        if (size > maxEntryBytes) {
+            // Not a miss: such files are never cached, so they would only lower the hit ratio
+            oversized.increment();
+            return null;
+        }
+        synchronized (this) {
+            ByteBuffer cached = entries.get(file);
+            if (cached != null) {
+                hits.increment();
+                return cached.duplicate();
+            }
+        }
+        misses.increment();
+
+        // Loaded outside the lock: concurrent misses on the same file may both read it, which is harmless
+        ByteBuffer loaded = load(file, (int) size);
+        if (loaded == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            ByteBuffer existing = entries.get(file);
+            if (existing != null) {
+                return existing.duplicate();
+            }
+            entries.put(file, loaded);
+            usedBytes += loaded.capacity();
+            evict();
+        }
+        return loaded.duplicate();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    // --- Metrics ---
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of requests for files larger than the entry limit, which are never cached.
+     */
+    public long getOversizedCount() {
+        return oversized.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // --- Helper Methods ---
+
+    private void evict() {
+        Iterator<Map.Entry<Path, ByteBuffer>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().getValue().capacity();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return the content in a read-only direct buffer, or null if the file is larger than expected.
+     */
+    private ByteBuffer load(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != size) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of file: " + file);
+                }
+            }
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        }
+    }
+}
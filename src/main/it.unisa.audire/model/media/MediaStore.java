@@ -0,0 +1,83 @@
+package model.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Storage for uploaded media (profile photos, CVs), addressed by the SHA-256 of their content.
+ * <p>
+ * Storing the same bytes twice returns the same key and keeps a single copy; every
+ * {@link #put(InputStream, String)} adds a reference, every {@link #release(String)} removes one,
+ * and {@link #collectGarbage()} deletes content that is no longer referenced.
+ * </p>
+ * <p>
+ * Keys have the form {@code <sha-256 hex><extension>}, e.g. {@code 9f86d0...0a08.png}, so they can be
+ * stored in the database as they are and the content type can be inferred from them.
+ * </p>
+ */
+public interface MediaStore extends AutoCloseable {
+
+    String CONTEXT_ATTRIBUTE = "mediaStore";
+
+    /**
+     * Stores content and adds a reference to it.
+     *
+     * @param content   the content; it is read to the end but not closed.
+     * @param extension the extension to append to the key, e.g. {@code ".png"}.
+     * @return the key of the content.
+     * @throws IOException if the content cannot be read or written.
+     */
+    String put(InputStream content, String extension) throws IOException;
+
+    /**
+     * Opens stored content for reading.
+     *
+     * @param key the key returned by {@link #put(InputStream, String)}.
+     * @return the content, which must be closed by the caller.
+     * @throws java.nio.file.NoSuchFileException if no content exists for the key.
+     * @throws IOException if the content cannot be opened.
+     * @throws IllegalArgumentException if the key is malformed.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * @return {@code true} if content exists for the key.
+     * @throws IllegalArgumentException if the key is malformed.
+     */
+    boolean exists(String key);
+
+    /**
+     * @return the size of the content in bytes.
+     * @throws IOException if no content exists for the key.
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * Removes one reference to the content. It is deleted by the next garbage collection once
+     * no references remain.
+     *
+     * @param key the key returned by {@link #put(InputStream, String)}.
+     * @throws IOException if the reference count cannot be updated.
+     */
+    void release(String key) throws IOException;
+
+    /**
+     * Deletes unreferenced content and abandoned temporary files.
+     *
+     * @return the number of files deleted.
+     * @throws IOException if the store cannot be scanned.
+     */
+    int collectGarbage() throws IOException;
+
+    /**
+     * Registers a callback invoked with the key of every content deleted by {@link #collectGarbage()},
+     * so that files derived from it can be deleted too.
+     *
+     * @param listener the callback; it runs on the garbage collection thread.
+     */
+    void addDeletionListener(Consumer<String> listener);
+
+    @Override
+    void close();
+}
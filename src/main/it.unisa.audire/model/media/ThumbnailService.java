@@ -0,0 +1,357 @@
+package model.media;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Produces and caches reduced copies of the photos held in a {@link MediaStore}.
+ * <p>
+ * After an upload, {@link #schedule(String)} queues the generation of every {@link PhotoSize} on a
+ * bounded background executor; when the queue is full the work is simply dropped and done later on
+ * demand. {@link #resolve(String, PhotoSize)} returns the cached file, generating it in the calling
+ * thread if it is missing. Concurrent requests for the same image and size share a single
+ * generation, so no image is ever resized twice at the same time.
+ * </p>
+ * <p>
+ * Derived files are written to {@code <cacheDir>/<px>/ab/cd/<key>} through a temporary file and an
+ * atomic rename; since keys are content hashes, a cached file never becomes stale. It is deleted
+ * when the store deletes the original, and it is never served once the original is gone, since
+ * {@code /media/photo} has no access check of its own.
+ * </p>
+ */
+public final class ThumbnailService implements AutoCloseable {
+
+    public static final String CONTEXT_ATTRIBUTE = "thumbnailService";
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Sizes offered to the views, as the length of the longest side in pixels.
+     */
+    public enum PhotoSize {
+        SMALL(64), MEDIUM(256), LARGE(800), ORIGINAL(0);
+
+        private final int pixels;
+
+        PhotoSize(int pixels) {
+            this.pixels = pixels;
+        }
+
+        public int getPixels() {
+            return pixels;
+        }
+
+        /**
+         * Parses a size from its name (e.g. {@code "medium"}) or its pixel count (e.g. {@code "256"}).
+         *
+         * @return the size, or null if the value is not recognised.
+         */
+        public static PhotoSize parse(String value) {
+            if (value == null) return null;
+            for (PhotoSize size : values()) {
+                if (size.name().equalsIgnoreCase(value) || (size.pixels > 0 && String.valueOf(size.pixels).equals(value))) {
+                    return size;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final MediaStore store;
+    private final Path cacheDir;
+    private final Path temp;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param store         the store holding the original photos.
+     * @param cacheDir      the directory of the derived images; created if missing.
+     * @param threads       the number of background threads.
+     * @param queueCapacity the maximum number of queued background generations.
+     * @throws IOException if the cache directory cannot be created.
+     */
+    public ThumbnailService(MediaStore store, Path cacheDir, int threads, int queueCapacity) throws IOException {
+        if (store == null || cacheDir == null || threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Store, cache directory, threads and queue capacity are required");
+        }
+        this.store = store;
+        this.cacheDir = Files.createDirectories(cacheDir);
+        this.temp = Files.createDirectories(cacheDir.resolve("tmp"));
+        store.addDeletionListener(this::deleteDerived);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                (r, pool) -> dropped.increment());
+    }
+
+    /**
+     * Queues the generation of all the reduced sizes of a photo.
+     *
+     * @param key the key of the original in the media store.
+     */
+    public void schedule(String key) {
+        for (PhotoSize size : PhotoSize.values()) {
+            if (size == PhotoSize.ORIGINAL) continue;
+            executor.execute(() -> {
+                try {
+                    resolve(key, size);
+                } catch (IOException | RuntimeException e) {
+                    // Retried on demand when the size is requested
+                    System.err.println("Errore nella generazione della miniatura " + size + " di " + key + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the file of a photo at the requested size, generating it if needed.
+     *
+     * @param key  the key of the original in the media store.
+     * @param size the requested size.
+     * @return the file to serve; for {@link PhotoSize#ORIGINAL} with a file-based store, the original itself.
+     * Photos smaller than the requested size are re-encoded without upscaling.
+     * @throws java.nio.file.NoSuchFileException if the original does not exist.
+     * @throws IOException if the image cannot be read or written.
+     */
+    public Path resolve(String key, PhotoSize size) throws IOException {
+        if (size == PhotoSize.ORIGINAL && store instanceof FileSystemMediaStore) {
+            return ((FileSystemMediaStore) store).pathFor(key);
+        }
+
+        Path target = derivedPath(key, size);
+        if (!store.exists(key)) {
+            // Left behind by a deletion that raced with a generation
+            deleteDerived(key);
+            throw new NoSuchFileException(key);
+        }
+        if (Files.exists(target)) {
+            return target;
+        }
+
+        String job = size.pixels + "/" + key;
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(job, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            // Another thread may have finished between the check and the registration
+            if (!Files.exists(target)) {
+                generate(key, size, target);
+                generated.increment();
+            }
+            mine.complete(target);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(job, mine);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // --- Metrics ---
+
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    /**
+     * @return the number of requests that waited for a generation already in progress.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of background generations dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    // --- Helper Methods ---
+
+    private Path derivedPath(String key, PhotoSize size) {
+        if (!FileSystemMediaStore.isKey(key)) {
+            throw new IllegalArgumentException("Invalid media key");
+        }
+        return cacheDir.resolve(String.valueOf(size.pixels)).resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    /**
+     * Deletes every reduced copy of a photo; called when the store deletes the original.
+     */
+    private void deleteDerived(String key) {
+        if (!FileSystemMediaStore.isKey(key)) return;
+        for (PhotoSize size : PhotoSize.values()) {
+            try {
+                Files.deleteIfExists(derivedPath(key, size));
+            } catch (IOException e) {
+                System.err.println("Errore nell'eliminazione della miniatura " + size + " di " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a thumbnail", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Thumbnail generation failed", cause);
+        }
+    }
+
+    private void generate(String key, PhotoSize size, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(temp, "thumb-", ".tmp");
+        try {
+            if (size == PhotoSize.ORIGINAL) {
+                try (InputStream in = store.open(key)) {
+                    Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } else {
+                BufferedImage scaled = scale(read(key, size.pixels), size.pixels);
+                write(scaled, key.endsWith(".png") ? "png" : "jpeg", tmp);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Decodes the original, skipping pixels when it is much larger than needed so that a
+     * multi-megapixel photo is never fully decoded for a 64 px thumbnail.
+     */
+    private BufferedImage read(String key, int targetPixels) throws IOException {
+        try (InputStream in = store.open(key);
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + key);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / (targetPixels * 2));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the longest side down to {@code targetPixels}, halving repeatedly for a smooth result.
+     * Images already small enough are returned unchanged.
+     */
+    private static BufferedImage scale(BufferedImage image, int targetPixels) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longest = Math.max(width, height);
+        if (longest <= targetPixels) {
+            return image;
+        }
+
+        int finalWidth = Math.max(1, (int) Math.round(width * (double) targetPixels / longest));
+        int finalHeight = Math.max(1, (int) Math.round(height * (double) targetPixels / longest));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(finalWidth, width / 2);
+            height = Math.max(finalHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width != finalWidth || height != finalHeight);
+
+        return current;
+    }
+
+    private static void write(BufferedImage image, String format, Path file) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package utils;
+
+import com.password4j.Argon2Function;
+import com.password4j.types.Argon2;
+
+import java.util.Arrays;
+
+/**
+ * Holds the Argon2id parameters used for new password hashes.
+ * <p>
+ * Every hash stores its own parameters ({@code $argon2id$v=19$m=...,t=...,p=...$...}), so the policy
+ * only affects hashes created from now on: existing passwords keep verifying with the parameters they
+ * were created with and, if weaker, are upgraded at the next successful login (see {@link model.dao.UserDAO#needsRehash(String)}).
+ * </p>
+ * <p>
+ * The policy is set explicitly from fixed parameters, which must be the same on every node.
+ * {@link #calibrate(long, int, int)} benchmarks candidate settings on the current hardware against a
+ * target latency, to help choose them; its result depends on timing and is not meant to be installed at startup.
+ * </p>
+ */
+public final class Argon2Policy {
+
+    // Parameters used before the policy became configurable; memory is in KiB
+    public static final Argon2Function LEGACY = Argon2Function.getInstance(19, 2, 1, 32, Argon2.ID);
+
+    // OWASP minimum for Argon2id: 19 MiB of memory with 2 iterations
+    private static final int MIN_MEMORY_KIB = 19 * 1024;
+    private static final int MIN_ITERATIONS = 2;
+    private static final int MAX_ITERATIONS = 6;
+    private static final int OUTPUT_LENGTH = 32;
+
+    private static final int[] MEMORY_CANDIDATES_KIB = {19 * 1024, 32 * 1024, 46 * 1024, 64 * 1024, 128 * 1024, 256 * 1024};
+    private static final int MEASURED_RUNS = 3;
+
+    private static volatile Argon2Function current = LEGACY;
+
+    private Argon2Policy() {}
+
+    /**
+     * @return the parameters to use for new hashes.
+     */
+    public static Argon2Function current() {
+        return current;
+    }
+
+    /**
+     * Replaces the parameters used for new hashes.
+     */
+    public static void configure(Argon2Function function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Argon2 function cannot be null");
+        }
+        current = function;
+    }
+
+    /**
+     * Builds an Argon2id function with explicit parameters.
+     *
+     * @param memoryKiB   the memory cost in KiB.
+     * @param iterations  the number of passes.
+     * @param parallelism the number of lanes.
+     * @return the function.
+     */
+    public static Argon2Function of(int memoryKiB, int iterations, int parallelism) {
+        if (memoryKiB < 8 * parallelism || iterations <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid Argon2 parameters: m=" + memoryKiB + ", t=" + iterations + ", p=" + parallelism);
+        }
+        return Argon2Function.getInstance(memoryKiB, iterations, parallelism, OUTPUT_LENGTH, Argon2.ID);
+    }
+
+    /**
+     * Chooses the strongest Argon2id parameters whose hash time stays within the target.
+     * <p>
+     * Memory candidates are tried in increasing order up to {@code maxMemoryKiB}, and for each of them
+     * the iterations are increased until the median of a few measured hashes exceeds the target.
+     * The result never goes below the OWASP minimum (19 MiB, 2 iterations), even if that is slower
+     * than the target.
+     * </p>
+     *
+     * @param targetMillis the desired time for one hash (and therefore one verification).
+     * @param maxMemoryKiB the largest memory cost to consider, in KiB.
+     * @param parallelism  the number of lanes.
+     * @return the chosen function; it is not installed, see {@link #configure(Argon2Function)}.
+     */
+    public static Argon2Function calibrate(long targetMillis, int maxMemoryKiB, int parallelism) {
+        if (targetMillis <= 0) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+        Argon2Function best = of(MIN_MEMORY_KIB, MIN_ITERATIONS, parallelism);
+        long bestCost = 0;
+
+        for (int memory : MEMORY_CANDIDATES_KIB) {
+            if (memory > Math.max(maxMemoryKiB, MIN_MEMORY_KIB)) break;
+
+            boolean withinTarget = false;
+            for (int iterations = MIN_ITERATIONS; iterations <= MAX_ITERATIONS; iterations++) {
+                Argon2Function candidate = of(memory, iterations, parallelism);
+                if (measureMillis(candidate) > targetMillis) break;
+
+                withinTarget = true;
+                long cost = (long) memory * iterations;
+                if (cost > bestCost) {
+                    best = candidate;
+                    bestCost = cost;
+                }
+            }
+            // More memory with the minimum iterations is already too slow
+            if (!withinTarget) break;
+        }
+        return best;
+    }
+
+    /**
+     * @return a short description of the parameters, e.g. {@code m=19456 KiB, t=2, p=1}.
+     */
+    public static String describe(Argon2Function function) {
+        return "m=" + function.getMemory() + " KiB, t=" + function.getIterations() + ", p=" + function.getParallelism();
+    }
+
+    // --- Helper Methods ---
+
+    private static long measureMillis(Argon2Function function) {
+        // The first run also pays for allocating the memory blocks
+        function.hash("calibration-password", "calibration-salt");
+
+        long[] runs = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            function.hash("calibration-password", "calibration-salt");
+            runs[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(runs);
+        return runs[MEASURED_RUNS / 2] / 1_000_000;
+    }
+}
@@ -0,0 +1,246 @@
+package utils;
+
+import jakarta.servlet.ServletContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fingerprinted static assets (styles, scripts, images) held in memory.
+ * <p>
+ * At startup {@link #scan(ServletContext)} reads every file under {@code /styles/}, {@code /scripts/}
+ * and {@code /images/}, and publishes it under a name that embeds a hash of its content, e.g.
+ * {@code /styles/style.css} becomes {@code /assets/styles/style.3f2a9c1b0d.css}. Since the name
+ * changes whenever the content does, the files can be cached by browsers forever.
+ * </p>
+ * <p>
+ * Text assets are also kept gzip-compressed; a Brotli variant is served when a precompressed
+ * {@code .br} file is deployed next to the original (the JDK has no Brotli encoder).
+ * </p>
+ */
+public final class AssetRegistry {
+
+    public static final String PREFIX = "/assets";
+
+    private static final String[] DIRECTORIES = {"/styles/", "/scripts/", "/images/"};
+    private static final int FINGERPRINT_LENGTH = 10;
+    private static final long MAX_ASSET_SIZE = 1024 * 1024;
+
+    private static volatile AssetRegistry current = new AssetRegistry(Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * A static file with its precomputed representations.
+     */
+    public static final class Asset {
+        private final String contentType;
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final byte[] brotli;
+        private final String etag;
+        private final long lastModified;
+
+        private Asset(String contentType, byte[] identity, byte[] gzip, byte[] brotli, String etag, long lastModified) {
+            this.contentType = contentType;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getIdentity() {
+            return identity;
+        }
+
+        /**
+         * @return the gzip-compressed content, or null if compression does not pay off.
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        /**
+         * @return the Brotli-compressed content, or null if no {@code .br} file was deployed.
+         */
+        public byte[] getBrotli() {
+            return brotli;
+        }
+
+        /**
+         * @return the content fingerprint, without quotes.
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final Map<String, String> urls;
+    private final Map<String, Asset> assets;
+
+    private AssetRegistry(Map<String, String> urls, Map<String, Asset> assets) {
+        this.urls = urls;
+        this.assets = assets;
+    }
+
+    /**
+     * @return the registry in use, empty until {@link #install(AssetRegistry)} is called.
+     */
+    public static AssetRegistry current() {
+        return current;
+    }
+
+    public static void install(AssetRegistry registry) {
+        current = registry;
+    }
+
+    /**
+     * EL function {@code audire:asset}: returns the fingerprinted URL of an asset.
+     *
+     * @param path the context-relative path, e.g. {@code /styles/style.css}.
+     * @return the fingerprinted path, or the given path if the asset is not registered.
+     */
+    public static String asset(String path) {
+        return current.url(path);
+    }
+
+    /**
+     * Reads and fingerprints all the static assets of the web application.
+     *
+     * @param context the servlet context.
+     * @return the registry.
+     * @throws IOException if an asset cannot be read.
+     */
+    public static AssetRegistry scan(ServletContext context) throws IOException {
+        Map<String, String> urls = new HashMap<>();
+        Map<String, Asset> assets = new HashMap<>();
+
+        for (String directory : DIRECTORIES) {
+            scanDirectory(context, directory, urls, assets);
+        }
+        return new AssetRegistry(Collections.unmodifiableMap(urls), Collections.unmodifiableMap(assets));
+    }
+
+    /**
+     * @param path the context-relative path, e.g. {@code /styles/style.css}.
+     * @return the fingerprinted path, or the given path if the asset is not registered.
+     */
+    public String url(String path) {
+        String url = urls.get(path);
+        return url != null ? url : path;
+    }
+
+    /**
+     * @param fingerprintedPath the path below {@link #PREFIX}, e.g. {@code /styles/style.3f2a9c1b0d.css}.
+     * @return the asset, or null if no asset has that name.
+     */
+    public Asset lookup(String fingerprintedPath) {
+        return assets.get(fingerprintedPath);
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    // --- Helper Methods ---
+
+    private static void scanDirectory(ServletContext context, String directory, Map<String, String> urls, Map<String, Asset> assets) throws IOException {
+        Set<String> paths = context.getResourcePaths(directory);
+        if (paths == null) return;
+
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                scanDirectory(context, path, urls, assets);
+                continue;
+            }
+            // Precompressed variants are attached to their original
+            if (path.endsWith(".br") || path.endsWith(".gz")) continue;
+
+            URL resource = context.getResource(path);
+            if (resource == null) continue;
+
+            URLConnection connection = resource.openConnection();
+            long size = connection.getContentLengthLong();
+            if (size > MAX_ASSET_SIZE) {
+                continue; // Left to the container default servlet
+            }
+
+            byte[] content;
+            try (InputStream in = connection.getInputStream()) {
+                content = in.readAllBytes();
+            }
+
+            String fingerprint = fingerprint(content);
+            String contentType = context.getMimeType(path);
+            if (contentType == null) contentType = "application/octet-stream";
+            if (contentType.startsWith("text/") || contentType.endsWith("javascript")) {
+                contentType += ";charset=UTF-8";
+            }
+
+            byte[] gzip = isCompressible(contentType) ? gzip(content) : null;
+            byte[] brotli = readIfPresent(context, path + ".br");
+            long lastModified = (connection.getLastModified() / 1000) * 1000;
+
+            String fingerprinted = insertFingerprint(path, fingerprint);
+            urls.put(path, PREFIX + fingerprinted);
+            assets.put(fingerprinted, new Asset(contentType, content, gzip, brotli, fingerprint, lastModified));
+        }
+    }
+
+    private static String insertFingerprint(String path, String fingerprint) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash) {
+            return path + "." + fingerprint;
+        }
+        return path.substring(0, dot) + "." + fingerprint + path.substring(dot);
+    }
+
+    private static String fingerprint(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(hash).substring(0, FINGERPRINT_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text/") || contentType.contains("javascript")
+                || contentType.contains("json") || contentType.contains("svg");
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 3 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            out.write(content);
+        }
+        byte[] compressed = buffer.toByteArray();
+        return compressed.length < content.length ? compressed : null;
+    }
+
+    private static byte[] readIfPresent(ServletContext context, String path) throws IOException {
+        try (InputStream in = context.getResourceAsStream(path)) {
+            return in != null ? in.readAllBytes() : null;
+        }
+    }
+}
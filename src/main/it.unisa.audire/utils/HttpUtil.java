@@ -0,0 +1,68 @@
+package utils;
+
+/**
+ * Helpers for parsing HTTP request headers.
+ */
+public final class HttpUtil {
+
+    private HttpUtil() {}
+
+    /**
+     * Tells whether an {@code Accept-Encoding} header allows a content coding, honouring {@code q=0}.
+     * An entry naming the coding takes precedence over the {@code *} wildcard.
+     *
+     * @param acceptEncoding the header value, may be null.
+     * @param coding         the coding, e.g. {@code "gzip"}.
+     * @return {@code true} if the client accepts the coding.
+     */
+    public static boolean acceptsEncoding(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) return false;
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(coding)) {
+                return isAccepted(parts);
+            }
+            if (name.equals("*") && wildcard == null) {
+                wildcard = isAccepted(parts);
+            }
+        }
+        return wildcard != null && wildcard;
+    }
+
+    /**
+     * Tells whether an {@code If-None-Match} header matches an entity tag (weak comparison).
+     *
+     * @param ifNoneMatch the header value, may be null.
+     * @param etag        the current entity tag, including quotes.
+     * @return {@code true} if the client already has this representation.
+     */
+    public static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        if (ifNoneMatch.trim().equals("*")) return true;
+        String current = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(current)) return true;
+        }
+        return false;
+    }
+
+    // --- Helper Methods ---
+
+    private static boolean isAccepted(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
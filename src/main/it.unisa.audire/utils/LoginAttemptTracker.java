@@ -0,0 +1,254 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory tracker of failed logins, keyed by account email and by client address.
+ * <p>
+ * Each key keeps the timestamps of its failures within a sliding window. Once a key reaches its
+ * threshold, further attempts are refused for a delay that doubles with every additional failure
+ * (up to a maximum), so a credential-stuffing burst is rejected before any database query or
+ * Argon2 verification runs.
+ * </p>
+ * <p>
+ * Keys are spread over independently locked stripes, each an LRU map with a fixed capacity,
+ * so memory stays bounded and contention stays low under concurrent logins.
+ * </p>
+ */
+public final class LoginAttemptTracker {
+
+    public static final String CONTEXT_ATTRIBUTE = "loginAttemptTracker";
+
+    private static final int STRIPES = 16;
+
+    // Failures kept per key; enough to reach the maximum delay
+    private static final int MAX_RECORDED_FAILURES = 64;
+
+    private final Table byEmail;
+    private final Table byAddress;
+    private final long windowMillis;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final LongAdder rejectedByEmail = new LongAdder();
+    private final LongAdder rejectedByAddress = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param maxFailuresPerEmail   failures allowed per account within the window before delays apply.
+     * @param maxFailuresPerAddress failures allowed per client address within the window before delays apply.
+     * @param windowMillis          the length of the sliding window.
+     * @param baseDelayMillis       the delay applied when a key reaches its threshold.
+     * @param maxDelayMillis        the upper bound of the progressive delay.
+     * @param maxTrackedKeys        the maximum number of keys kept per table; the least recently used are evicted.
+     */
+    public LoginAttemptTracker(int maxFailuresPerEmail, int maxFailuresPerAddress, long windowMillis,
+                               long baseDelayMillis, long maxDelayMillis, int maxTrackedKeys) {
+        if (maxFailuresPerEmail <= 0 || maxFailuresPerAddress <= 0) {
+            throw new IllegalArgumentException("Failure thresholds must be positive");
+        }
+        if (windowMillis <= 0 || baseDelayMillis <= 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Window and delays must be positive, with max delay >= base delay");
+        }
+        if (maxTrackedKeys < STRIPES) {
+            throw new IllegalArgumentException("Max tracked keys must be at least " + STRIPES);
+        }
+        this.byEmail = new Table(maxFailuresPerEmail, maxTrackedKeys);
+        this.byAddress = new Table(maxFailuresPerAddress, maxTrackedKeys);
+        this.windowMillis = windowMillis;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Checks whether a login attempt may proceed.
+     *
+     * @param email   the email entered by the user.
+     * @param address the client address.
+     * @return 0 if the attempt is allowed, otherwise the milliseconds to wait before retrying.
+     */
+    public long checkAllowed(String email, String address) {
+        long now = System.currentTimeMillis();
+
+        long wait = byAddress.remainingDelay(address, now);
+        if (wait > 0) {
+            rejectedByAddress.increment();
+            return wait;
+        }
+        wait = byEmail.remainingDelay(normalize(email), now);
+        if (wait > 0) {
+            rejectedByEmail.increment();
+            return wait;
+        }
+        return 0;
+    }
+
+    /**
+     * Records a failed attempt for both the account and the client address.
+     */
+    public void recordFailure(String email, String address) {
+        long now = System.currentTimeMillis();
+        failures.increment();
+        byEmail.recordFailure(normalize(email), now);
+        byAddress.recordFailure(address, now);
+    }
+
+    /**
+     * Forgets the failures of the account after a successful login.
+     * The client address keeps its history, so one valid account cannot unlock a stuffing source.
+     */
+    public void recordSuccess(String email) {
+        byEmail.clear(normalize(email));
+    }
+
+    // --- Metrics ---
+
+    public long getRejectedByEmail() {
+        return rejectedByEmail.sum();
+    }
+
+    public long getRejectedByAddress() {
+        return rejectedByAddress.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of keys evicted to keep memory bounded.
+     */
+    public long getEvictionCount() {
+        return byEmail.evictions.sum() + byAddress.evictions.sum();
+    }
+
+    public int getTrackedEmails() {
+        return byEmail.size();
+    }
+
+    public int getTrackedAddresses() {
+        return byAddress.size();
+    }
+
+    // --- Helper Methods ---
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long delayFor(int failureCount, int threshold) {
+        int exponent = Math.min(failureCount - threshold, 30);
+        return Math.min(maxDelayMillis, baseDelayMillis << exponent);
+    }
+
+    /**
+     * One striped table of failure histories.
+     */
+    private final class Table {
+        private final int threshold;
+        private final Stripe[] stripes = new Stripe[STRIPES];
+        private final LongAdder evictions = new LongAdder();
+
+        private Table(int threshold, int maxKeys) {
+            this.threshold = threshold;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(maxKeys / STRIPES);
+            }
+        }
+
+        private Stripe stripeFor(String key) {
+            int h = key.hashCode();
+            h ^= (h >>> 16);
+            return stripes[h & (STRIPES - 1)];
+        }
+
+        long remainingDelay(String key, long now) {
+            if (key == null) return 0;
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                Failures entry = stripe.get(key);
+                if (entry == null) return 0;
+                entry.expire(now - windowMillis);
+                if (entry.timestamps.isEmpty()) {
+                    stripe.remove(key);
+                    return 0;
+                }
+                int count = entry.timestamps.size();
+                if (count < threshold) return 0;
+                long until = entry.timestamps.peekLast() + delayFor(count, threshold);
+                return Math.max(0, until - now);
+            }
+        }
+
+        void recordFailure(String key, long now) {
+            if (key == null) return;
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                Failures entry = stripe.get(key);
+                if (entry == null) {
+                    entry = new Failures();
+                    stripe.put(key, entry);
+                }
+                entry.expire(now - windowMillis);
+                if (entry.timestamps.size() == MAX_RECORDED_FAILURES) {
+                    entry.timestamps.pollFirst();
+                }
+                entry.timestamps.addLast(now);
+            }
+        }
+
+        void clear(String key) {
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+            return size;
+        }
+
+        /**
+         * LRU map of one stripe; guarded by its own monitor.
+         */
+        private final class Stripe extends LinkedHashMap<String, Failures> {
+            private final int capacity;
+
+            private Stripe(int capacity) {
+                super(16, 0.75f, true);
+                this.capacity = capacity;
+            }
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Failures> eldest) {
+                if (size() > capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    private static final class Failures {
+        private final ArrayDeque<Long> timestamps = new ArrayDeque<>();
+
+        void expire(long cutoff) {
+            Iterator<Long> it = timestamps.iterator();
+            while (it.hasNext() && it.next() <= cutoff) {
+                it.remove();
+            }
+        }
+    }
+}
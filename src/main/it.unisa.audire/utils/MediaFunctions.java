@@ -0,0 +1,41 @@
+package utils;
+
+import model.media.FileSystemMediaStore;
+import model.media.ThumbnailService.PhotoSize;
+
+import java.util.Locale;
+
+/**
+ * EL functions for the views, declared in {@code WEB-INF/audire.tld}.
+ * <pre>{@code
+ * <%@ taglib prefix="audire" uri="http://audire.unisa.it/functions" %>
+ * <img src="${pageContext.request.contextPath}${audire:photoUrl(performer.profilePhoto, 'medium')}">
+ * }</pre>
+ */
+public final class MediaFunctions {
+
+    private MediaFunctions() {}
+
+    /**
+     * Returns the context-relative URL of a performer photo at the requested size.
+     *
+     * @param photo the value of {@code Performer.ProfilePhoto}: a media store key, or the name of a
+     *              file uploaded before the media store was introduced.
+     * @param size  {@code small} (64 px), {@code medium} (256 px), {@code large} (800 px) or {@code original}.
+     * @return the URL, starting with {@code /}, or an empty string if there is no photo.
+     */
+    public static String photoUrl(String photo, String size) {
+        if (photo == null || photo.isEmpty()) {
+            return "";
+        }
+        if (!FileSystemMediaStore.isKey(photo)) {
+            // Legacy uploads are served as static files, only at their original size
+            return "/uploads/" + photo;
+        }
+        PhotoSize photoSize = PhotoSize.parse(size);
+        if (photoSize == null) {
+            photoSize = PhotoSize.MEDIUM;
+        }
+        return "/media/photo/" + photoSize.name().toLowerCase(Locale.ROOT) + "/" + photo;
+    }
+}
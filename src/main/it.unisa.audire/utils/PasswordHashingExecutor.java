@@ -0,0 +1,188 @@
+package utils;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dedicated, bounded executor for password hashing and verification.
+ * <p>
+ * Argon2 is deliberately expensive in CPU and memory, so it must not run on an unbounded number
+ * of container threads. At most {@code parallelism} hashes run at once and at most
+ * {@code queueCapacity} wait; beyond that, and for tasks that wait longer than the timeout,
+ * {@link #run(Callable)} fails fast with a {@link ServerBusyException} so the caller can answer
+ * 503 instead of piling up requests.
+ * </p>
+ * <p>
+ * Created by {@link model.MainContext} and stored in the servlet context under
+ * {@link #CONTEXT_ATTRIBUTE}.
+ * </p>
+ */
+public final class PasswordHashingExecutor implements AutoCloseable {
+
+    public static final String CONTEXT_ATTRIBUTE = "passwordHashingExecutor";
+
+    private static final int RETRY_AFTER_SECONDS = 2;
+
+    private final ThreadPoolExecutor executor;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder hashNanosTotal = new LongAdder();
+    private final AtomicLong hashNanosMax = new AtomicLong();
+    private final LongAdder queueNanosTotal = new LongAdder();
+
+    /**
+     * @param parallelism   the maximum number of hashes computed concurrently.
+     * @param queueCapacity the maximum number of hashes waiting for a thread.
+     * @param timeoutMillis the maximum time a caller waits for its result, queueing included.
+     */
+    public PasswordHashingExecutor(int parallelism, int queueCapacity, long timeoutMillis) {
+        if (parallelism <= 0 || queueCapacity <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Parallelism, queue capacity and timeout must be positive");
+        }
+        this.parallelism = parallelism;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs a hashing task on the executor and waits for its result.
+     *
+     * @param task the task, e.g. {@code () -> userDAO.verifyPassword(password, hash)}.
+     * @param <T>  the result type.
+     * @return the result of the task.
+     * @throws ServerBusyException if the queue is full or the result is not ready within the timeout.
+     */
+    public <T> T run(Callable<T> task) throws ServerBusyException {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueNanosTotal.add(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - startedAt;
+                    hashNanosTotal.add(elapsed);
+                    hashNanosMax.accumulateAndGet(elapsed, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServerBusyException("Password hashing queue is full", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Removes the task if it has not started yet; a running hash cannot be interrupted
+            future.cancel(true);
+            timeouts.increment();
+            throw new ServerBusyException("Password hashing timed out", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServerBusyException("Interrupted while waiting for password hashing", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * Stops accepting tasks; hashes already queued are still completed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // --- Metrics ---
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of hashes being computed.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the number of tasks refused because the queue was full.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return the total time spent computing hashes, in nanoseconds.
+     */
+    public long getHashNanosTotal() {
+        return hashNanosTotal.sum();
+    }
+
+    /**
+     * @return the mean time to compute one hash, in milliseconds.
+     */
+    public double getMeanHashMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0.0 : hashNanosTotal.sum() / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * @return the longest time taken by a single hash, in milliseconds.
+     */
+    public double getMaxHashMillis() {
+        return hashNanosMax.get() / 1_000_000.0;
+    }
+
+    /**
+     * @return the mean time a task waited in the queue, in milliseconds.
+     */
+    public double getMeanQueueWaitMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0.0 : queueNanosTotal.sum() / (double) count / 1_000_000.0;
+    }
+}
@@ -0,0 +1,25 @@
+package utils;
+
+/**
+ * Thrown when a request is refused because a bounded server resource is saturated.
+ * <p>
+ * Servlets translate it into a {@code 503 Service Unavailable} response with a
+ * {@code Retry-After} header instead of queueing the request indefinitely.
+ * </p>
+ */
+public class ServerBusyException extends Exception {
+
+    private final int retryAfterSeconds;
+
+    public ServerBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the suggested delay before retrying, in seconds.
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,269 @@
+package utils;
+
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+/**
+ * Checks uploaded files while streaming them, without loading them on the heap.
+ * <p>
+ * The file type is recognised from the first bytes of the content (magic numbers) rather than
+ * from the name or the Content-Type declared by the browser, and the size limit is enforced on
+ * the bytes actually read. The stream returned by {@link #open(Part, Set, long)} can be handed
+ * directly to {@code PreparedStatement.setBinaryStream} or copied to disk with a fixed-size buffer.
+ * </p>
+ */
+public final class UploadInspector {
+
+    private static final int SNIFF_LENGTH = 12;
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * File types accepted by the application, with their signature.
+     */
+    public enum FileType {
+        PDF("application/pdf", ".pdf"),
+        JPEG("image/jpeg", ".jpg"),
+        PNG("image/png", ".png");
+
+        private final String mimeType;
+        private final String extension;
+
+        FileType(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        private boolean matches(byte[] header, int length) {
+            switch (this) {
+                case PDF:
+                    return startsWith(header, length, '%', 'P', 'D', 'F', '-');
+                case JPEG:
+                    return startsWith(header, length, 0xFF, 0xD8, 0xFF);
+                case PNG:
+                    return startsWith(header, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A);
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Reason why an upload was refused.
+     */
+    public enum Rejection {
+        EMPTY, TOO_LARGE, TYPE_NOT_ALLOWED
+    }
+
+    /**
+     * Thrown when an upload is empty, too large or of a type that is not allowed.
+     */
+    public static class UploadRejectedException extends IOException {
+        private final Rejection reason;
+
+        public UploadRejectedException(Rejection reason, String message) {
+            super(message);
+            this.reason = reason;
+        }
+
+        public Rejection getReason() {
+            return reason;
+        }
+    }
+
+    /**
+     * An upload whose type has been recognised, ready to be streamed.
+     */
+    public static final class InspectedUpload implements AutoCloseable {
+        private final FileType type;
+        private final long size;
+        private final InputStream stream;
+
+        private InspectedUpload(FileType type, long size, InputStream stream) {
+            this.type = type;
+            this.size = size;
+            this.stream = stream;
+        }
+
+        public FileType getType() {
+            return type;
+        }
+
+        /**
+         * @return the size reported by the container for the part.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return the content, from its first byte; reading past the size limit fails with an {@link UploadRejectedException}.
+         */
+        public InputStream getStream() {
+            return stream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+
+    private UploadInspector() {}
+
+    /**
+     * Recognises the type of an upload and opens it for streaming.
+     *
+     * @param part     the multipart part.
+     * @param allowed  the accepted file types.
+     * @param maxBytes the maximum size of the content.
+     * @return the inspected upload, which must be closed by the caller.
+     * @throws UploadRejectedException if the part is empty, too large or not of an allowed type.
+     * @throws IOException             if the part cannot be read.
+     */
+    public static InspectedUpload open(Part part, Set<FileType> allowed, long maxBytes) throws IOException {
+        if (part == null || part.getSize() <= 0) {
+            throw new UploadRejectedException(Rejection.EMPTY, "Upload is empty");
+        }
+        if (part.getSize() > maxBytes) {
+            throw new UploadRejectedException(Rejection.TOO_LARGE, "Upload exceeds " + maxBytes + " bytes");
+        }
+
+        InputStream stream = new BufferedInputStream(part.getInputStream(), BUFFER_SIZE);
+        try {
+            stream.mark(SNIFF_LENGTH);
+            byte[] header = new byte[SNIFF_LENGTH];
+            int length = stream.readNBytes(header, 0, SNIFF_LENGTH);
+            stream.reset();
+
+            FileType type = detect(header, length, allowed);
+            if (type == null) {
+                throw new UploadRejectedException(Rejection.TYPE_NOT_ALLOWED, "Upload type is not allowed");
+            }
+            return new InspectedUpload(type, part.getSize(), new LimitedInputStream(stream, maxBytes));
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks the type and size of an upload by reading only its first bytes.
+     *
+     * @return the recognised file type.
+     * @throws UploadRejectedException if the part is empty, too large or not of an allowed type.
+     * @throws IOException             if the part cannot be read.
+     */
+    public static FileType inspect(Part part, Set<FileType> allowed, long maxBytes) throws IOException {
+        try (InspectedUpload upload = open(part, allowed, maxBytes)) {
+            return upload.getType();
+        }
+    }
+
+    /**
+     * Streams an upload to a file in {@code directory}, using a fixed-size buffer.
+     * <p>
+     * The content is written to a temporary file first and then moved into place, so a failed or
+     * oversized upload never leaves a partial file under the final name.
+     * </p>
+     *
+     * @param upload    the inspected upload.
+     * @param directory the destination directory.
+     * @param baseName  the file name without extension; the extension of the detected type is appended.
+     * @return the name of the written file.
+     * @throws IOException if writing fails or the content exceeds the size limit.
+     */
+    public static String store(InspectedUpload upload, Path directory, String baseName) throws IOException {
+        Files.createDirectories(directory);
+        String fileName = baseName + upload.getType().getExtension();
+        Path temp = Files.createTempFile(directory, baseName, ".part");
+        try {
+            Files.copy(upload.getStream(), temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+            return fileName;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static FileType detect(byte[] header, int length, Set<FileType> allowed) {
+        for (FileType type : allowed) {
+            if (type.matches(header, length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... signature) {
+        if (length < signature.length) return false;
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[i] & 0xFF) != signature[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Fails as soon as more than {@code maxBytes} have been read.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long count;
+
+        private LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) checkLimit(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) checkLimit(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            checkLimit(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void checkLimit(long read) throws UploadRejectedException {
+            count += read;
+            if (count > maxBytes) {
+                throw new UploadRejectedException(Rejection.TOO_LARGE, "Upload exceeds " + maxBytes + " bytes");
+            }
+        }
+    }
+}
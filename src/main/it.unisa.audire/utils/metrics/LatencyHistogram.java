@@ -0,0 +1,148 @@
+package utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p>
+ * Values are recorded in microseconds. Each power of two is split into {@value #SUB_BUCKETS}
+ * linear sub-buckets, so every recorded value is known within about 6% whatever its magnitude,
+ * from 1 µs up to several hours, with a fixed array of counters. Recording is a couple of bit
+ * operations and one atomic increment, and never allocates.
+ * </p>
+ * <p>
+ * Reads are not atomic snapshots: a percentile computed while requests are being recorded may
+ * miss the most recent values, which is acceptable for monitoring. For export, the buckets are
+ * folded into a few fixed bounds with {@link #getCumulativeCounts(double[])}, so that a monitoring
+ * system can aggregate them across instances and compute quantiles over any time window.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values above 2^MAX_EXPONENT µs (about 19 hours) are counted in the last bucket
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values are recorded as 0.
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(indexOf(micros));
+        count.increment();
+        sumMicros.add(micros);
+
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of the recorded values, in seconds.
+     */
+    public double getSumSeconds() {
+        return sumMicros.sum() / 1_000_000.0;
+    }
+
+    /**
+     * @return the largest recorded value, in seconds.
+     */
+    public double getMaxSeconds() {
+        return maxMicros.get() / 1_000_000.0;
+    }
+
+    /**
+     * Estimates a quantile of the recorded values.
+     *
+     * @param quantile the quantile, between 0 and 1 (e.g. 0.99).
+     * @return the upper bound of the bucket holding the quantile, in seconds, or 0 if nothing was recorded.
+     */
+    public double getQuantileSeconds(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros.get()) / 1_000_000.0;
+            }
+        }
+        return getMaxSeconds();
+    }
+
+    /**
+     * Counts the recorded values up to each bound, as the cumulative buckets of a Prometheus histogram.
+     * <p>
+     * A bucket is counted under a bound only if its upper bound does not exceed it, so a count never
+     * includes larger values and may miss values within about 6% below the bound.
+     * </p>
+     *
+     * @param boundsSeconds the bounds in seconds, in increasing order.
+     * @return the count for each bound, followed by the total count (the {@code +Inf} bucket).
+     */
+    public long[] getCumulativeCounts(double[] boundsSeconds) {
+        long[] cumulative = new long[boundsSeconds.length + 1];
+        long seen = 0;
+        int bound = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long upper = upperBound(i);
+            while (bound < boundsSeconds.length && upper > boundsSeconds[bound] * 1_000_000) {
+                cumulative[bound++] = seen;
+            }
+            seen += counts.get(i);
+        }
+        while (bound < boundsSeconds.length) {
+            cumulative[bound++] = seen;
+        }
+        cumulative[boundsSeconds.length] = seen;
+        return cumulative;
+    }
+
+    // --- Helper Methods ---
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int mantissa = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        int mantissa = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,84 @@
+package utils.metrics;
+
+import java.io.PrintWriter;
+
+/**
+ * Writes metrics in the Prometheus text exposition format (version 0.0.4).
+ */
+public final class PrometheusWriter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrintWriter out;
+
+    public PrometheusWriter(PrintWriter out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes the HELP and TYPE lines of a metric family.
+     *
+     * @param name the metric name.
+     * @param type {@code counter}, {@code gauge}, {@code histogram} or {@code summary}.
+     * @param help the description.
+     */
+    public PrometheusWriter family(String name, String type, String help) {
+        out.print("# HELP ");
+        out.print(name);
+        out.print(' ');
+        out.println(help.replace("\\", "\\\\").replace("\n", "\\n"));
+        out.print("# TYPE ");
+        out.print(name);
+        out.print(' ');
+        out.println(type);
+        return this;
+    }
+
+    /**
+     * Writes a sample.
+     *
+     * @param name   the metric name, including any suffix such as {@code _sum}.
+     * @param value  the value.
+     * @param labels alternating label names and values.
+     */
+    public PrometheusWriter sample(String name, double value, String... labels) {
+        out.print(name);
+        if (labels.length > 0) {
+            out.print('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) out.print(',');
+                out.print(labels[i]);
+                out.print("=\"");
+                out.print(escape(labels[i + 1]));
+                out.print('"');
+            }
+            out.print('}');
+        }
+        out.print(' ');
+        out.println(format(value));
+        return this;
+    }
+
+    /**
+     * Writes a single-sample metric family.
+     */
+    public PrometheusWriter single(String name, String type, String help, double value) {
+        return family(name, type, help).sample(name, value);
+    }
+
+    // --- Helper Methods ---
+
+    private static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,173 @@
+package utils.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of the HTTP requests, keyed by servlet mapping, method and status class.
+ * <p>
+ * Series are created on first use and never removed; since they are keyed by the servlet
+ * mapping pattern (e.g. {@code /pm/team}, {@code /media/photo/*}) rather than by URL, their
+ * number is bounded by the servlets of the application. Looking up the series of a request
+ * is one map lookup and an array read, without building a composite key.
+ * </p>
+ */
+public final class RequestMetrics {
+
+    public static final String CONTEXT_ATTRIBUTE = "requestMetrics";
+
+    private static final String[] METHODS = {"GET", "POST", "HEAD", "PUT", "DELETE", "OTHER"};
+    private static final int STATUS_CLASSES = 5;
+
+    /**
+     * The series of one servlet mapping, indexed by method and status class.
+     */
+    private static final class Route {
+        private final AtomicReferenceArray<LatencyHistogram> histograms =
+                new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES);
+        private final LongAdder inFlight = new LongAdder();
+
+        private LatencyHistogram histogram(int method, int statusClass) {
+            int index = method * STATUS_CLASSES + statusClass;
+            LatencyHistogram histogram = histograms.get(index);
+            if (histogram == null) {
+                histograms.compareAndSet(index, null, new LatencyHistogram());
+                histogram = histograms.get(index);
+            }
+            return histogram;
+        }
+    }
+
+    /**
+     * A read-only view of one series, for exporters.
+     */
+    public static final class Series {
+        private final String route;
+        private final String method;
+        private final String statusClass;
+        private final LatencyHistogram histogram;
+
+        private Series(String route, String method, String statusClass, LatencyHistogram histogram) {
+            this.route = route;
+            this.method = method;
+            this.statusClass = statusClass;
+            this.histogram = histogram;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the status class, e.g. {@code "2xx"}.
+         */
+        public String getStatusClass() {
+            return statusClass;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+    private final long startMillis = System.currentTimeMillis();
+
+    /**
+     * Marks the start of a request.
+     *
+     * @param route the servlet mapping pattern.
+     */
+    public void start(String route) {
+        inFlight.increment();
+        route(route).inFlight.increment();
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param route  the servlet mapping pattern, as given to {@link #start(String)}.
+     * @param method the HTTP method.
+     * @param status the response status.
+     * @param nanos  the duration of the request.
+     */
+    public void finish(String route, String method, int status, long nanos) {
+        Route metrics = route(route);
+        inFlight.decrement();
+        metrics.inFlight.decrement();
+        int statusClass = Math.min(STATUS_CLASSES, Math.max(1, status / 100)) - 1;
+        metrics.histogram(methodIndex(method), statusClass).recordNanos(nanos);
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @return the number of requests being processed for a servlet mapping.
+     */
+    public long getInFlight(String route) {
+        Route metrics = routes.get(route);
+        return metrics != null ? metrics.inFlight.sum() : 0;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return the servlet mappings seen so far.
+     */
+    public List<String> getRoutes() {
+        List<String> names = new ArrayList<>(routes.keySet());
+        names.sort(null);
+        return names;
+    }
+
+    /**
+     * @return every series with at least one request, ordered by route.
+     */
+    public List<Series> getSeries() {
+        List<Series> series = new ArrayList<>();
+        for (String name : getRoutes()) {
+            Route route = routes.get(name);
+            for (int m = 0; m < METHODS.length; m++) {
+                for (int s = 0; s < STATUS_CLASSES; s++) {
+                    LatencyHistogram histogram = route.histograms.get(m * STATUS_CLASSES + s);
+                    if (histogram != null) {
+                        series.add(new Series(name, METHODS[m], (s + 1) + "xx", histogram));
+                    }
+                }
+            }
+        }
+        return series;
+    }
+
+    // --- Helper Methods ---
+
+    private Route route(String name) {
+        Route route = routes.get(name);
+        return route != null ? route : routes.computeIfAbsent(name, n -> new Route());
+    }
+
+    private static int methodIndex(String method) {
+        for (int i = 0; i < METHODS.length - 1; i++) {
+            if (METHODS[i].equals(method)) return i;
+        }
+        return METHODS.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "RequestMetrics{routes=%d, inFlight=%d}", routes.size(), getInFlight());
+    }
+}
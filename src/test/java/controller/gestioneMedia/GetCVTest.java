@@ -0,0 +1,72 @@
+package controller.gestioneMedia;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GetCVTest {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    void noHeaderSendsWholeContent() {
+        assertNull(GetCV.parseRange(null, SIZE));
+    }
+
+    @Test
+    void closedRange() {
+        assertArrayEquals(new long[]{0, 499}, GetCV.parseRange("bytes=0-499", SIZE));
+        assertArrayEquals(new long[]{500, 999}, GetCV.parseRange("bytes=500-999", SIZE));
+    }
+
+    @Test
+    void closedRangeIsClampedToContent() {
+        assertArrayEquals(new long[]{900, 999}, GetCV.parseRange("bytes=900-5000", SIZE));
+    }
+
+    @Test
+    void openRange() {
+        assertArrayEquals(new long[]{200, 999}, GetCV.parseRange("bytes=200-", SIZE));
+    }
+
+    @Test
+    void suffixRange() {
+        assertArrayEquals(new long[]{900, 999}, GetCV.parseRange("bytes=-100", SIZE));
+    }
+
+    @Test
+    void suffixLongerThanContentSendsEverything() {
+        assertArrayEquals(new long[]{0, 999}, GetCV.parseRange("bytes=-5000", SIZE));
+    }
+
+    @Test
+    void emptySuffixIsUnsatisfiable() {
+        assertSame(GetCV.UNSATISFIABLE, GetCV.parseRange("bytes=-0", SIZE));
+    }
+
+    @Test
+    void suffixOfEmptyContentIsUnsatisfiable() {
+        assertSame(GetCV.UNSATISFIABLE, GetCV.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    void startAtOrBeyondSizeIsUnsatisfiable() {
+        assertSame(GetCV.UNSATISFIABLE, GetCV.parseRange("bytes=1000-", SIZE));
+        assertSame(GetCV.UNSATISFIABLE, GetCV.parseRange("bytes=1500-2000", SIZE));
+    }
+
+    @Test
+    void multipleRangesAreIgnored() {
+        assertNull(GetCV.parseRange("bytes=0-99,200-299", SIZE));
+    }
+
+    @Test
+    void malformedHeadersAreIgnored() {
+        assertNull(GetCV.parseRange("items=0-99", SIZE));
+        assertNull(GetCV.parseRange("bytes=", SIZE));
+        assertNull(GetCV.parseRange("bytes=-", SIZE));
+        assertNull(GetCV.parseRange("bytes=100", SIZE));
+        assertNull(GetCV.parseRange("bytes=abc-def", SIZE));
+        assertNull(GetCV.parseRange("bytes=500-100", SIZE));
+    }
+}
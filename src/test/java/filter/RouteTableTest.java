@@ -0,0 +1,68 @@
+package filter;
+
+import filter.RouteTable.Decision;
+import model.dto.UserDTO.Role;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTableTest {
+
+    private final RouteTable routes = RouteTable.defaults();
+
+    @Test
+    void matchesWholeSegmentsOnly() {
+        assertEquals("/pm", routes.route("/pm").getPrefix());
+        assertEquals("/pm", routes.route("/pm/").getPrefix());
+        assertEquals("/pm", routes.route("/pm/team").getPrefix());
+        assertEquals("/", routes.route("/pmx").getPrefix());
+        assertEquals("/", routes.route("/media/pm/team").getPrefix());
+    }
+
+    @Test
+    void unknownPathsGetThePublicRoot() {
+        RouteTable.Route route = routes.route("/login");
+        assertEquals("/", route.getPrefix());
+        assertEquals(Decision.ALLOW, route.decide(null));
+        assertEquals(Decision.ALLOW, route.decide(Role.Performer));
+    }
+
+    @Test
+    void bypassedPrefixes() {
+        assertTrue(routes.route("/assets/css/main.css").isBypass());
+        assertTrue(routes.route("/media/photo/12").isBypass());
+        assertFalse(routes.route("/media/cv/12").isBypass());
+        assertEquals(Decision.BYPASS, routes.route("/favicon.ico").decide(null));
+    }
+
+    @Test
+    void restrictedAreas() {
+        RouteTable.Route route = routes.route("/cd/castings");
+        assertEquals(Decision.LOGIN, route.decide(null));
+        assertEquals(Decision.ALLOW, route.decide(Role.CastingDirector));
+        assertEquals(Decision.DENY, route.decide(Role.Performer));
+        assertEquals(Decision.DENY, route.decide(Role.ProductionManager));
+    }
+
+    @Test
+    void longestPrefixWins() {
+        RouteTable table = RouteTable.builder()
+                .require("/pm", Role.ProductionManager)
+                .permitAll("/pm/public")
+                .build();
+        assertEquals(Decision.LOGIN, table.route("/pm/team").decide(null));
+        assertEquals(Decision.ALLOW, table.route("/pm/public/info").decide(null));
+        assertEquals(Decision.LOGIN, table.route("/pm/publicx").decide(null));
+    }
+
+    @Test
+    void repeatedLookupsReturnTheSameRoute() {
+        assertSame(routes.route("/performer/profile"), routes.route("/performer/profile"));
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.builder().permitAll("pm"));
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.builder().require("/pm"));
+    }
+}
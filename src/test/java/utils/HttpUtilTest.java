@@ -0,0 +1,62 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpUtilTest {
+
+    @Test
+    void acceptsListedEncoding() {
+        assertTrue(HttpUtil.acceptsEncoding("gzip, deflate, br", "gzip"));
+        assertTrue(HttpUtil.acceptsEncoding("deflate, GZIP", "gzip"));
+        assertTrue(HttpUtil.acceptsEncoding("gzip;q=0.5", "gzip"));
+    }
+
+    @Test
+    void rejectsMissingOrUnlistedEncoding() {
+        assertFalse(HttpUtil.acceptsEncoding(null, "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("", "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("br, deflate", "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("gzipx", "gzip"));
+    }
+
+    @Test
+    void honoursZeroQuality() {
+        assertFalse(HttpUtil.acceptsEncoding("gzip;q=0", "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("gzip; q=0.0, deflate", "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("gzip;q=abc", "gzip"));
+    }
+
+    @Test
+    void wildcardCoversUnlistedEncodings() {
+        assertTrue(HttpUtil.acceptsEncoding("*", "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("*;q=0", "gzip"));
+    }
+
+    @Test
+    void explicitEntryTakesPrecedenceOverWildcard() {
+        assertTrue(HttpUtil.acceptsEncoding("*;q=0, gzip", "gzip"));
+        assertFalse(HttpUtil.acceptsEncoding("*, gzip;q=0", "gzip"));
+    }
+
+    @Test
+    void matchesEtag() {
+        assertTrue(HttpUtil.matchesEtag("\"abc\"", "\"abc\""));
+        assertTrue(HttpUtil.matchesEtag("\"x\", \"abc\"", "\"abc\""));
+        assertTrue(HttpUtil.matchesEtag("*", "\"abc\""));
+    }
+
+    @Test
+    void matchesEtagUsesWeakComparison() {
+        assertTrue(HttpUtil.matchesEtag("W/\"abc\"", "\"abc\""));
+        assertTrue(HttpUtil.matchesEtag("\"abc\"", "W/\"abc\""));
+    }
+
+    @Test
+    void doesNotMatchOtherEtags() {
+        assertFalse(HttpUtil.matchesEtag(null, "\"abc\""));
+        assertFalse(HttpUtil.matchesEtag("\"abd\"", "\"abc\""));
+        assertFalse(HttpUtil.matchesEtag("abc", "\"abc\""));
+    }
+}
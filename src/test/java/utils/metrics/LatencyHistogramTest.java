@@ -0,0 +1,74 @@
+package utils.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long micros = 0; micros < 16; micros++) {
+            assertEquals(micros, LatencyHistogram.indexOf(micros));
+            assertEquals(micros, LatencyHistogram.upperBound((int) micros));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        // The value after each upper bound opens the next bucket
+        for (int index = 0; index < 400; index++) {
+            long upper = LatencyHistogram.upperBound(index);
+            assertEquals(index, LatencyHistogram.indexOf(upper));
+            assertEquals(index + 1, LatencyHistogram.indexOf(upper + 1));
+        }
+    }
+
+    @Test
+    void upperBoundIsWithinResolution() {
+        for (long micros = 1; micros < 100_000_000L; micros = micros * 3 / 2 + 1) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.indexOf(micros));
+            assertTrue(upper >= micros, "bucket of " + micros + " ends at " + upper);
+            assertTrue(upper - micros <= micros / 16, "bucket of " + micros + " ends at " + upper);
+        }
+    }
+
+    @Test
+    void hugeValuesGoToTheLastBucket() {
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertEquals(last, LatencyHistogram.indexOf(1L << 40));
+        assertTrue(LatencyHistogram.indexOf(1L << 36) <= last);
+    }
+
+    @Test
+    void cumulativeCountsNeverIncludeLargerValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(200_000);        // 0.2 ms
+        histogram.recordNanos(900_000);        // 0.9 ms
+        histogram.recordNanos(3_000_000);      // 3 ms
+        histogram.recordNanos(2_000_000_000L); // 2 s
+
+        long[] counts = histogram.getCumulativeCounts(new double[]{0.0005, 0.001, 0.005, 1});
+        assertArrayEquals(new long[]{1, 2, 3, 3, 4}, counts);
+        assertEquals(histogram.getCount(), counts[counts.length - 1]);
+    }
+
+    @Test
+    void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertArrayEquals(new long[]{0, 0}, histogram.getCumulativeCounts(new double[]{1}));
+        assertEquals(0, histogram.getQuantileSeconds(0.99));
+    }
+
+    @Test
+    void quantileIsTheUpperBoundOfItsBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.recordNanos(i * 1_000_000L);
+        }
+        double p50 = histogram.getQuantileSeconds(0.5);
+        assertTrue(p50 >= 0.050 && p50 <= 0.050 * 17 / 16, "p50 = " + p50);
+        assertEquals(0.1, histogram.getQuantileSeconds(1), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getQuantileSeconds(1.5));
+    }
+}
@@ -0,0 +1,59 @@
+package testsupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates {@code database/schema.sql} for an H2 database in MySQL compatibility mode.
+ * <p>
+ * Shared by the load test and the benchmarks, so that both run on the schema deployed on MySQL
+ * instead of a hand-maintained copy. The few MySQL-only constructs it uses are rewritten: the
+ * {@code DATABASE} statements are skipped, inline {@code INDEX} definitions become
+ * {@code CREATE INDEX} statements, and the {@code SHA2()} generated column becomes a plain column,
+ * as H2 has no {@code SHA2()}.
+ * </p>
+ */
+public final class H2Schema {
+
+    private static final Pattern INLINE_INDEX = Pattern.compile("(?m)^\\s*INDEX\\s+(\\w+)\\s*\\(([^)]*)\\),?\\s*$\\n?");
+    private static final Pattern SHA2_COLUMN = Pattern.compile("GENERATED ALWAYS AS \\(SHA2\\([^)]*\\)\\)\\s*STORED", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STORED = Pattern.compile("\\)\\s*STORED\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRAILING_COMMA = Pattern.compile(",\\s*\\)\\s*$");
+    private static final Pattern TABLE_NAME = Pattern.compile("^CREATE TABLE\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private H2Schema() {}
+
+    /**
+     * @param script the content of the MySQL schema file.
+     * @return the statements of the script, rewritten for H2, in execution order.
+     */
+    public static List<String> translate(String script) {
+        List<String> statements = new ArrayList<>();
+        for (String raw : script.split(";")) {
+            String sql = raw.trim();
+            String upper = sql.toUpperCase();
+            if (sql.isEmpty() || upper.startsWith("DROP DATABASE") || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                continue;
+            }
+
+            List<String> indexes = new ArrayList<>();
+            Matcher table = TABLE_NAME.matcher(sql);
+            if (table.find()) {
+                Matcher index = INLINE_INDEX.matcher(sql);
+                while (index.find()) {
+                    indexes.add("CREATE INDEX " + index.group(1) + " ON " + table.group(1) + " (" + index.group(2) + ")");
+                }
+                sql = INLINE_INDEX.matcher(sql).replaceAll("");
+                sql = SHA2_COLUMN.matcher(sql).replaceAll("");
+                sql = STORED.matcher(sql).replaceAll(")");
+                sql = TRAILING_COMMA.matcher(sql).replaceAll("\n)");
+            }
+
+            statements.add(sql);
+            statements.addAll(indexes);
+        }
+        return statements;
+    }
+}